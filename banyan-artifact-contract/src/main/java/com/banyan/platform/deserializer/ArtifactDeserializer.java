@@ -1,7 +1,15 @@
 package com.banyan.platform.deserializer;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.io.IOException;
+
 public interface ArtifactDeserializer<T> {
     T deserialize(JsonNode node);
+
+    // Binds straight from the parser, without an intermediate JsonNode tree
+    default T deserialize(JsonParser parser) throws IOException {
+        return deserialize((JsonNode) parser.readValueAsTree());
+    }
 }
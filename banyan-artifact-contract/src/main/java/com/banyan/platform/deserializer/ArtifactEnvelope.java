@@ -0,0 +1,84 @@
+package com.banyan.platform.deserializer;
+
+import com.banyan.compiler.backend.api.ArtifactReference;
+import com.banyan.compiler.backend.api.CompilationMetadata;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Single-pass reading of the fields every artifact file shares: id,
+ * version, metadata, dependencies and a type-specific payload. Unknown
+ * fields are skipped, in any order. The parser needs an ObjectMapper codec.
+ */
+record ArtifactEnvelope<P>(
+        String id,
+        int version,
+        CompilationMetadata metadata,
+        List<ArtifactReference> dependencies,
+        P payload
+) {
+
+    interface PayloadReader<P> {
+        // Called with the parser on the payload's START_OBJECT
+        P read(JsonParser parser) throws IOException;
+    }
+
+    private static final TypeReference<List<ArtifactReference>> DEPENDENCIES = new TypeReference<>() {
+    };
+
+    static <P> ArtifactEnvelope<P> read(JsonParser parser, PayloadReader<P> payloadReader) throws IOException {
+
+        startObject(parser);
+        String id = null;
+        int version = 0;
+        CompilationMetadata metadata = null;
+        List<ArtifactReference> dependencies = null;
+        P payload = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getText();
+                case "version" -> version = parser.getValueAsInt();
+                case "metadata" -> metadata = metadata(parser);
+                case "dependencies" -> dependencies = parser.readValueAs(DEPENDENCIES);
+                case "payload" -> payload = payloadReader.read(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new ArtifactEnvelope<>(id, version, metadata, dependencies, payload);
+    }
+
+    private static CompilationMetadata metadata(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String compilerVersion = null;
+        long compiledAtEpochMillis = 0L;
+        String contentHash = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "compilerVersion" -> compilerVersion = parser.getValueAsString();
+                case "compiledAtEpochMillis" -> compiledAtEpochMillis = parser.getValueAsLong();
+                case "contentHash" -> contentHash = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new CompilationMetadata(compilerVersion, compiledAtEpochMillis, contentHash);
+    }
+
+    // Positions the parser on the next object's START_OBJECT
+    static void startObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Expected a JSON object, found " + token);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.banyan.platform.deserializer;
+
+import com.banyan.compiler.backend.api.ArtifactReference;
+import com.banyan.compiler.backend.api.CompilationMetadata;
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.challenge.CompiledChallenge;
+import com.banyan.compiler.backend.challenge.CompiledChallengeArtifact;
+import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceTypeArtifact;
+import com.banyan.compiler.backend.evidence.EvidenceField;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.rule.CompiledRuleArtifact;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.CompiledRulesetArtifact;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.compiler.backend.task.CompiledTaskArtifact;
+import com.banyan.compiler.backend.task.TaskActionRecord;
+import com.banyan.compiler.enums.ArtifactType;
+import com.banyan.compiler.enums.EvidenceValueType;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.compiler.enums.TaskActionEnum;
+import com.banyan.compiler.enums.TaskResulTypeEnum;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.banyan.compiler.backend.emitter.BinaryArtifactFormat.*;
+
+/*
+ * Reads artifacts written by BinaryArtifactWriter into the same compiled
+ * artifacts the JSON deserializers produce: rule values come back as text,
+ * as JsonNode.asText would give them, and the authored ruleset expression
+ * is not read. Metadata is kept, as by the streaming JSON deserializers.
+ */
+public final class BinaryArtifactReader {
+
+    public static boolean isBinary(String entryName) {
+        return entryName.endsWith(BINARY_EXTENSION);
+    }
+
+    public CompiledArtifact<?> read(byte[] bytes) {
+
+        BinaryDecoder in = new BinaryDecoder(bytes, MAGIC, FORMAT_VERSION);
+        ArtifactType type = ArtifactType.valueOf(in.string());
+        String id = in.string();
+        int version = in.signedInt();
+
+        CompilationMetadata metadata = null;
+        if (in.flag()) {
+            metadata = new CompilationMetadata(in.string(), in.signed(), in.string());
+        }
+
+        int count = in.count();
+        List<ArtifactReference> dependencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String dependencyType = in.string();
+            dependencies.add(new ArtifactReference(
+                    dependencyType == null ? null : ArtifactType.valueOf(dependencyType),
+                    in.string(),
+                    in.signedInt()));
+        }
+
+        return switch (type) {
+            case Rule -> new CompiledRuleArtifact(id, version, rule(in), metadata, dependencies);
+            case Ruleset -> new CompiledRulesetArtifact(id, version, ruleset(in), metadata, dependencies);
+            case Task -> new CompiledTaskArtifact(id, version, task(in), metadata, dependencies);
+            case Challenge -> new CompiledChallengeArtifact(id, version, challenge(in), metadata, dependencies);
+            case EvidenceType -> new CompiledEvidenceTypeArtifact(id, version, evidenceType(in), metadata, dependencies);
+        };
+    }
+
+    private static CompiledRule rule(BinaryDecoder in) {
+        String input = in.string();
+        String operator = in.string();
+        String value = String.valueOf(in.value());
+        String ruleType = in.string();
+        return new CompiledRule(trim(input), trim(operator), value.trim(), trim(ruleType));
+    }
+
+    // The authored expression that may follow is for audit only
+    private static CompiledRuleset ruleset(BinaryDecoder in) {
+        return new CompiledRuleset(expression(in));
+    }
+
+    private static RulesetExpression expression(BinaryDecoder in) {
+        int node = in.count();
+        if (node == NODE_RULE) {
+            return new RuleRefNode(in.string(), in.signedInt());
+        }
+        if (node != NODE_LOGICAL) {
+            throw new IllegalArgumentException("Unknown expression node: " + node);
+        }
+        LogicalOperator operator = LogicalOperator.valueOf(in.string());
+        int count = in.count();
+        List<RulesetExpression> operands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            operands.add(expression(in));
+        }
+        return new LogicalNode(operator, operands);
+    }
+
+    private static CompiledTask task(BinaryDecoder in) {
+        String ruleSetId = in.string();
+        int rulesetVersion = in.signedInt();
+        String taskType = in.string();
+        int count = in.count();
+        List<TaskActionRecord> actions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String on = in.string();
+            actions.add(new TaskActionRecord(on == null ? null : TaskActionEnum.valueOf(on), in.string()));
+        }
+        return new CompiledTask(
+                ruleSetId,
+                rulesetVersion,
+                taskType == null ? null : TaskResulTypeEnum.valueOf(taskType),
+                actions,
+                in.string()
+        );
+    }
+
+    private static CompiledChallenge challenge(BinaryDecoder in) {
+        int count = in.count();
+        List<CompiledTaskRef> taskRefs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            taskRefs.add(new CompiledTaskRef(in.string(), in.signedInt()));
+        }
+        return new CompiledChallenge(taskRefs);
+    }
+
+    private static CompiledEvidenceType evidenceType(BinaryDecoder in) {
+        String id = in.string();
+        int version = in.signedInt();
+        int count = in.count();
+        Map<String, EvidenceField> fields = HashMap.newHashMap(count);
+        for (int i = 0; i < count; i++) {
+            String name = in.string();
+            String type = in.string();
+            fields.put(name, new EvidenceField(name, type == null ? null : EvidenceValueType.valueOf(type), in.flag()));
+        }
+        return new CompiledEvidenceType(id, version, fields);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
@@ -0,0 +1,106 @@
+package com.banyan.platform.deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.banyan.compiler.backend.emitter.BinaryArtifactFormat.*;
+
+// Cursor over one binary file; the string pool is decoded up front
+final class BinaryDecoder {
+
+    private final byte[] bytes;
+    private final String[] pool;
+    private int position;
+
+    BinaryDecoder(byte[] bytes, byte[] magic, int formatVersion) {
+        this.bytes = bytes;
+        if (bytes.length < magic.length
+                || !Arrays.equals(bytes, 0, magic.length, magic, 0, magic.length)) {
+            throw new IllegalArgumentException("Not a binary artifact");
+        }
+        position = magic.length;
+        int format = count();
+        if (format != formatVersion) {
+            throw new IllegalArgumentException("Unsupported binary artifact format: " + format);
+        }
+        pool = new String[count()];
+        for (int i = 0; i < pool.length; i++) {
+            int length = count();
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("Truncated binary artifact");
+            }
+            pool[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+        }
+    }
+
+    String string() {
+        int ref = count();
+        if (ref > pool.length) {
+            throw new IllegalArgumentException("String ref out of pool: " + ref);
+        }
+        return ref == 0 ? null : pool[ref - 1];
+    }
+
+    boolean flag() {
+        return next() != 0;
+    }
+
+    int count() {
+        long value = unsigned();
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Count out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    int signedInt() {
+        return Math.toIntExact(signed());
+    }
+
+    long signed() {
+        long value = unsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long unsigned() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = next();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    // Tagged constant as Boolean, Long, Double, String or null
+    Object value() {
+        int tag = count();
+        return switch (tag) {
+            case VALUE_NULL -> null;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_LONG -> signed();
+            case VALUE_DOUBLE -> Double.longBitsToDouble(fixed64());
+            case VALUE_STRING -> string();
+            default -> throw new IllegalArgumentException("Unknown value tag: " + tag);
+        };
+    }
+
+    long fixed64() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | next();
+        }
+        return value;
+    }
+
+    private int next() {
+        if (position >= bytes.length) {
+            throw new IllegalArgumentException("Truncated binary artifact");
+        }
+        return bytes[position++] & 0xFF;
+    }
+}
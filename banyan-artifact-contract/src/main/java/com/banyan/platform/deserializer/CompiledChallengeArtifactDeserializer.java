@@ -5,10 +5,13 @@ import com.banyan.compiler.backend.api.CompilationMetadata;
 import com.banyan.compiler.backend.challenge.CompiledChallenge;
 import com.banyan.compiler.backend.challenge.CompiledChallengeArtifact;
 import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 
 public final class CompiledChallengeArtifactDeserializer
@@ -48,4 +51,32 @@ public final class CompiledChallengeArtifactDeserializer
                 deps
         );
     }
+
+    @Override
+    public CompiledChallengeArtifact deserialize(JsonParser parser) throws IOException {
+
+        var artifact = ArtifactEnvelope.read(parser, CompiledChallengeArtifactDeserializer::challenge);
+        return new CompiledChallengeArtifact(
+                artifact.id(),
+                artifact.version(),
+                artifact.payload(),
+                artifact.metadata(),
+                artifact.dependencies()
+        );
+    }
+
+    private static CompiledChallenge challenge(JsonParser parser) throws IOException {
+        List<CompiledTaskRef> taskRefs = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("compiledTaskRefsList")) {
+                taskRefs = parser.readValueAs(new TypeReference<List<CompiledTaskRef>>() {
+                });
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new CompiledChallenge(taskRefs);
+    }
 }
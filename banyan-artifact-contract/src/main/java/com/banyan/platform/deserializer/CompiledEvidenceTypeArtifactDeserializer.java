@@ -5,10 +5,13 @@ import com.banyan.compiler.backend.api.CompilationMetadata;
 import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
 import com.banyan.compiler.backend.evidence.CompiledEvidenceTypeArtifact;
 import com.banyan.compiler.backend.evidence.EvidenceField;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -102,4 +105,36 @@ public final class CompiledEvidenceTypeArtifactDeserializer
                 deps
         );
     }
+
+    @Override
+    public CompiledEvidenceTypeArtifact deserialize(JsonParser parser) throws IOException {
+
+        var artifact = ArtifactEnvelope.read(parser, CompiledEvidenceTypeArtifactDeserializer::evidenceType);
+        return new CompiledEvidenceTypeArtifact(
+                artifact.id(),
+                artifact.version(),
+                artifact.payload(),
+                artifact.metadata(),
+                artifact.dependencies()
+        );
+    }
+
+    private static CompiledEvidenceType evidenceType(JsonParser parser) throws IOException {
+        String id = null;
+        int version = 0;
+        Map<String, EvidenceField> fields = Map.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getText();
+                case "version" -> version = parser.getValueAsInt();
+                case "fields" -> fields = parser.<List<EvidenceField>>readValueAs(new TypeReference<List<EvidenceField>>() {
+                        }).stream()
+                        .collect(Collectors.toUnmodifiableMap(EvidenceField::name, f -> f));
+                default -> parser.skipChildren();
+            }
+        }
+        return new CompiledEvidenceType(id, version, fields);
+    }
 }
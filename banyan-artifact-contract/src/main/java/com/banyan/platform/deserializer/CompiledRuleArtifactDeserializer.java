@@ -7,10 +7,13 @@ import com.banyan.compiler.backend.api.ArtifactReference;
 import com.banyan.compiler.backend.api.CompilationMetadata;
 import com.banyan.compiler.backend.rule.CompiledRule;
 import com.banyan.compiler.backend.rule.CompiledRuleArtifact;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 /*
 {
@@ -70,4 +73,37 @@ public final class CompiledRuleArtifactDeserializer
                 deps
         );
     }
+
+    @Override
+    public CompiledRuleArtifact deserialize(JsonParser parser) throws IOException {
+
+        var artifact = ArtifactEnvelope.read(parser, CompiledRuleArtifactDeserializer::rule);
+        return new CompiledRuleArtifact(
+                artifact.id(),
+                artifact.version(),
+                artifact.payload(),
+                artifact.metadata(),
+                artifact.dependencies()
+        );
+    }
+
+    // Scalar values as text, like JsonNode.asText
+    private static CompiledRule rule(JsonParser parser) throws IOException {
+        String input = null;
+        String operator = null;
+        String value = null;
+        String ruleType = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "input" -> input = parser.getText().trim();
+                case "operator" -> operator = parser.getText().trim();
+                case "value" -> value = parser.getText().trim();
+                case "ruleType" -> ruleType = parser.getText().trim();
+                default -> parser.skipChildren();
+            }
+        }
+        return new CompiledRule(input, operator, value, ruleType);
+    }
 }
@@ -5,10 +5,13 @@ import com.banyan.compiler.backend.api.CompilationMetadata;
 import com.banyan.compiler.backend.ruleset.CompiledRuleset;
 import com.banyan.compiler.backend.ruleset.CompiledRulesetArtifact;
 import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 /*
 {
@@ -106,4 +109,32 @@ public final class CompiledRulesetArtifactDeserializer
                 deps
         );
     }
+
+    @Override
+    public CompiledRulesetArtifact deserialize(JsonParser parser) throws IOException {
+
+        var artifact = ArtifactEnvelope.read(parser, CompiledRulesetArtifactDeserializer::ruleset);
+        return new CompiledRulesetArtifact(
+                artifact.id(),
+                artifact.version(),
+                artifact.payload(),
+                artifact.metadata(),
+                artifact.dependencies()
+        );
+    }
+
+    // The authored originalExpression is not needed at runtime
+    private static CompiledRuleset ruleset(JsonParser parser) throws IOException {
+        RulesetExpression expression = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("expression")) {
+                expression = parser.readValueAs(RulesetExpression.class);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new CompiledRuleset(expression);
+    }
 }
@@ -6,10 +6,13 @@ import com.banyan.compiler.backend.task.CompiledTask;
 import com.banyan.compiler.backend.task.CompiledTaskArtifact;
 import com.banyan.compiler.backend.task.TaskActionRecord;
 import com.banyan.compiler.enums.TaskResulTypeEnum;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 
 public final class CompiledTaskArtifactDeserializer
@@ -69,4 +72,39 @@ public record CompiledTask(String ruleSetId, Integer rulesetVersion, TaskResulTy
                 deps
         );
     }
+
+    @Override
+    public CompiledTaskArtifact deserialize(JsonParser parser) throws IOException {
+
+        var artifact = ArtifactEnvelope.read(parser, CompiledTaskArtifactDeserializer::task);
+        return new CompiledTaskArtifact(
+                artifact.id(),
+                artifact.version(),
+                artifact.payload(),
+                artifact.metadata(),
+                artifact.dependencies()
+        );
+    }
+
+    private static CompiledTask task(JsonParser parser) throws IOException {
+        String ruleSetId = null;
+        int ruleSetVersion = 0;
+        TaskResulTypeEnum taskType = null;
+        List<TaskActionRecord> taskActions = null;
+        String description = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "ruleSetId" -> ruleSetId = parser.getText();
+                case "rulesetVersion" -> ruleSetVersion = parser.getValueAsInt();
+                case "taskType" -> taskType = TaskResulTypeEnum.valueOf(parser.getText().trim());
+                case "taskActions" -> taskActions = parser.readValueAs(new TypeReference<List<TaskActionRecord>>() {
+                });
+                case "description" -> description = parser.getText();
+                default -> parser.skipChildren();
+            }
+        }
+        return new CompiledTask(ruleSetId, ruleSetVersion, taskType, taskActions, description);
+    }
 }
@@ -0,0 +1,37 @@
+package com.banyan.platform.deserializer;
+
+import com.banyan.compiler.backend.program.ProgramRule;
+import com.banyan.compiler.backend.program.RulesetProgram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.banyan.compiler.backend.emitter.BinaryArtifactFormat.*;
+
+// Reads RulesetProgram sidecars written by RulesetProgramWriter
+public final class RulesetProgramReader {
+
+    public static boolean isProgram(String entryName) {
+        return entryName.endsWith(PROGRAM_EXTENSION);
+    }
+
+    public RulesetProgram read(byte[] bytes) {
+
+        BinaryDecoder in = new BinaryDecoder(bytes, PROGRAM_MAGIC, PROGRAM_FORMAT_VERSION);
+        String rulesetId = in.string();
+        int rulesetVersion = in.signedInt();
+        String sourceHash = in.string();
+
+        int count = in.count();
+        List<ProgramRule> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rules.add(new ProgramRule(in.string(), in.signedInt(), in.string(), in.string(), in.value(), in.string()));
+        }
+
+        int[] code = new int[in.count()];
+        for (int pc = 0; pc < code.length; pc++) {
+            code[pc] = (int) in.unsigned();
+        }
+        return new RulesetProgram(rulesetId, rulesetVersion, sourceHash, rules, code);
+    }
+}
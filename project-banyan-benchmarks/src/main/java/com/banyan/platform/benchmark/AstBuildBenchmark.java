@@ -0,0 +1,32 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.ExecutableNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Building one ruleset AST from a loaded DAR, as on a registry miss
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AstBuildBenchmark {
+
+    @Benchmark
+    public ExecutableNode build(RuntimeShape shape) {
+        return new AstBuilder(shape.dar.context()).build(shape.dar.ruleset(0));
+    }
+
+    @Benchmark
+    public ExecutableNode buildWithLayout(RuntimeShape shape) {
+        return new AstBuilder(shape.dar.context(), shape.layout).build(shape.dar.ruleset(0));
+    }
+}
@@ -0,0 +1,71 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.compiler.backend.context.CompilationContext;
+import com.banyan.compiler.backend.emitter.ZipEmitter;
+import com.banyan.compiler.backend.outcome.CompilationOutcome;
+import com.banyan.compiler.backend.outcome.CompilationOutcomeBuilder;
+import com.banyan.compiler.enums.ArtifactType;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Backend phases over a library that passed the frontend. Backend
+ * compilers resolve their dependencies from the fully compiled context,
+ * which is frozen and only read. ZipEmitter writes
+ * target/compilation_package.dar relative to the working directory.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BackendBenchmark {
+
+    @Param({"EvidenceType", "Rule", "Ruleset", "Task", "Challenge"})
+    public ArtifactType kind;
+
+    @Benchmark
+    public void compile(SourceShape shape, Blackhole blackhole) {
+        var compiler = SourceShape.compiler(kind);
+        for (JsonNode node : shape.dsl.get(kind)) {
+            blackhole.consume(compiler.get().compile(node, shape.context));
+        }
+    }
+
+    // Includes registering every artifact, as the Orchestrator's backend phase
+    @Benchmark
+    public CompilationContext compileAll(SourceShape shape) {
+        CompilationContext context = SourceShape.newContext();
+        for (ArtifactType type : SourceShape.ORDER) {
+            var compiler = SourceShape.compiler(type);
+            for (JsonNode node : shape.dsl.get(type)) {
+                context.register(compiler.get().compile(node, context));
+            }
+        }
+        context.freeze();
+        return context;
+    }
+
+    @Benchmark
+    public CompilationOutcome outcome(SourceShape shape) {
+        return new CompilationOutcomeBuilder(shape.context, shape.root).build();
+    }
+
+    @Benchmark
+    public void emit(SourceShape shape) {
+        new ZipEmitter().emit(shape.outcome);
+    }
+}
@@ -0,0 +1,67 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.EvidenceSlots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The evaluation hot path over prebuilt ASTs, see ChallengeAstRegistry
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    private ExecutableNode ruleset;
+    private CompiledChallenge challenge;
+    private EvidenceSlots.Builder[] slots;
+
+    @Setup
+    public void setUp(RuntimeShape shape) {
+
+        ruleset = shape.registry.ruleset(shape.darId, "ruleset_0", 1);
+        challenge = shape.registry.get(shape.darId, SyntheticDar.CHALLENGE, 1);
+
+        slots = new EvidenceSlots.Builder[RuntimeShape.POOL];
+        for (int i = 0; i < RuntimeShape.POOL; i++) {
+            slots[i] = shape.layout.newBuilder();
+            for (Map.Entry<String, Object> entry : shape.evidence.get(i).entrySet()) {
+                slots[i].set(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean ruleset(RuntimeShape shape) {
+        return ruleset.evaluate(shape.contexts[shape.next()]);
+    }
+
+    @Benchmark
+    public boolean rulesetSlots(RuntimeShape shape) {
+        return ruleset.evaluate(slots[shape.next()].build());
+    }
+
+    @Benchmark
+    public Map<String, Boolean> challenge(RuntimeShape shape) {
+        return challenge.evaluate(shape.contexts[shape.next()]);
+    }
+
+    @Benchmark
+    public Map<String, Boolean> challengeSlots(RuntimeShape shape) {
+        return challenge.evaluate(slots[shape.next()].build());
+    }
+}
@@ -0,0 +1,48 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceSlots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of turning one request's evidence into an EvidenceContext
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvidenceContextBenchmark {
+
+    private EvidenceSlots.Builder builder;
+
+    @Setup
+    public void setUp(RuntimeShape shape) {
+        builder = shape.layout.newBuilder();
+    }
+
+    @Benchmark
+    public EvidenceContext mapBacked(RuntimeShape shape) {
+        return new EvidenceContext(shape.evidence.get(shape.next()));
+    }
+
+    @Benchmark
+    public EvidenceContext slotBacked(RuntimeShape shape) {
+        builder.reset();
+        for (Map.Entry<String, Object> entry : shape.evidence.get(shape.next()).entrySet()) {
+            builder.set(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceReader;
+import com.banyan.platform.runtime.EvidenceSlots;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of turning one request's JSON evidence into an EvidenceContext
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvidenceParseBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    // Fields no rule reads, half of them nested objects
+    @Param({"0", "100", "1000"})
+    public int irrelevantFields;
+
+    private byte[][] documents;
+    private EvidenceReader reader;
+    private EvidenceSlots.Builder builder;
+
+    @Setup
+    public void setUp(RuntimeShape shape) throws IOException {
+
+        reader = shape.registry.reader(shape.darId);
+        builder = shape.layout.newBuilder();
+        documents = new byte[RuntimeShape.POOL][];
+        for (int i = 0; i < RuntimeShape.POOL; i++) {
+            Map<String, Object> document = new LinkedHashMap<>();
+            for (int f = 0; f < irrelevantFields; f++) {
+                document.put("extra_" + f, f % 2 == 0
+                        ? "value_" + f
+                        : Map.of("id", f, "tags", new int[]{f, f + 1}));
+            }
+            document.putAll(shape.evidence.get(i));
+            documents[i] = MAPPER.writeValueAsBytes(document);
+        }
+    }
+
+    @Benchmark
+    public EvidenceContext mapThenSlots(RuntimeShape shape) throws IOException {
+        Map<String, Object> values = MAPPER.readValue(documents[shape.next()], MAP);
+        builder.reset();
+        values.forEach(builder::set);
+        return builder.build();
+    }
+
+    @Benchmark
+    public EvidenceContext streamed(RuntimeShape shape) throws IOException {
+        return reader.read(documents[shape.next()], builder);
+    }
+}
@@ -0,0 +1,77 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.compiler.enums.ArtifactType;
+import com.banyan.compiler.schema.ChallengeSchemaValidator;
+import com.banyan.compiler.schema.EvidenceTypeSchemaValidator;
+import com.banyan.compiler.schema.RuleSchemaValidator;
+import com.banyan.compiler.schema.RuleSetSchemaValidator;
+import com.banyan.compiler.schema.SchemaValidator;
+import com.banyan.compiler.schema.TaskSchemaValidator;
+import com.banyan.compiler.semantics.ChallengeSemanticValidator;
+import com.banyan.compiler.semantics.EvidenceTypeSemanticValidator;
+import com.banyan.compiler.semantics.RuleSemanticValidator;
+import com.banyan.compiler.semantics.RuleSetSemanticValidator;
+import com.banyan.compiler.semantics.SemanticValidator;
+import com.banyan.compiler.semantics.TaskSemanticValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Schema and semantic validation of every source of one kind in the library
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrontendBenchmark {
+
+    @Param({"EvidenceType", "Rule", "Ruleset", "Task", "Challenge"})
+    public ArtifactType kind;
+
+    private SchemaValidator schema;
+    private SemanticValidator semantic;
+
+    @Setup
+    public void setUp() {
+        schema = switch (kind) {
+            case EvidenceType -> new EvidenceTypeSchemaValidator();
+            case Rule -> new RuleSchemaValidator();
+            case Ruleset -> new RuleSetSchemaValidator();
+            case Task -> new TaskSchemaValidator();
+            case Challenge -> new ChallengeSchemaValidator();
+        };
+        semantic = switch (kind) {
+            case EvidenceType -> new EvidenceTypeSemanticValidator();
+            case Rule -> new RuleSemanticValidator();
+            case Ruleset -> new RuleSetSemanticValidator();
+            case Task -> new TaskSemanticValidator();
+            case Challenge -> new ChallengeSemanticValidator();
+        };
+    }
+
+    @Benchmark
+    public void schema(SourceShape shape, Blackhole blackhole) {
+        for (String source : shape.sources.sources(kind)) {
+            blackhole.consume(schema.validate(source));
+        }
+    }
+
+    @Benchmark
+    public void semantic(SourceShape shape, Blackhole blackhole) {
+        for (String source : shape.sources.sources(kind)) {
+            blackhole.consume(semantic.validate(source));
+        }
+    }
+}
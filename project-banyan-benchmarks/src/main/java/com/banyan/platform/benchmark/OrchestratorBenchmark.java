@@ -0,0 +1,38 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.compiler.core.CompilationResult;
+import com.banyan.compiler.enums.ArtifactType;
+import com.banyan.orchestrator.Orchestrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Source zip to DAR: parsing, frontend, backend, outcome and emission
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrchestratorBenchmark {
+
+    @Benchmark
+    public CompilationResult orchestrate(SourceShape shape) {
+        CompilationResult result = new Orchestrator().orchestrate(
+                shape.zip.toString(),
+                "target",
+                ArtifactType.Challenge,
+                SyntheticSources.ROOT,
+                1
+        );
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("Orchestration failed: " + result.getErrors());
+        }
+        return result;
+    }
+}
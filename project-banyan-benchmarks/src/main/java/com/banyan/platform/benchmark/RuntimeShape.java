@@ -0,0 +1,81 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.platform.runtime.ChallengeAstRegistry;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * The generated DAR and a pool of evidence shared by the runtime
+ * benchmarks. Benchmarks cycle through the pool so that branch outcomes
+ * vary between invocations. Per thread, because evidence contexts carry
+ * a memo and slot builders are reused.
+ */
+@State(Scope.Thread)
+public class RuntimeShape {
+
+    static final int POOL = 256;
+    static final long SEED = 42L;
+
+    @Param({"2", "4"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int fanOut;
+
+    @Param({"THRESHOLD", "EQUALITY", "MIXED"})
+    public SyntheticDar.OperatorMix operators;
+
+    @Param({"8", "64"})
+    public int fields;
+
+    @Param({"0.0", "0.1"})
+    public double missingRate;
+
+    SyntheticDar dar;
+    DarId darId;
+    ChallengeAstRegistry registry;
+    EvidenceLayout layout;
+    List<Map<String, Object>> evidence;
+    EvidenceContext[] contexts;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        dar = SyntheticDar.generate(depth, fanOut, operators, fields, SEED);
+        darId = new DarId(1, "synthetic");
+
+        DarRuntimeStore store = new DarRuntimeStore(1, Duration.ofDays(1));
+        store.register(darId, dar.context());
+        registry = new ChallengeAstRegistry(store);
+        layout = registry.layout(darId);
+
+        Random random = new Random(SEED);
+        evidence = new ArrayList<>(POOL);
+        contexts = new EvidenceContext[POOL];
+        for (int i = 0; i < POOL; i++) {
+            evidence.add(dar.evidence(random, missingRate));
+            contexts[i] = new EvidenceContext(evidence.get(i));
+        }
+    }
+
+    int next() {
+        int index = next;
+        next = (index + 1) & (POOL - 1);
+        return index;
+    }
+}
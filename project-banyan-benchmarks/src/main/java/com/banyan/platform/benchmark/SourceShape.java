@@ -0,0 +1,115 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.challenge.ChallengeBackendCompiler;
+import com.banyan.compiler.backend.context.CompilationContext;
+import com.banyan.compiler.backend.evidence.EvidenceBackendCompiler;
+import com.banyan.compiler.backend.outcome.CompilationOutcome;
+import com.banyan.compiler.backend.outcome.CompilationOutcomeBuilder;
+import com.banyan.compiler.backend.outcome.CompilationRoot;
+import com.banyan.compiler.backend.rule.RuleBackendCompiler;
+import com.banyan.compiler.backend.ruleset.RuleSetBackendCompiler;
+import com.banyan.compiler.backend.spi.BackendCompiler;
+import com.banyan.compiler.backend.task.TaskBackendCompiler;
+import com.banyan.compiler.compatibility.bootstrap.CompilerCompatibilityBootstrap;
+import com.banyan.compiler.enums.ArtifactType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * A synthetic source library and everything the compiler phases derive
+ * from it, prepared once per trial so that each phase benchmark measures
+ * only its own phase. Artifact counts are spread over one to five orders
+ * of magnitude to trace per-phase scaling.
+ */
+@State(Scope.Benchmark)
+public class SourceShape {
+
+    static final long SEED = 42L;
+
+    // Backend compilation order, as in the Orchestrator
+    static final List<ArtifactType> ORDER = List.of(
+            ArtifactType.EvidenceType,
+            ArtifactType.Rule,
+            ArtifactType.Ruleset,
+            ArtifactType.Task,
+            ArtifactType.Challenge
+    );
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int artifacts;
+
+    SyntheticSources sources;
+    Map<ArtifactType, List<JsonNode>> dsl;
+    CompilationContext context;
+    CompilationRoot root;
+    CompilationOutcome outcome;
+    Path zip;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        sources = SyntheticSources.generate(artifacts, SEED);
+        dsl = new EnumMap<>(ArtifactType.class);
+        for (ArtifactType type : ORDER) {
+            List<JsonNode> nodes = new ArrayList<>();
+            for (String source : sources.sources(type)) {
+                nodes.add(MAPPER.readTree(source));
+            }
+            dsl.put(type, nodes);
+        }
+
+        context = newContext();
+        for (ArtifactType type : ORDER) {
+            for (JsonNode node : dsl.get(type)) {
+                context.register(compiler(type).get().compile(node, context));
+            }
+        }
+        context.freeze();
+
+        root = new CompilationRoot(ArtifactType.Challenge, SyntheticSources.ROOT, 1);
+        outcome = new CompilationOutcomeBuilder(context, root).build();
+        if (!outcome.isSuccess()) {
+            throw new IllegalStateException("Synthetic library does not compile: " + outcome.errors());
+        }
+
+        zip = sources.writeZip(Files.createTempFile("banyan_benchmark_", ".zip"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(zip);
+    }
+
+    static CompilationContext newContext() {
+        return new CompilationContext(CompilerCompatibilityBootstrap.bootstrap());
+    }
+
+    // A fresh compiler per artifact, as the Orchestrator does
+    static Supplier<? extends BackendCompiler<? extends CompiledArtifact<?>>> compiler(ArtifactType type) {
+        return switch (type) {
+            case EvidenceType -> EvidenceBackendCompiler::new;
+            case Rule -> RuleBackendCompiler::new;
+            case Ruleset -> RuleSetBackendCompiler::new;
+            case Task -> TaskBackendCompiler::new;
+            case Challenge -> ChallengeBackendCompiler::new;
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.compiler.backend.challenge.CompiledChallenge;
+import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.evidence.EvidenceField;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.compiler.enums.EvidenceValueType;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.compiler.enums.RuleType;
+import com.banyan.compiler.enums.TaskResulTypeEnum;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * A DarRuntimeContext generated in memory, so benchmarks can vary the
+ * shape of the rulesets without compiling source files. Every task owns a
+ * complete tree of the given depth and fan-out, with AND and OR alternating
+ * by level and a distinct rule at each leaf. Rules read the evidence fields
+ * round-robin. The same seed always produces the same DAR.
+ */
+public final class SyntheticDar {
+
+    public enum OperatorMix {
+        THRESHOLD, EQUALITY, MIXED
+    }
+
+    public static final String CHALLENGE = "synthetic_challenge";
+    public static final int TASKS = 4;
+
+    private static final String[] THRESHOLD_OPERATORS = {">", ">=", "<", "<="};
+    private static final String[] CODES = {"IN", "US", "DE", "FR", "JP", "BR"};
+
+    private final DarRuntimeContext context;
+    private final String[] fields;
+    private final EvidenceValueType[] types;
+
+    private SyntheticDar(DarRuntimeContext context, String[] fields, EvidenceValueType[] types) {
+        this.context = context;
+        this.fields = fields;
+        this.types = types;
+    }
+
+    public static SyntheticDar generate(int depth, int fanOut, OperatorMix mix, int fieldCount, long seed) {
+
+        if (depth < 1 || fanOut < 1 || fieldCount < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid shape: depth=" + depth + ", fanOut=" + fanOut + ", fields=" + fieldCount
+            );
+        }
+
+        Random random = new Random(seed);
+        String[] fields = new String[fieldCount];
+        EvidenceValueType[] types = new EvidenceValueType[fieldCount];
+        Map<String, EvidenceField> declared = new HashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = "field_" + i;
+            types[i] = switch (mix) {
+                case THRESHOLD -> EvidenceValueType.INTEGER;
+                case EQUALITY -> EvidenceValueType.STRING;
+                case MIXED -> i % 2 == 0 ? EvidenceValueType.INTEGER : EvidenceValueType.STRING;
+            };
+            declared.put(fields[i], new EvidenceField(fields[i], types[i], false));
+        }
+
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets = new HashMap<>();
+        Map<DarRuntimeContext.TaskKey, CompiledTask> tasks = new HashMap<>();
+        List<CompiledTaskRef> refs = new ArrayList<>();
+
+        for (int t = 0; t < TASKS; t++) {
+            RulesetExpression root = expression(depth, 0, fanOut, fields, types, rules, random);
+            rulesets.put(new DarRuntimeContext.RulesetKey(1, "ruleset_" + t), new CompiledRuleset(root));
+            tasks.put(new DarRuntimeContext.TaskKey(1, "task_" + t), new CompiledTask(
+                    "ruleset_" + t, 1, TaskResulTypeEnum.BOOLEAN, List.of(), "synthetic task " + t
+            ));
+            refs.add(new CompiledTaskRef("task_" + t, 1));
+        }
+
+        DarRuntimeContext context = new DarRuntimeContext(
+                Map.of(new DarRuntimeContext.ChallengeKey(1, CHALLENGE), new CompiledChallenge(refs)),
+                tasks,
+                rulesets,
+                rules,
+                Map.of(new DarRuntimeContext.EvidenceTypeKey(1, "synthetic_evidence"),
+                        new CompiledEvidenceType("synthetic_evidence", 1, declared))
+        );
+        return new SyntheticDar(context, fields, types);
+    }
+
+    private static RulesetExpression expression(
+            int depth,
+            int level,
+            int fanOut,
+            String[] fields,
+            EvidenceValueType[] types,
+            Map<DarRuntimeContext.RuleKey, CompiledRule> rules,
+            Random random
+    ) {
+
+        if (level == depth) {
+            int index = rules.size();
+            int field = index % fields.length;
+            String id = "rule_" + index;
+            rules.put(new DarRuntimeContext.RuleKey(1, id), rule(fields[field], types[field], random));
+            return new RuleRefNode(id, 1);
+        }
+
+        List<RulesetExpression> operands = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            operands.add(expression(depth, level + 1, fanOut, fields, types, rules, random));
+        }
+        LogicalOperator operator = level % 2 == 0 ? LogicalOperator.AND : LogicalOperator.OR;
+        return new LogicalNode(operator, operands);
+    }
+
+    private static CompiledRule rule(String field, EvidenceValueType type, Random random) {
+
+        if (type == EvidenceValueType.INTEGER) {
+            String operator = THRESHOLD_OPERATORS[random.nextInt(THRESHOLD_OPERATORS.length)];
+            return new CompiledRule(field, operator, random.nextInt(100), RuleType.THRESHOLD.name());
+        }
+        String operator = random.nextBoolean() ? "==" : "!=";
+        return new CompiledRule(field, operator, CODES[random.nextInt(CODES.length)], RuleType.EQUALITY.name());
+    }
+
+    public DarRuntimeContext context() {
+        return context;
+    }
+
+    public DarRuntimeContext.RulesetKey ruleset(int task) {
+        return new DarRuntimeContext.RulesetKey(1, "ruleset_" + task);
+    }
+
+    public String[] fields() {
+        return fields.clone();
+    }
+
+    // Evidence for every field, each left out with probability missingRate
+    public Map<String, Object> evidence(Random random, double missingRate) {
+
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            if (random.nextDouble() < missingRate) {
+                continue;
+            }
+            values.put(fields[i], types[i] == EvidenceValueType.INTEGER
+                    ? random.nextInt(100)
+                    : CODES[random.nextInt(CODES.length)]);
+        }
+        return values;
+    }
+}
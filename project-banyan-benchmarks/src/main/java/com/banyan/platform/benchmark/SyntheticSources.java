@@ -0,0 +1,222 @@
+package com.banyan.platform.benchmark;
+
+import com.banyan.compiler.enums.ArtifactType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * A valid DSL source library of a given size, as it would be authored:
+ * one EvidenceType, rules over its fields, rulesets of about
+ * RULES_PER_RULESET rules each, one Task per Ruleset and a single
+ * Challenge over all tasks, so every artifact is reachable from ROOT.
+ * The same seed always produces the same sources.
+ */
+public final class SyntheticSources {
+
+    public static final String ROOT = "synthetic_challenge";
+    public static final String EVIDENCE_TYPE = "SYNTHETIC_EVIDENCE";
+
+    static final int RULES_PER_RULESET = 8;
+    static final int FIELDS = 32;
+
+    private static final String[] THRESHOLD_OPERATORS = {">", ">=", "<", "<="};
+    private static final String[] CODES = {"IN", "US", "DE", "FR", "JP", "BR"};
+
+    private final Map<ArtifactType, List<String>> sources;
+
+    private SyntheticSources(Map<ArtifactType, List<String>> sources) {
+        this.sources = sources;
+    }
+
+    // artifacts counts every source, including the EvidenceType and the Challenge
+    public static SyntheticSources generate(int artifacts, long seed) {
+
+        // two artifacts besides the rules per ruleset: the ruleset and its task
+        int rulesets = Math.max(1, (artifacts - 2) / (RULES_PER_RULESET + 2));
+        int rules = artifacts - 2 - 2 * rulesets;
+        if (rules < 4 * rulesets) {
+            throw new IllegalArgumentException("Too few artifacts for a library: " + artifacts);
+        }
+
+        Random random = new Random(seed);
+        Map<ArtifactType, List<String>> sources = new EnumMap<>(ArtifactType.class);
+        sources.put(ArtifactType.EvidenceType, List.of(evidenceType()));
+
+        List<String> ruleSources = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            ruleSources.add(rule(i, random));
+        }
+        sources.put(ArtifactType.Rule, ruleSources);
+
+        List<String> rulesetSources = new ArrayList<>(rulesets);
+        List<String> taskSources = new ArrayList<>(rulesets);
+        for (int r = 0; r < rulesets; r++) {
+            int from = r * rules / rulesets;
+            int to = (r + 1) * rules / rulesets;
+            rulesetSources.add(ruleset(r, from, to));
+            taskSources.add(task(r));
+        }
+        sources.put(ArtifactType.Ruleset, rulesetSources);
+        sources.put(ArtifactType.Task, taskSources);
+        sources.put(ArtifactType.Challenge, List.of(challenge(rulesets)));
+
+        return new SyntheticSources(sources);
+    }
+
+    public List<String> sources(ArtifactType type) {
+        return sources.getOrDefault(type, List.of());
+    }
+
+    public List<String> all() {
+        List<String> all = new ArrayList<>();
+        sources.values().forEach(all::addAll);
+        return all;
+    }
+
+    public int size() {
+        return sources.values().stream().mapToInt(List::size).sum();
+    }
+
+    // Source zip in the layout the Orchestrator reads
+    public Path writeZip(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<ArtifactType, List<String>> entry : sources.entrySet()) {
+                List<String> list = entry.getValue();
+                for (int i = 0; i < list.size(); i++) {
+                    zip.putNextEntry(new ZipEntry(entry.getKey().name().toLowerCase() + "_" + i + ".json"));
+                    zip.write(list.get(i).getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+            }
+        }
+        return file;
+    }
+
+    // Even fields are INTEGER, odd ones STRING; the first is required
+    private static String evidenceType() {
+
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < FIELDS; i++) {
+            if (i > 0) {
+                fields.append(',');
+            }
+            fields.append("""
+                    {"name": "field_%d", "type": "%s", "required": %b}"""
+                    .formatted(i, i % 2 == 0 ? "INTEGER" : "STRING", i == 0));
+        }
+        return """
+                {
+                  "kind": "EvidenceType",
+                  "id": "%s",
+                  "version": 1,
+                  "status": "ACTIVE",
+                  "spec": {"fields": [%s]}
+                }""".formatted(EVIDENCE_TYPE, fields);
+    }
+
+    private static String rule(int index, Random random) {
+
+        int field = index % FIELDS;
+        String type;
+        String operator;
+        String value;
+        if (field % 2 == 0) {
+            type = "THRESHOLD";
+            operator = THRESHOLD_OPERATORS[random.nextInt(THRESHOLD_OPERATORS.length)];
+            value = Integer.toString(random.nextInt(100));
+        } else {
+            type = "EQUALITY";
+            operator = random.nextBoolean() ? "==" : "!=";
+            value = '"' + CODES[random.nextInt(CODES.length)] + '"';
+        }
+        return """
+                {
+                  "kind": "Rule",
+                  "id": "rule_%d",
+                  "version": 1,
+                  "spec": {
+                    "evidenceTypeRef": {"id": "%s", "version": 1},
+                    "type": "%s",
+                    "input": "field_%d",
+                    "operator": "%s",
+                    "value": %s
+                  }
+                }""".formatted(index, EVIDENCE_TYPE, type, field, operator, value);
+    }
+
+    // AND over two ORs of the ruleset's rules
+    private static String ruleset(int index, int from, int to) {
+
+        int middle = from + (to - from) / 2;
+        return """
+                {
+                  "kind": "Ruleset",
+                  "id": "ruleset_%d",
+                  "version": 1,
+                  "spec": {
+                    "expression": {
+                      "operator": "AND",
+                      "operands": [
+                        {"operator": "OR", "operands": [%s]},
+                        {"operator": "OR", "operands": [%s]}
+                      ]
+                    }
+                  }
+                }""".formatted(index, ruleRefs(from, middle), ruleRefs(middle, to));
+    }
+
+    private static String ruleRefs(int from, int to) {
+        StringBuilder refs = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                refs.append(',');
+            }
+            refs.append("{\"ruleRef\": \"rule_").append(i).append("\", \"version\": 1}");
+        }
+        return refs.toString();
+    }
+
+    private static String task(int index) {
+        return """
+                {
+                  "kind": "Task",
+                  "id": "task_%d",
+                  "version": 1,
+                  "spec": {
+                    "rulesetRef": {"id": "ruleset_%d", "version": 1},
+                    "resultType": "BOOLEAN",
+                    "actions": [{"on": "FAILURE", "emit": "AUDIT_EVENT"}],
+                    "description": "Synthetic task %d"
+                  }
+                }""".formatted(index, index, index);
+    }
+
+    private static String challenge(int tasks) {
+        StringBuilder refs = new StringBuilder();
+        for (int i = 0; i < tasks; i++) {
+            if (i > 0) {
+                refs.append(',');
+            }
+            refs.append("{\"id\": \"task_").append(i).append("\", \"version\": 1}");
+        }
+        return """
+                {
+                  "kind": "Challenge",
+                  "id": "%s",
+                  "version": 1,
+                  "spec": {"tasks": [%s]}
+                }""".formatted(ROOT, refs);
+    }
+}
@@ -0,0 +1,56 @@
+package com.banyan.compiler.backend.emitter;
+
+/*
+ * Compact binary encoding of one compiled artifact, an alternative to the
+ * pretty-printed JSON file at the same Type/version/id path:
+ *
+ *   magic "BNYA", format version       4 bytes, varint
+ *   string pool                        varint count, then per string a
+ *                                      varint UTF-8 length and the bytes
+ *   artifactType, id                   string refs
+ *   version                            zigzag varint
+ *   metadata                           flag byte, then compilerVersion ref,
+ *                                      compiledAtEpochMillis zigzag varlong,
+ *                                      contentHash ref
+ *   dependencies                       varint count, then type ref, id ref,
+ *                                      zigzag varint version
+ *   payload                            type specific, see BinaryArtifactWriter
+ *
+ * A string ref is a varint index into the pool plus one; 0 is null. Every
+ * distinct string of an artifact, enum names included, is stored once.
+ *
+ * A RulesetProgram sidecar, Program/version/id.program, uses the same pool
+ * and varints after magic "BNYP": rulesetId ref, rulesetVersion, sourceHash
+ * ref, rule count, then per rule ruleId ref, version, input ref, operator
+ * ref, tagged value and ruleType ref, and finally the instruction count and
+ * the instructions as varints.
+ */
+public final class BinaryArtifactFormat {
+
+    public static final byte[] MAGIC = {'B', 'N', 'Y', 'A'};
+    public static final int FORMAT_VERSION = 1;
+
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".bin";
+
+    public static final byte[] PROGRAM_MAGIC = {'B', 'N', 'Y', 'P'};
+    public static final int PROGRAM_FORMAT_VERSION = 1;
+    public static final String PROGRAM_EXTENSION = ".program";
+    // Not an artifact type, so loaders that predate programs skip the entries
+    public static final String PROGRAM_DIRECTORY = "Program";
+
+    // Ruleset expression nodes
+    public static final int NODE_RULE = 0;
+    public static final int NODE_LOGICAL = 1;
+
+    // Tagged rule values
+    public static final int VALUE_NULL = 0;
+    public static final int VALUE_FALSE = 1;
+    public static final int VALUE_TRUE = 2;
+    public static final int VALUE_LONG = 3;
+    public static final int VALUE_DOUBLE = 4;
+    public static final int VALUE_STRING = 5;
+
+    private BinaryArtifactFormat() {
+    }
+}
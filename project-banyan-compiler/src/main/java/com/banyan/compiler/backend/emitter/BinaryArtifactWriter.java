@@ -0,0 +1,141 @@
+package com.banyan.compiler.backend.emitter;
+
+import com.banyan.compiler.backend.api.ArtifactReference;
+import com.banyan.compiler.backend.api.CompilationMetadata;
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.challenge.CompiledChallenge;
+import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.evidence.EvidenceField;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.compiler.backend.task.TaskActionRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.banyan.compiler.backend.emitter.BinaryArtifactFormat.*;
+
+/*
+ * Encodes compiled artifacts in the BinaryArtifactFormat. Payloads:
+ *
+ *   Rule          input ref, operator ref, tagged value, ruleType ref
+ *   Ruleset       expression, then a flag byte and the authored expression
+ *                 when the optimizer rewrote it; a node is NODE_RULE with
+ *                 ruleId ref and version, or NODE_LOGICAL with operator ref,
+ *                 operand count and operands
+ *   Task          ruleSetId ref, rulesetVersion, taskType ref, action count,
+ *                 then taskActionOn ref and action ref, description ref
+ *   Challenge     task ref count, then taskId ref and taskVersion
+ *   EvidenceType  id ref, version, field count, then name ref, type ref and
+ *                 required byte, sorted by name
+ */
+public final class BinaryArtifactWriter {
+
+    public byte[] write(CompiledArtifact<?> artifact) {
+
+        BinaryEncoder body = new BinaryEncoder();
+        body.ref(artifact.type().name());
+        body.ref(artifact.id());
+        body.signed(artifact.version());
+
+        CompilationMetadata metadata = artifact.metadata();
+        body.flag(metadata != null);
+        if (metadata != null) {
+            body.ref(metadata.getCompilerVersion());
+            body.signed(metadata.getCompiledAtEpochMillis());
+            body.ref(metadata.getContentHash());
+        }
+
+        List<ArtifactReference> dependencies =
+                artifact.dependencies() == null ? List.of() : artifact.dependencies();
+        body.unsigned(dependencies.size());
+        for (ArtifactReference dependency : dependencies) {
+            body.ref(dependency.type() == null ? null : dependency.type().name());
+            body.ref(dependency.id());
+            body.signed(dependency.version());
+        }
+
+        switch (artifact.type()) {
+            case Rule -> rule(body, (CompiledRule) artifact.payload());
+            case Ruleset -> ruleset(body, (CompiledRuleset) artifact.payload());
+            case Task -> task(body, (CompiledTask) artifact.payload());
+            case Challenge -> challenge(body, (CompiledChallenge) artifact.payload());
+            case EvidenceType -> evidenceType(body, (CompiledEvidenceType) artifact.payload());
+        }
+        return body.toBytes(MAGIC, FORMAT_VERSION);
+    }
+
+    private static void rule(BinaryEncoder out, CompiledRule rule) {
+        out.ref(rule.input());
+        out.ref(rule.operator());
+        out.value(rule.value());
+        out.ref(rule.ruleType());
+    }
+
+    private static void ruleset(BinaryEncoder out, CompiledRuleset ruleset) {
+        expression(out, ruleset.root());
+        boolean optimized = !ruleset.original().equals(ruleset.root());
+        out.flag(optimized);
+        if (optimized) {
+            expression(out, ruleset.original());
+        }
+    }
+
+    private static void expression(BinaryEncoder out, RulesetExpression expression) {
+        switch (expression) {
+            case RuleRefNode rule -> {
+                out.unsigned(NODE_RULE);
+                out.ref(rule.ruleId());
+                out.signed(rule.version());
+            }
+            case LogicalNode logical -> {
+                out.unsigned(NODE_LOGICAL);
+                out.ref(logical.operator().name());
+                out.unsigned(logical.operands().size());
+                for (RulesetExpression operand : logical.operands()) {
+                    expression(out, operand);
+                }
+            }
+        }
+    }
+
+    private static void task(BinaryEncoder out, CompiledTask task) {
+        out.ref(task.ruleSetId());
+        out.signed(task.rulesetVersion() == null ? 0 : task.rulesetVersion());
+        out.ref(task.taskType() == null ? null : task.taskType().name());
+        List<TaskActionRecord> actions = task.taskActions() == null ? List.of() : task.taskActions();
+        out.unsigned(actions.size());
+        for (TaskActionRecord action : actions) {
+            out.ref(action.taskActionOn() == null ? null : action.taskActionOn().name());
+            out.ref(action.action());
+        }
+        out.ref(task.description());
+    }
+
+    private static void challenge(BinaryEncoder out, CompiledChallenge challenge) {
+        out.unsigned(challenge.compiledTaskRefsList().size());
+        for (CompiledTaskRef ref : challenge.compiledTaskRefsList()) {
+            out.ref(ref.taskId());
+            out.signed(ref.taskVersion());
+        }
+    }
+
+    private static void evidenceType(BinaryEncoder out, CompiledEvidenceType evidenceType) {
+        out.ref(evidenceType.id());
+        out.signed(evidenceType.version());
+        List<EvidenceField> fields = new ArrayList<>(evidenceType.fields().values());
+        fields.sort(Comparator.comparing(EvidenceField::name));
+        out.unsigned(fields.size());
+        for (EvidenceField field : fields) {
+            out.ref(field.name());
+            out.ref(field.type() == null ? null : field.type().name());
+            out.flag(field.required());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.banyan.compiler.backend.emitter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.banyan.compiler.backend.emitter.BinaryArtifactFormat.*;
+
+// Body bytes plus the string pool they refer to, see BinaryArtifactFormat
+final class BinaryEncoder {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    private final Map<String, Integer> pool = new LinkedHashMap<>();
+
+    void ref(String value) {
+        unsigned(value == null ? 0 : pool.computeIfAbsent(value, v -> pool.size()) + 1);
+    }
+
+    void flag(boolean value) {
+        bytes.write(value ? 1 : 0);
+    }
+
+    void signed(long value) {
+        unsigned((value << 1) ^ (value >> 63));
+    }
+
+    void unsigned(long value) {
+        writeVarLong(bytes, value);
+    }
+
+    void fixed64(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes.write((int) (value >>> shift));
+        }
+    }
+
+    // Tagged constant; types other than these are written as their text
+    void value(Object value) {
+        switch (value) {
+            case null -> unsigned(VALUE_NULL);
+            case Boolean b -> unsigned(b ? VALUE_TRUE : VALUE_FALSE);
+            case Integer i -> {
+                unsigned(VALUE_LONG);
+                signed(i);
+            }
+            case Long l -> {
+                unsigned(VALUE_LONG);
+                signed(l);
+            }
+            case Double d -> {
+                unsigned(VALUE_DOUBLE);
+                fixed64(Double.doubleToLongBits(d));
+            }
+            default -> {
+                unsigned(VALUE_STRING);
+                ref(value.toString());
+            }
+        }
+    }
+
+    byte[] toBytes(byte[] magic, int formatVersion) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.size() + 16 * pool.size() + 8);
+        out.writeBytes(magic);
+        writeVarLong(out, formatVersion);
+        writeVarLong(out, pool.size());
+        for (String value : pool.keySet()) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, utf8.length);
+            out.writeBytes(utf8);
+        }
+        out.writeBytes(bytes.toByteArray());
+        return out.toByteArray();
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,108 @@
+package com.banyan.compiler.backend.emitter;
+
+import com.banyan.compiler.backend.api.CompilationMetadata;
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.outcome.CompilationOutcome;
+import com.banyan.compiler.backend.outcome.CompilationRoot;
+import com.banyan.compiler.backend.program.RulesetProgram;
+import com.banyan.compiler.backend.program.RulesetProgramCompiler;
+import com.banyan.compiler.enums.ArtifactType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * Emits the DAR with every artifact in the BinaryArtifactFormat, at
+ * Type/version/id.bin instead of Type/version/id.json. manifests.json keeps
+ * its JSON form and lists the .bin paths, plus the .program sidecar of each
+ * Ruleset, as ZipEmitter writes it. Entries are written straight into the
+ * zip, without a temporary directory.
+ */
+public class BinaryZipEmitter implements ArtifactEmitter {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BinaryArtifactWriter writer = new BinaryArtifactWriter();
+    private final RulesetProgramWriter programWriter = new RulesetProgramWriter();
+    private final Path zipFile;
+
+    public BinaryZipEmitter() {
+        this(Paths.get("target", "compilation_package.dar"));
+    }
+
+    public BinaryZipEmitter(Path zipFile) {
+        this.zipFile = zipFile;
+    }
+
+    @Override
+    public boolean supports(CompilationRoot root) {
+        return false;
+    }
+
+    @Override
+    public void emit(CompilationOutcome outcome) {
+        if (!outcome.isSuccess()) return;
+
+        try {
+            if (zipFile.getParent() != null) {
+                Files.createDirectories(zipFile.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(zipFile)) {
+                write(outcome.getReachableArtifacts(), out);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Architectural Failure: Could not package artifacts", e);
+        }
+    }
+
+    public void write(Collection<? extends CompiledArtifact<?>> artifacts, OutputStream out) throws IOException {
+
+        ZipOutputStream zos = new ZipOutputStream(out);
+        ManifestHeader mfHeader = null;
+        List<String> files = new ArrayList<>(artifacts.size());
+        for (CompiledArtifact<?> artifact : artifacts) {
+            String name = getFileName(artifact);
+            if (artifact.type().equals(ArtifactType.Challenge)) {
+                CompilationMetadata metadata = artifact.metadata();
+                mfHeader = new ManifestHeader(artifact.id(), String.valueOf(artifact.version()),
+                        metadata == null ? null : String.valueOf(metadata.getCompiledAtEpochMillis()),
+                        metadata == null ? null : metadata.getCompilerVersion());
+            }
+            files.add(name);
+            zos.putNextEntry(new ZipEntry(name));
+            zos.write(writer.write(artifact));
+            zos.closeEntry();
+        }
+
+        for (RulesetProgram program : RulesetProgramCompiler.compileAll(artifacts)) {
+            String name = programWriter.getFileName(program);
+            files.add(name);
+            zos.putNextEntry(new ZipEntry(name));
+            zos.write(programWriter.write(program));
+            zos.closeEntry();
+        }
+
+        zos.putNextEntry(new ZipEntry("manifests.json"));
+        zos.write(objectMapper.writeValueAsBytes(new ManifestsJson(mfHeader, files)));
+        zos.closeEntry();
+        zos.finish();
+    }
+
+    // Zip entry names always use '/'
+    public String getFileName(CompiledArtifact<?> compiledArtifact) {
+        return String.join("/",
+                compiledArtifact.type().name(),
+                String.valueOf(compiledArtifact.version()),
+                compiledArtifact.id()
+        ) + BinaryArtifactFormat.BINARY_EXTENSION;
+    }
+}
@@ -0,0 +1,44 @@
+package com.banyan.compiler.backend.emitter;
+
+import com.banyan.compiler.backend.program.ProgramRule;
+import com.banyan.compiler.backend.program.RulesetProgram;
+
+import static com.banyan.compiler.backend.emitter.BinaryArtifactFormat.*;
+
+// Encodes RulesetProgram sidecars, see BinaryArtifactFormat
+public final class RulesetProgramWriter {
+
+    public byte[] write(RulesetProgram program) {
+
+        BinaryEncoder out = new BinaryEncoder();
+        out.ref(program.rulesetId());
+        out.signed(program.rulesetVersion());
+        out.ref(program.sourceHash());
+
+        out.unsigned(program.rules().size());
+        for (ProgramRule rule : program.rules()) {
+            out.ref(rule.ruleId());
+            out.signed(rule.version());
+            out.ref(rule.input());
+            out.ref(rule.operator());
+            out.value(rule.value());
+            out.ref(rule.ruleType());
+        }
+
+        int[] code = program.code();
+        out.unsigned(code.length);
+        for (int instruction : code) {
+            out.unsigned(Integer.toUnsignedLong(instruction));
+        }
+        return out.toBytes(PROGRAM_MAGIC, PROGRAM_FORMAT_VERSION);
+    }
+
+    // Keyed like the Ruleset artifact it was compiled from
+    public String getFileName(RulesetProgram program) {
+        return String.join("/",
+                PROGRAM_DIRECTORY,
+                String.valueOf(program.rulesetVersion()),
+                program.rulesetId()
+        ) + PROGRAM_EXTENSION;
+    }
+}
@@ -3,6 +3,8 @@ package com.banyan.compiler.backend.emitter;
 import com.banyan.compiler.backend.api.CompiledArtifact;
 import com.banyan.compiler.backend.outcome.CompilationOutcome;
 import com.banyan.compiler.backend.outcome.CompilationRoot;
+import com.banyan.compiler.backend.program.RulesetProgram;
+import com.banyan.compiler.backend.program.RulesetProgramCompiler;
 import com.banyan.compiler.enums.ArtifactType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -52,6 +54,15 @@ public class ZipEmitter implements ArtifactEmitter{
                 // Serialize the file
                 objectMapper.writeValue(fullPath.toFile(), artifact);
             }
+            // Flattened evaluation program of each Ruleset
+            RulesetProgramWriter programWriter = new RulesetProgramWriter();
+            for (RulesetProgram program : RulesetProgramCompiler.compileAll(outcome.getReachableArtifacts())) {
+                String relativePathStr = programWriter.getFileName(program);
+                Path fullPath = tempDir.resolve(relativePathStr);
+                Files.createDirectories(fullPath.getParent());
+                files.add(relativePathStr);
+                Files.write(fullPath, programWriter.write(program));
+            }
            // Manifests json
            ManifestsJson mfJson = new ManifestsJson(mfHeader,files);
            objectMapper.writeValue(tempDir.resolve("manifests.json").toFile(), mfJson);
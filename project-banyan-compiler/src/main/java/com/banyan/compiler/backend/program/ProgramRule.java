@@ -0,0 +1,15 @@
+package com.banyan.compiler.backend.program;
+
+/*
+ * One rule operand of a RulesetProgram: the rule it was compiled from and
+ * its definition, with value kept typed (Boolean, Long, Double or text).
+ */
+public record ProgramRule(
+        String ruleId,
+        int version,
+        String input,
+        String operator,
+        Object value,
+        String ruleType
+) {
+}
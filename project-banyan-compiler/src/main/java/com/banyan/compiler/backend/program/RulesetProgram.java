@@ -0,0 +1,77 @@
+package com.banyan.compiler.backend.program;
+
+import java.util.List;
+
+/*
+ * A ruleset flattened into postfix code with short-circuit jumps, so the
+ * runtime evaluates it from arrays instead of building an expression tree.
+ * Each instruction packs an opcode in its low two bits and an argument
+ * above them. A single register holds the value of the last operand:
+ *
+ *   RULE i            register = rules[i] holds
+ *   CONST b           register = b (1 true, 0 false)
+ *   JUMP_IF_FALSE t   continue at t when the register is false
+ *   JUMP_IF_TRUE t    continue at t when the register is true
+ *
+ * The result is the register after the last instruction. sourceHash is the
+ * contentHash of the Ruleset artifact the program was compiled from.
+ */
+public final class RulesetProgram {
+
+    public static final int RULE = 0;
+    public static final int CONST = 1;
+    public static final int JUMP_IF_FALSE = 2;
+    public static final int JUMP_IF_TRUE = 3;
+
+    private final String rulesetId;
+    private final int rulesetVersion;
+    private final String sourceHash;
+    private final List<ProgramRule> rules;
+    private final int[] code;
+
+    public RulesetProgram(
+            String rulesetId,
+            int rulesetVersion,
+            String sourceHash,
+            List<ProgramRule> rules,
+            int[] code
+    ) {
+        this.rulesetId = rulesetId;
+        this.rulesetVersion = rulesetVersion;
+        this.sourceHash = sourceHash;
+        this.rules = List.copyOf(rules);
+        this.code = code.clone();
+    }
+
+    public static int instruction(int opcode, int argument) {
+        return argument << 2 | opcode;
+    }
+
+    public static int opcode(int instruction) {
+        return instruction & 3;
+    }
+
+    public static int argument(int instruction) {
+        return instruction >>> 2;
+    }
+
+    public String rulesetId() {
+        return rulesetId;
+    }
+
+    public int rulesetVersion() {
+        return rulesetVersion;
+    }
+
+    public String sourceHash() {
+        return sourceHash;
+    }
+
+    public List<ProgramRule> rules() {
+        return rules;
+    }
+
+    public int[] code() {
+        return code.clone();
+    }
+}
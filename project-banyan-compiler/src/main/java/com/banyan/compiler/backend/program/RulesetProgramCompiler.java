@@ -0,0 +1,157 @@
+package com.banyan.compiler.backend.program;
+
+import com.banyan.compiler.backend.api.ArtifactReference;
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.enums.ArtifactType;
+import com.banyan.compiler.enums.LogicalOperator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.banyan.compiler.backend.program.RulesetProgram.*;
+
+/*
+ * Flattens compiled rulesets into RulesetPrograms. Operands of an AND jump
+ * to its end on false, operands of an OR on true; jumps landing on another
+ * jump are threaded to their final target. Each distinct rule reference is
+ * one entry of the program's rule table, in first-occurrence order.
+ */
+public final class RulesetProgramCompiler {
+
+    private RulesetProgramCompiler() {
+    }
+
+    // Programs for every Ruleset among the artifacts whose rules are present too
+    public static List<RulesetProgram> compileAll(Collection<? extends CompiledArtifact<?>> artifacts) {
+
+        Map<ArtifactReference, CompiledRule> rules = new HashMap<>();
+        for (CompiledArtifact<?> artifact : artifacts) {
+            if (artifact.type() == ArtifactType.Rule) {
+                rules.put(new ArtifactReference(ArtifactType.Rule, artifact.id(), artifact.version()),
+                        (CompiledRule) artifact.payload());
+            }
+        }
+
+        List<RulesetProgram> programs = new ArrayList<>();
+        for (CompiledArtifact<?> artifact : artifacts) {
+            if (artifact.type() != ArtifactType.Ruleset
+                    || artifact.metadata() == null
+                    || artifact.metadata().getContentHash() == null) {
+                continue;
+            }
+            try {
+                programs.add(compile(artifact.id(), artifact.version(), artifact.metadata().getContentHash(),
+                        (CompiledRuleset) artifact.payload(),
+                        ref -> rules.get(new ArtifactReference(ArtifactType.Rule, ref.ruleId(), ref.version()))));
+            } catch (IllegalStateException e) {
+                // a rule outside the artifacts; the runtime keeps the tree form
+            }
+        }
+        return programs;
+    }
+
+    public static RulesetProgram compile(
+            String rulesetId,
+            int rulesetVersion,
+            String sourceHash,
+            CompiledRuleset ruleset,
+            Function<RuleRefNode, CompiledRule> rules
+    ) {
+
+        Emitter emitter = new Emitter(rules);
+        emitter.emit(ruleset.root());
+        int[] code = emitter.code.stream().mapToInt(Integer::intValue).toArray();
+        thread(code);
+        return new RulesetProgram(rulesetId, rulesetVersion, sourceHash,
+                new ArrayList<>(emitter.table.values()), code);
+    }
+
+    // Retargets jumps whose target is a jump on the same register value
+    private static void thread(int[] code) {
+        for (int pc = 0; pc < code.length; pc++) {
+            int opcode = opcode(code[pc]);
+            if (opcode != JUMP_IF_FALSE && opcode != JUMP_IF_TRUE) {
+                continue;
+            }
+            int target = argument(code[pc]);
+            while (target < code.length) {
+                int next = opcode(code[target]);
+                if (next == opcode) {
+                    target = argument(code[target]);
+                } else if (next == JUMP_IF_FALSE || next == JUMP_IF_TRUE) {
+                    target++; // the opposite jump cannot fire
+                } else {
+                    break;
+                }
+            }
+            code[pc] = instruction(opcode, target);
+        }
+    }
+
+    private static final class Emitter {
+
+        private final Function<RuleRefNode, CompiledRule> rules;
+        private final Map<RuleRefNode, ProgramRule> table = new LinkedHashMap<>();
+        private final Map<RuleRefNode, Integer> indices = new HashMap<>();
+        private final List<Integer> code = new ArrayList<>();
+
+        Emitter(Function<RuleRefNode, CompiledRule> rules) {
+            this.rules = rules;
+        }
+
+        void emit(RulesetExpression expression) {
+            switch (expression) {
+                case RuleRefNode ref -> code.add(instruction(RULE, index(ref)));
+                case LogicalNode logical -> logical(logical);
+            }
+        }
+
+        private void logical(LogicalNode logical) {
+
+            boolean and = logical.operator() == LogicalOperator.AND;
+            List<RulesetExpression> operands = logical.operands();
+            if (operands.isEmpty()) {
+                code.add(instruction(CONST, and ? 1 : 0));
+                return;
+            }
+            List<Integer> exits = new ArrayList<>();
+            for (int i = 0; i < operands.size(); i++) {
+                emit(operands.get(i));
+                if (i < operands.size() - 1) {
+                    exits.add(code.size());
+                    code.add(0);
+                }
+            }
+            int end = code.size();
+            for (int exit : exits) {
+                code.set(exit, instruction(and ? JUMP_IF_FALSE : JUMP_IF_TRUE, end));
+            }
+        }
+
+        private int index(RuleRefNode ref) {
+            Integer index = indices.get(ref);
+            if (index != null) {
+                return index;
+            }
+            CompiledRule rule = rules.apply(ref);
+            if (rule == null) {
+                throw new IllegalStateException("Rule not found: " + ref);
+            }
+            index = table.size();
+            indices.put(ref, index);
+            table.put(ref, new ProgramRule(ref.ruleId(), ref.version(),
+                    rule.input(), rule.operator(), rule.value(), rule.ruleType()));
+            return index;
+        }
+    }
+}
@@ -6,12 +6,30 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 public final class CompiledRuleset {
 
     private final RulesetExpression root;
+    private final RulesetOptimization optimization;
 
     public CompiledRuleset(RulesetExpression root) {
         this.root = root;
+        this.optimization = null;
+    }
+
+    // root is the optimized expression; the authored one is kept for audit
+    public CompiledRuleset(RulesetOptimization optimization) {
+        this.root = optimization.optimized();
+        this.optimization = optimization;
     }
 
     public RulesetExpression root() {
         return root;
     }
+
+    // The expression as authored, root() when it was not optimized
+    public RulesetExpression original() {
+        return optimization == null ? root : optimization.original();
+    }
+
+    // Null for rulesets not compiled from source, e.g. read back from a DAR
+    public RulesetOptimization optimization() {
+        return optimization;
+    }
 }
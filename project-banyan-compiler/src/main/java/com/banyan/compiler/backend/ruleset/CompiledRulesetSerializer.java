@@ -22,6 +22,12 @@ public class CompiledRulesetSerializer extends StdSerializer<CompiledRuleset> {
         gen.writeFieldName("expression");
         gen.writeObject(value.root());
 
+        // Authored form, for audit, when the optimizer rewrote it
+        if (!value.original().equals(value.root())) {
+            gen.writeFieldName("originalExpression");
+            gen.writeObject(value.original());
+        }
+
         gen.writeEndObject();
     }
 }
\ No newline at end of file
@@ -45,7 +45,7 @@ public final class RuleSetBackendCompiler
         return new CompiledRulesetArtifact(
                 id,
                 version,
-                new CompiledRuleset(root),
+                new CompiledRuleset(RulesetOptimizer.optimize(root)),
                 metadata,
                 this.dependencies
         );
@@ -0,0 +1,22 @@
+package com.banyan.compiler.backend.ruleset;
+
+/*
+ * Result of RulesetOptimizer: the expression as authored, the expression
+ * that is emitted, and how many rewrites of each kind led from one to the
+ * other. Node counts include rule references.
+ */
+public record RulesetOptimization(
+        RulesetExpression original,
+        RulesetExpression optimized,
+        int nodesBefore,
+        int nodesAfter,
+        int flattened,
+        int unwrapped,
+        int duplicatesRemoved,
+        int absorbed
+) {
+
+    public boolean changed() {
+        return !original.equals(optimized);
+    }
+}
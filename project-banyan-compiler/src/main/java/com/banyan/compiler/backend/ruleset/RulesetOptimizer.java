@@ -0,0 +1,138 @@
+package com.banyan.compiler.backend.ruleset;
+
+import com.banyan.compiler.enums.LogicalOperator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Boolean simplification of a parsed ruleset expression, applied bottom-up
+ * before emission:
+ *
+ *   flattening    AND(a, AND(b, c))            -> AND(a, b, c)
+ *   unwrapping    OR(a, AND(b))                -> OR(a, b)
+ *   idempotence   AND(a, b, a)                 -> AND(a, b)
+ *   absorption    AND(a, OR(a, b))             -> AND(a)
+ *                 AND(OR(a, b), OR(a, b, c))   -> AND(OR(a, b))
+ *
+ * Each law also holds in the three-valued logic the runtime uses for
+ * missing evidence, so every decision is unchanged. Operand order is kept
+ * (first occurrence wins), since the runtime short-circuits in that order.
+ * The root stays a LogicalNode when the author wrote one: a bare rule at
+ * the root reports missing evidence instead of evaluating to false.
+ */
+public final class RulesetOptimizer {
+
+    private int flattened;
+    private int unwrapped;
+    private int duplicatesRemoved;
+    private int absorbed;
+
+    private RulesetOptimizer() {
+    }
+
+    public static RulesetOptimization optimize(RulesetExpression root) {
+
+        RulesetOptimizer optimizer = new RulesetOptimizer();
+        RulesetExpression optimized = root instanceof LogicalNode node
+                ? optimizer.simplifyNode(node)
+                : root;
+
+        if (optimized instanceof LogicalNode logical
+                && logical.operands().size() == 1
+                && logical.operands().get(0) instanceof LogicalNode only) {
+            optimized = only;
+            optimizer.unwrapped++;
+        }
+
+        return new RulesetOptimization(
+                root,
+                optimized,
+                count(root),
+                count(optimized),
+                optimizer.flattened,
+                optimizer.unwrapped,
+                optimizer.duplicatesRemoved,
+                optimizer.absorbed
+        );
+    }
+
+    // Leaves single-operand nodes to the caller
+    private LogicalNode simplifyNode(LogicalNode node) {
+
+        LogicalOperator operator = node.operator();
+
+        Set<RulesetExpression> operands = new LinkedHashSet<>();
+        for (RulesetExpression operand : node.operands()) {
+            RulesetExpression simplified = simplify(operand);
+
+            if (simplified instanceof LogicalNode child && child.operator() == operator) {
+                flattened++;
+                child.operands().forEach(o -> add(operands, o));
+            } else {
+                add(operands, simplified);
+            }
+        }
+
+        return new LogicalNode(operator, absorb(operator, new ArrayList<>(operands)));
+    }
+
+    private RulesetExpression simplify(RulesetExpression expr) {
+
+        if (!(expr instanceof LogicalNode logical)) {
+            return expr;
+        }
+        LogicalNode simplified = simplifyNode(logical);
+        if (simplified.operands().size() == 1) {
+            unwrapped++;
+            return simplified.operands().get(0);
+        }
+        return simplified;
+    }
+
+    private void add(Set<RulesetExpression> operands, RulesetExpression operand) {
+        if (!operands.add(operand)) {
+            duplicatesRemoved++;
+        }
+    }
+
+    /*
+     * Drops an operand of the dual operator whose operands include every
+     * term of another kept operand: x AND (x OR y) is x.
+     */
+    private List<RulesetExpression> absorb(LogicalOperator operator, List<RulesetExpression> operands) {
+
+        List<RulesetExpression> kept = new ArrayList<>(operands);
+        for (RulesetExpression candidate : operands) {
+
+            if (!(candidate instanceof LogicalNode dual) || dual.operator() == operator) {
+                continue;
+            }
+            Set<RulesetExpression> terms = Set.copyOf(dual.operands());
+            for (RulesetExpression other : kept) {
+                if (other != candidate && terms.containsAll(terms(other, dual.operator()))) {
+                    kept.remove(candidate);
+                    absorbed++;
+                    break;
+                }
+            }
+        }
+        return kept;
+    }
+
+    // Operands of expr when it applies the given operator, else expr itself
+    private static List<RulesetExpression> terms(RulesetExpression expr, LogicalOperator operator) {
+        return expr instanceof LogicalNode logical && logical.operator() == operator
+                ? logical.operands()
+                : List.of(expr);
+    }
+
+    private static int count(RulesetExpression expr) {
+        if (expr instanceof LogicalNode logical) {
+            return 1 + logical.operands().stream().mapToInt(RulesetOptimizer::count).sum();
+        }
+        return 1;
+    }
+}
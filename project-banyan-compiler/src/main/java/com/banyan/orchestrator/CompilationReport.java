@@ -29,6 +29,9 @@ public final class CompilationReport {
     private final Map<ArtifactType, Integer> compiledArtifactCounts;
     private final int totalReachableArtifacts;
     
+    // Ruleset expression optimizer
+    private final RulesetOptimizationStatistics rulesetOptimization;
+    
     // Error and warning counts
     private final int totalErrors;
     private final int totalWarnings;
@@ -48,6 +51,7 @@ public final class CompilationReport {
         this.sourceCounts = Map.copyOf(builder.sourceCounts);
         this.compiledArtifactCounts = Map.copyOf(builder.compiledArtifactCounts);
         this.totalReachableArtifacts = builder.totalReachableArtifacts;
+        this.rulesetOptimization = builder.rulesetOptimization;
         this.totalErrors = builder.totalErrors;
         this.totalWarnings = builder.totalWarnings;
         this.state = builder.state;
@@ -101,6 +105,10 @@ public final class CompilationReport {
         return totalReachableArtifacts;
     }
     
+    public RulesetOptimizationStatistics getRulesetOptimization() {
+        return rulesetOptimization;
+    }
+    
     public int getTotalErrors() {
         return totalErrors;
     }
@@ -125,6 +133,7 @@ public final class CompilationReport {
             "emission=%s, " +
             "sources=%s, " +
             "artifacts=%s, " +
+            "rulesetOptimization=%s, " +
             "errors=%d, " +
             "warnings=%d, " +
             "state=%s" +
@@ -137,6 +146,7 @@ public final class CompilationReport {
             emissionDuration,
             sourceCounts,
             compiledArtifactCounts,
+            rulesetOptimization,
             totalErrors,
             totalWarnings,
             state
@@ -155,6 +165,7 @@ public final class CompilationReport {
         private final Map<ArtifactType, Integer> sourceCounts = new java.util.HashMap<>();
         private final Map<ArtifactType, Integer> compiledArtifactCounts = new java.util.HashMap<>();
         private int totalReachableArtifacts;
+        private RulesetOptimizationStatistics rulesetOptimization = RulesetOptimizationStatistics.EMPTY;
         private int totalErrors;
         private int totalWarnings;
         private CompilationState state;
@@ -210,6 +221,11 @@ public final class CompilationReport {
             return this;
         }
         
+        public Builder rulesetOptimization(RulesetOptimizationStatistics statistics) {
+            this.rulesetOptimization = statistics;
+            return this;
+        }
+        
         public Builder totalErrors(int errors) {
             this.totalErrors = errors;
             return this;
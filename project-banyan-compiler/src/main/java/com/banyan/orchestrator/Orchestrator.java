@@ -58,7 +58,14 @@ public final class Orchestrator implements OrchestratorContext {
     private final BanyanCompiler compiler;
     private final Map<ArtifactType, BiFunction<JsonNode,CompilationContext, CompiledArtifact>> backendCompilers;
     private final static CompilationContext ctx = new CompilationContext(CompilerCompatibilityBootstrap.bootstrap());
+    private final ArtifactEmitter emitter;
     public Orchestrator() {
+        this(new ZipEmitter());
+    }
+
+    // e.g. new BinaryZipEmitter() for the compact binary artifact encoding
+    public Orchestrator(ArtifactEmitter emitter) {
+        this.emitter = emitter;
         this.registry = new CompilationPipelineRegistry();
         this.compiler = new BanyanCompiler(registry);
         this.backendCompilers = new HashMap<>();
@@ -143,7 +150,6 @@ public final class Orchestrator implements OrchestratorContext {
             
             // Phase 5: Emission
             Instant emissionStart = Instant.now();
-            ArtifactEmitter emitter = new ZipEmitter();
             emitter.emit(outcome);
             Instant emissionEnd = Instant.now();
             reportBuilder.emissionDuration(Duration.between(emissionStart, emissionEnd))
@@ -207,14 +213,10 @@ public final class Orchestrator implements OrchestratorContext {
     }
     
     private List<CompilationResult> compileFrontend(SourceLibrary sourceLibrary) {
-        List<CompilationResult> results = new ArrayList<>();
-        // Parallel way
-        sourceLibrary.allSources().parallelStream().forEach(sourceUnit -> {
-             results.add(compiler.compile(sourceUnit.content().toString()));
-        });
-
-        
-        return results;
+        // Parallel way; collected by the stream, ArrayList.add is not thread-safe
+        return sourceLibrary.allSources().parallelStream()
+                .map(sourceUnit -> compiler.compile(sourceUnit.content().toString()))
+                .toList();
     }
     private CompilationContext compileBackend(
             List<CompilationResult> frontendResults,
@@ -224,6 +226,7 @@ public final class Orchestrator implements OrchestratorContext {
                 new CompilationContext(CompilerCompatibilityBootstrap.bootstrap());
 
         Map<ArtifactType, Integer> compiledCounts = new HashMap<>();
+        RulesetOptimizationStatistics optimization = RulesetOptimizationStatistics.EMPTY;
 
         //Group DSLs by artifact type
         Map<ArtifactType, List<JsonNode>> grouped = new EnumMap<>(ArtifactType.class);
@@ -272,6 +275,10 @@ public final class Orchestrator implements OrchestratorContext {
                     CompiledArtifact compiled = compiler.apply(dsl,ctx);
                     ctx.register(compiled);
                     compiledCounts.merge(type, 1, Integer::sum);
+                    if (compiled instanceof CompiledRulesetArtifact ruleset
+                            && ruleset.payload().optimization() != null) {
+                        optimization = optimization.plus(ruleset.payload().optimization());
+                    }
                 } catch (CompilationException ce) {
                     LOGGER.error("artifact id {} - error {}",ce.getArtifactId(),ce.getMessage());
                 } catch (Exception e) {
@@ -280,7 +287,8 @@ public final class Orchestrator implements OrchestratorContext {
             }
         }
 
-        reportBuilder.compiledArtifactCounts(compiledCounts);
+        reportBuilder.compiledArtifactCounts(compiledCounts)
+                     .rulesetOptimization(optimization);
 
         ctx.freeze();
         return ctx;
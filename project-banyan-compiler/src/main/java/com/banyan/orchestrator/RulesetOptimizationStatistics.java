@@ -0,0 +1,35 @@
+package com.banyan.orchestrator;
+
+import com.banyan.compiler.backend.ruleset.RulesetOptimization;
+
+/**
+ * Totals of the ruleset expression optimizer over one compilation.
+ * Immutable; {@link #plus(RulesetOptimization)} returns a new instance.
+ */
+public record RulesetOptimizationStatistics(
+        int rulesets,
+        int optimizedRulesets,
+        int nodesBefore,
+        int nodesAfter,
+        int flattened,
+        int unwrapped,
+        int duplicatesRemoved,
+        int absorbed
+) {
+
+    public static final RulesetOptimizationStatistics EMPTY =
+            new RulesetOptimizationStatistics(0, 0, 0, 0, 0, 0, 0, 0);
+
+    public RulesetOptimizationStatistics plus(RulesetOptimization optimization) {
+        return new RulesetOptimizationStatistics(
+                rulesets + 1,
+                optimizedRulesets + (optimization.changed() ? 1 : 0),
+                nodesBefore + optimization.nodesBefore(),
+                nodesAfter + optimization.nodesAfter(),
+                flattened + optimization.flattened(),
+                unwrapped + optimization.unwrapped(),
+                duplicatesRemoved + optimization.duplicatesRemoved(),
+                absorbed + optimization.absorbed()
+        );
+    }
+}
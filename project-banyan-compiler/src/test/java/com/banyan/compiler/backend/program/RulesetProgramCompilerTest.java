@@ -0,0 +1,92 @@
+package com.banyan.compiler.backend.program;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.enums.LogicalOperator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.banyan.compiler.backend.program.RulesetProgram.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RulesetProgramCompilerTest {
+
+    private static final RulesetExpression A = new RuleRefNode("a", 1);
+    private static final RulesetExpression B = new RuleRefNode("b", 1);
+    private static final RulesetExpression C = new RuleRefNode("c", 1);
+
+    @Test
+    void jumpsToTheEndOfEachOperator() {
+
+        RulesetProgram program = compile(or(and(A, B), C));
+
+        // a JUMP_IF_FALSE into the OR's JUMP_IF_TRUE continues after it
+        assertArrayEquals(new int[]{
+                instruction(RULE, 0),
+                instruction(JUMP_IF_FALSE, 4),
+                instruction(RULE, 1),
+                instruction(JUMP_IF_TRUE, 5),
+                instruction(RULE, 2)
+        }, program.code());
+        assertEquals(List.of("a", "b", "c"), program.rules().stream().map(ProgramRule::ruleId).toList());
+        assertEquals("hash", program.sourceHash());
+    }
+
+    @Test
+    void threadsJumpsOnTheSameRegisterValue() {
+
+        RulesetProgram program = compile(and(and(A, B), C));
+
+        assertArrayEquals(new int[]{
+                instruction(RULE, 0),
+                instruction(JUMP_IF_FALSE, 5),
+                instruction(RULE, 1),
+                instruction(JUMP_IF_FALSE, 5),
+                instruction(RULE, 2)
+        }, program.code());
+    }
+
+    @Test
+    void repeatedRulesShareOneTableEntry() {
+
+        RulesetProgram program = compile(or(and(A, B), and(A, C)));
+
+        assertEquals(3, program.rules().size());
+        assertEquals(instruction(RULE, 0), program.code()[4]);
+        assertEquals(">", program.rules().get(0).operator());
+        assertEquals(1, program.rules().get(0).value());
+    }
+
+    @Test
+    void emptyOperatorsAreConstants() {
+
+        assertArrayEquals(new int[]{instruction(CONST, 1)}, compile(and()).code());
+        assertArrayEquals(new int[]{instruction(CONST, 0)}, compile(or()).code());
+    }
+
+    @Test
+    void missingRuleIsRejected() {
+
+        assertThrows(IllegalStateException.class, () -> RulesetProgramCompiler.compile(
+                "r", 1, "hash", new CompiledRuleset(and(A, B)), ref -> null));
+    }
+
+    private static RulesetProgram compile(RulesetExpression root) {
+        return RulesetProgramCompiler.compile("r", 1, "hash", new CompiledRuleset(root),
+                ref -> new CompiledRule(ref.ruleId(), ">", 1, "THRESHOLD"));
+    }
+
+    private static RulesetExpression and(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.AND, List.of(operands));
+    }
+
+    private static RulesetExpression or(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.OR, List.of(operands));
+    }
+}
@@ -0,0 +1,69 @@
+package com.banyan.compiler.backend.ruleset;
+
+import com.banyan.compiler.enums.LogicalOperator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RulesetOptimizerTest {
+
+    private static final RulesetExpression A = new RuleRefNode("a", 1);
+    private static final RulesetExpression B = new RuleRefNode("b", 1);
+    private static final RulesetExpression C = new RuleRefNode("c", 1);
+
+    @Test
+    void flattensNestedOperatorsAndRemovesDuplicates() {
+
+        RulesetExpression authored = and(A, and(B, and(C, A)), or(B));
+
+        RulesetOptimization optimization = RulesetOptimizer.optimize(authored);
+
+        assertEquals(and(A, B, C), optimization.optimized());
+        assertSame(authored, optimization.original());
+        assertEquals(2, optimization.flattened());
+        assertEquals(1, optimization.unwrapped());
+        assertEquals(2, optimization.duplicatesRemoved());
+        assertEquals(9, optimization.nodesBefore());
+        assertEquals(4, optimization.nodesAfter());
+        assertTrue(optimization.changed());
+    }
+
+    @Test
+    void appliesAbsorption() {
+
+        assertEquals(and(A, C),
+                RulesetOptimizer.optimize(and(A, or(A, B), C)).optimized());
+        assertEquals(or(A, C),
+                RulesetOptimizer.optimize(or(and(A, B), A, C)).optimized());
+        assertEquals(and(or(A, B), C),
+                RulesetOptimizer.optimize(and(or(A, B), or(B, C, A), C)).optimized());
+        assertEquals(1, RulesetOptimizer.optimize(and(or(A, B), or(B, C, A), C)).absorbed());
+    }
+
+    @Test
+    void keepsLogicalRootAndUnwrapsSingleOperandChains() {
+
+        // A bare rule at the root would report missing evidence instead of false
+        assertEquals(and(A), RulesetOptimizer.optimize(and(A, or(A, B))).optimized());
+        assertEquals(or(A, B), RulesetOptimizer.optimize(and(or(and(or(A, B))))).optimized());
+        assertSame(A, RulesetOptimizer.optimize(A).optimized());
+
+        RulesetExpression optimal = or(and(A, B), C);
+        RulesetOptimization optimization = RulesetOptimizer.optimize(optimal);
+        assertEquals(optimal, optimization.optimized());
+        assertFalse(optimization.changed());
+    }
+
+    private static RulesetExpression and(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.AND, List.of(operands));
+    }
+
+    private static RulesetExpression or(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.OR, List.of(operands));
+    }
+}
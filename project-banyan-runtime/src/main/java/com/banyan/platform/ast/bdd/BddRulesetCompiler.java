@@ -0,0 +1,275 @@
+package com.banyan.platform.ast.bdd;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.builder.RuleNodeFactory;
+import com.banyan.platform.ast.node.EvaluationTrace;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Optional alternative to AstBuilder: compiles a ruleset into a reduced
+ * ordered binary decision diagram over its rule predicates, so evaluation
+ * tests each predicate at most once however often the expression repeats it.
+ * Equal CompiledRules are one variable. Variables are ordered by first
+ * occurrence in a depth-first walk of the DAR's rulesets, which keeps the
+ * predicates of one sub-expression adjacent.
+ *
+ * One compiler per DarRuntimeContext: the variable order covers all
+ * rulesets of the DAR and compiled diagrams are cached per key. The node
+ * table and apply caches are emptied after each ruleset, whose diagram has
+ * been copied out by then, so maxNodes bounds every ruleset on its own;
+ * one that exceeds it keeps the tree form. Not thread-safe.
+ */
+public final class BddRulesetCompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BddRulesetCompiler.class);
+
+    public static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+
+    private record Triple(int variable, int low, int high) {
+    }
+
+    private final DarRuntimeContext context;
+    private final EvidenceLayout layout;
+    private final int maxNodes;
+    private final Map<DarRuntimeContext.RulesetKey, ExecutableNode> compiled = new HashMap<>();
+
+    private Map<CompiledRule, Integer> order;
+    private final List<RuleExecutableNode> predicates = new ArrayList<>();
+
+    // node table; 0 and 1 are the terminals
+    private int[] variables = new int[1024];
+    private int[] lows = new int[1024];
+    private int[] highs = new int[1024];
+    private int size = 2;
+    private final Map<Triple, Integer> unique = new HashMap<>();
+    private final Map<Long, Integer> and = new HashMap<>();
+    private final Map<Long, Integer> or = new HashMap<>();
+
+    public BddRulesetCompiler(
+            DarRuntimeContext context
+    ) {
+        this(context, null, DEFAULT_MAX_NODES);
+    }
+
+    // Predicates are bound to the slots of the given layout
+    public BddRulesetCompiler(
+            DarRuntimeContext context,
+            EvidenceLayout layout,
+            int maxNodes
+    ) {
+        this.context = context;
+        this.layout = layout;
+        this.maxNodes = maxNodes;
+        variables[FALSE] = variables[TRUE] = Integer.MAX_VALUE;
+    }
+
+    public ExecutableNode compile(
+            DarRuntimeContext.RulesetKey key
+    ) {
+
+        ExecutableNode node = compiled.get(key);
+        if (node == null) {
+            node = build(key);
+            compiled.put(key, node);
+        }
+        return node;
+    }
+
+    private ExecutableNode build(DarRuntimeContext.RulesetKey key) {
+
+        RulesetExpression root = context.ruleset(key).root();
+
+        // A bare rule propagates MissingEvidenceException like the tree does
+        if (root instanceof RuleRefNode) {
+            return new AstBuilder(context, layout).build(key);
+        }
+        if (order == null) {
+            order = variableOrder();
+        }
+
+        try {
+            return diagram(key, node(root));
+        } catch (IllegalStateException tooLarge) {
+            LOGGER.warn("Keeping the tree form of {}: {}", key, tooLarge.getMessage());
+            return new AstBuilder(context, layout).build(key);
+        } finally {
+            reset();
+        }
+    }
+
+    private void reset() {
+        size = 2;
+        unique.clear();
+        and.clear();
+        or.clear();
+    }
+
+    // First occurrence in a depth-first walk of all rulesets, in key order
+    private Map<CompiledRule, Integer> variableOrder() {
+
+        List<Map.Entry<DarRuntimeContext.RulesetKey, ?>> rulesets = new ArrayList<>();
+        context.rulesets().forEach(rulesets::add);
+        rulesets.sort(Comparator
+                .comparing((Map.Entry<DarRuntimeContext.RulesetKey, ?> e) -> e.getKey().name())
+                .thenComparingInt(e -> e.getKey().version()));
+
+        Map<CompiledRule, Integer> order = new LinkedHashMap<>();
+        for (var entry : rulesets) {
+            visit(context.ruleset(entry.getKey()).root(), order);
+        }
+        return order;
+    }
+
+    private void visit(RulesetExpression expr, Map<CompiledRule, Integer> order) {
+
+        if (expr instanceof LogicalNode logical) {
+            logical.operands().forEach(operand -> visit(operand, order));
+            return;
+        }
+        RuleRefNode ref = (RuleRefNode) expr;
+        CompiledRule rule = context.rule(new DarRuntimeContext.RuleKey(ref.version(), ref.ruleId()));
+        if (!order.containsKey(rule)) {
+            order.put(rule, order.size());
+            predicates.add(RuleNodeFactory.create(rule, layout, EvaluationTrace.register(ref)));
+        }
+    }
+
+    private int node(RulesetExpression expr) {
+
+        if (expr instanceof LogicalNode logical) {
+            boolean conjunction = switch (logical.operator()) {
+                case AND -> true;
+                case OR -> false;
+            };
+            int result = conjunction ? TRUE : FALSE;
+            for (RulesetExpression operand : logical.operands()) {
+                result = apply(conjunction, result, node(operand));
+            }
+            return result;
+        }
+        RuleRefNode ref = (RuleRefNode) expr;
+        CompiledRule rule = context.rule(new DarRuntimeContext.RuleKey(ref.version(), ref.ruleId()));
+        return make(order.get(rule), FALSE, TRUE);
+    }
+
+    private int apply(boolean conjunction, int u, int v) {
+
+        if (conjunction) {
+            if (u == FALSE || v == FALSE) return FALSE;
+            if (u == TRUE) return v;
+            if (v == TRUE) return u;
+        } else {
+            if (u == TRUE || v == TRUE) return TRUE;
+            if (u == FALSE) return v;
+            if (v == FALSE) return u;
+        }
+        if (u == v) {
+            return u;
+        }
+        if (u > v) {
+            int swap = u;
+            u = v;
+            v = swap;
+        }
+
+        Map<Long, Integer> computed = conjunction ? and : or;
+        long pair = (long) u << 32 | v;
+        Integer cached = computed.get(pair);
+        if (cached != null) {
+            return cached;
+        }
+
+        int variable = Math.min(variables[u], variables[v]);
+        int low = apply(conjunction,
+                variables[u] == variable ? lows[u] : u,
+                variables[v] == variable ? lows[v] : v);
+        int high = apply(conjunction,
+                variables[u] == variable ? highs[u] : u,
+                variables[v] == variable ? highs[v] : v);
+        int result = make(variable, low, high);
+        computed.put(pair, result);
+        return result;
+    }
+
+    private int make(int variable, int low, int high) {
+
+        if (low == high) {
+            return low;
+        }
+        Triple triple = new Triple(variable, low, high);
+        Integer existing = unique.get(triple);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == maxNodes) {
+            throw new IllegalStateException("Decision diagram exceeds " + maxNodes + " nodes");
+        }
+        if (size == variables.length) {
+            variables = Arrays.copyOf(variables, size * 2);
+            lows = Arrays.copyOf(lows, size * 2);
+            highs = Arrays.copyOf(highs, size * 2);
+        }
+        variables[size] = variable;
+        lows[size] = low;
+        highs[size] = high;
+        unique.put(triple, size);
+        return size++;
+    }
+
+    // Copies the nodes reachable from root into an immutable diagram
+    private DecisionDiagram diagram(DarRuntimeContext.RulesetKey key, int root) {
+
+        Map<Integer, Integer> local = new HashMap<>();
+        local.put(FALSE, FALSE);
+        local.put(TRUE, TRUE);
+        List<Integer> reachable = new ArrayList<>();
+        collect(root, local, reachable);
+
+        Map<Integer, Integer> localVariables = new HashMap<>();
+        List<RuleExecutableNode> rules = new ArrayList<>();
+        int[] variable = new int[reachable.size() + 2];
+        int[] low = new int[reachable.size() + 2];
+        int[] high = new int[reachable.size() + 2];
+        for (int node : reachable) {
+            int index = local.get(node);
+            variable[index] = localVariables.computeIfAbsent(variables[node], v -> {
+                rules.add(predicates.get(v));
+                return rules.size() - 1;
+            });
+            low[index] = local.get(lows[node]);
+            high[index] = local.get(highs[node]);
+        }
+        return new DecisionDiagram(key, local.get(root),
+                rules.toArray(new RuleExecutableNode[0]), variable, low, high);
+    }
+
+    private void collect(int node, Map<Integer, Integer> local, List<Integer> reachable) {
+        if (local.containsKey(node)) {
+            return;
+        }
+        local.put(node, reachable.size() + 2);
+        reachable.add(node);
+        collect(lows[node], local, reachable);
+        collect(highs[node], local, reachable);
+    }
+}
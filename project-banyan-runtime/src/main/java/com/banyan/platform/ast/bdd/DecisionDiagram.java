@@ -0,0 +1,107 @@
+package com.banyan.platform.ast.bdd;
+
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.TriState;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.UnknownFields;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+
+/*
+ * A ruleset compiled by BddRulesetCompiler. Node n tests predicates[variable[n]]
+ * and continues at high[n] when it holds, low[n] otherwise; nodes 0 and 1 are
+ * the FALSE and TRUE terminals. Variables only grow along a path, so no
+ * predicate is evaluated twice.
+ *
+ * Missing evidence takes the low branch, which is what the AND/OR tree
+ * decides: the expression is monotone, and a missing rule is never TRUE.
+ */
+public final class DecisionDiagram implements ExecutableNode {
+
+    private final DarRuntimeContext.RulesetKey key;
+    private final int root;
+    private final RuleExecutableNode[] predicates;
+    private final int[] variable;
+    private final int[] low;
+    private final int[] high;
+
+    DecisionDiagram(
+            DarRuntimeContext.RulesetKey key,
+            int root,
+            RuleExecutableNode[] predicates,
+            int[] variable,
+            int[] low,
+            int[] high
+    ) {
+        this.key = key;
+        this.root = root;
+        this.predicates = predicates;
+        this.variable = variable;
+        this.low = low;
+        this.high = high;
+    }
+
+    public DarRuntimeContext.RulesetKey key() {
+        return key;
+    }
+
+    // Decision nodes, terminals excluded
+    public int size() {
+        return variable.length - 2;
+    }
+
+    public int predicates() {
+        return predicates.length;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+
+        int n = root;
+        while (n > BddRulesetCompiler.TRUE) {
+            n = predicates[variable[n]].evaluate(context, null) == TriState.TRUE
+                    ? high[n]
+                    : low[n];
+        }
+        return n == BddRulesetCompiler.TRUE;
+    }
+
+    /*
+     * TRUE when the diagram accepts with every unknown predicate false, FALSE
+     * when it rejects with every unknown predicate true, UNKNOWN otherwise;
+     * for a monotone expression this is its Kleene value. Predicates are
+     * evaluated once across both walks.
+     */
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+
+        TriState[] states = new TriState[predicates.length];
+        if (walk(context, unknown, states, false) == BddRulesetCompiler.TRUE) {
+            return TriState.TRUE;
+        }
+        return walk(context, unknown, states, true) == BddRulesetCompiler.FALSE
+                ? TriState.FALSE
+                : TriState.UNKNOWN;
+    }
+
+    private int walk(
+            EvidenceContext context,
+            UnknownFields unknown,
+            TriState[] states,
+            boolean unknownHolds
+    ) {
+
+        int n = root;
+        while (n > BddRulesetCompiler.TRUE) {
+            int v = variable[n];
+            TriState state = states[v];
+            if (state == null) {
+                state = predicates[v].evaluate(context, unknown);
+                states[v] = state;
+            }
+            boolean holds = state == TriState.UNKNOWN ? unknownHolds : state == TriState.TRUE;
+            n = holds ? high[n] : low[n];
+        }
+        return n;
+    }
+}
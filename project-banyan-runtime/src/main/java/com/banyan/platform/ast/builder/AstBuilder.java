@@ -5,32 +5,227 @@ import com.banyan.compiler.backend.ruleset.LogicalNode;
 import com.banyan.compiler.backend.ruleset.RuleRefNode;
 import com.banyan.compiler.backend.ruleset.RulesetExpression;
 import com.banyan.platform.ast.node.*;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.ThresholdIndex;
 import com.banyan.platform.runtime.context.DarRuntimeContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Builds are hash-consed across all rulesets of the context: equal rule
+ * references and sub-expressions map to one node, and those referenced more
+ * than once are wrapped in a SharedNode whose result is memoized per
+ * EvidenceContext. Three or more string equality children of an OR on one
+ * input are merged into an EqualityDispatchNode. Use one builder per
+ * DarRuntimeContext; it is not thread-safe.
+ *
+ * By default sharing is decided over every ruleset of the context on the
+ * first build. An incremental builder decides it over the rulesets built
+ * so far, so only artifacts reachable from what is built get bound; a node
+ * that becomes shared later is wrapped from then on, while trees already
+ * returned keep the unwrapped node and simply do not memoize it.
+ */
 public final class AstBuilder {
 
+    // Smallest group of string equality children of an OR that is hash-dispatched
+    static final int MIN_EQUALITY_GROUP = 3;
+
     private final DarRuntimeContext context;
+    private final EvidenceLayout layout;
+    private final boolean adaptive;
+    private final ThresholdIndex thresholds;
+    private final boolean incremental;
+    private final Map<RulesetExpression, ExecutableNode> nodes = new HashMap<>();
+    private Map<RulesetExpression, Integer> sharedIds;
+    private final Map<RulesetExpression, Integer> references = new HashMap<>();
+    private final Set<DarRuntimeContext.RulesetKey> scanned = new HashSet<>();
 
     public AstBuilder(
             DarRuntimeContext context
+    ) {
+        this(context, null);
+    }
+
+    // Rule nodes are bound to the slots of the given layout
+    public AstBuilder(
+            DarRuntimeContext context,
+            EvidenceLayout layout
+    ) {
+        this(context, layout, false);
+    }
+
+    // Logical nodes reorder their children from live statistics, see AdaptiveOrder
+    public AstBuilder(
+            DarRuntimeContext context,
+            EvidenceLayout layout,
+            boolean adaptive
+    ) {
+        this(context, layout, adaptive, null);
+    }
+
+    // THRESHOLD rules read their outcome from the DAR-wide index, see ThresholdIndex
+    public AstBuilder(
+            DarRuntimeContext context,
+            EvidenceLayout layout,
+            boolean adaptive,
+            ThresholdIndex thresholds
+    ) {
+        this(context, layout, adaptive, thresholds, false);
+    }
+
+    // With incremental, sharing covers only the rulesets built so far
+    public AstBuilder(
+            DarRuntimeContext context,
+            EvidenceLayout layout,
+            boolean adaptive,
+            ThresholdIndex thresholds,
+            boolean incremental
     ) {
         this.context = context;
+        this.layout = layout;
+        this.adaptive = adaptive;
+        this.thresholds = thresholds;
+        this.incremental = incremental;
+        if (incremental) {
+            sharedIds = new HashMap<>();
+        }
     }
 
     public ExecutableNode build(
             DarRuntimeContext.RulesetKey key
     ) {
 
-        RulesetExpression root =
-                context.ruleset(key).root();
+        return buildAll(List.of(key)).get(0);
+    }
+
+    // Sharing among the given rulesets is known before any of them is built
+    public List<ExecutableNode> buildAll(
+            List<DarRuntimeContext.RulesetKey> keys
+    ) {
+
+        List<RulesetExpression> roots = new ArrayList<>(keys.size());
+        for (DarRuntimeContext.RulesetKey key : keys) {
+            RulesetExpression root = context.ruleset(key).root();
+            if (incremental && scanned.add(key)) {
+                scan(root);
+            }
+            roots.add(root);
+        }
 
-        return buildNode(root);
+        List<ExecutableNode> built = new ArrayList<>(roots.size());
+        for (RulesetExpression root : roots) {
+            built.add(buildNode(root));
+        }
+        return built;
     }
 
     private ExecutableNode buildNode(
             RulesetExpression expr
     ) {
 
+        ExecutableNode node = nodes.get(expr);
+        if (node == null) {
+            node = share(expr, createNode(expr));
+            nodes.put(expr, node);
+        } else if (incremental && !(node instanceof SharedNode) && sharedIds.containsKey(expr)) {
+            node = share(expr, node);
+            nodes.put(expr, node);
+        }
+        return node;
+    }
+
+    private ExecutableNode share(
+            RulesetExpression expr,
+            ExecutableNode node
+    ) {
+
+        if (sharedIds == null) {
+            sharedIds = sharedExpressions();
+        }
+        Integer id = sharedIds.get(expr);
+        return id == null ? node : new SharedNode(node, this, sharedIds.size(), id);
+    }
+
+    // Expressions reached from more than one parent or ruleset root
+    private Map<RulesetExpression, Integer> sharedExpressions() {
+
+        Map<RulesetExpression, Integer> references = new HashMap<>();
+        for (var entry : context.rulesets()) {
+            countReferences(entry.getValue().root(), references);
+        }
+
+        Map<RulesetExpression, Integer> ids = new HashMap<>();
+        references.forEach((expr, count) -> {
+            if (count > 1) {
+                ids.put(expr, ids.size());
+            }
+        });
+        return ids;
+    }
+
+    // Incremental counterpart of sharedExpressions for one more ruleset
+    private void scan(RulesetExpression expr) {
+
+        int count = references.merge(expr, 1, Integer::sum);
+        if (count == 2) {
+            sharedIds.put(expr, sharedIds.size());
+        } else if (count == 1 && expr instanceof LogicalNode logical) {
+            logical.operands().forEach(this::scan);
+        }
+    }
+
+    private static void countReferences(
+            RulesetExpression expr,
+            Map<RulesetExpression, Integer> references
+    ) {
+
+        if (references.merge(expr, 1, Integer::sum) == 1
+                && expr instanceof LogicalNode logical) {
+            logical.operands().forEach(operand -> countReferences(operand, references));
+        }
+    }
+
+    // OR children comparing one input to strings are replaced by one EqualityDispatchNode
+    private static List<ExecutableNode> dispatchEqualities(
+            List<ExecutableNode> children
+    ) {
+
+        Map<String, List<StringEqualityRuleNode>> groups = new LinkedHashMap<>();
+        for (ExecutableNode child : children) {
+            if (child instanceof StringEqualityRuleNode rule) {
+                groups.computeIfAbsent(rule.input(), k -> new ArrayList<>()).add(rule);
+            }
+        }
+        if (groups.values().stream().noneMatch(group -> group.size() >= MIN_EQUALITY_GROUP)) {
+            return children;
+        }
+
+        List<ExecutableNode> dispatched = new ArrayList<>();
+        for (ExecutableNode child : children) {
+            if (child instanceof StringEqualityRuleNode rule) {
+                List<StringEqualityRuleNode> group = groups.get(rule.input());
+                if (group.size() >= MIN_EQUALITY_GROUP) {
+                    // at the position of the group's first member
+                    if (group.get(0) == rule) {
+                        dispatched.add(new EqualityDispatchNode(group));
+                    }
+                    continue;
+                }
+            }
+            dispatched.add(child);
+        }
+        return dispatched;
+    }
+
+    private ExecutableNode createNode(
+            RulesetExpression expr
+    ) {
+
         if (expr instanceof LogicalNode logical) {
 
             List<ExecutableNode> children =
@@ -42,10 +237,10 @@ public final class AstBuilder {
             switch (logical.operator()) {
 
                 case AND:
-                    return new AndLogicalNode(children);
+                    return new AndLogicalNode(children, adaptive);
 
                 case OR:
-                    return new OrLogicalNode(children);
+                    return new OrLogicalNode(dispatchEqualities(children), adaptive);
 
                 default:
                     throw new IllegalStateException("Unsupported operator");
@@ -63,7 +258,11 @@ public final class AstBuilder {
 
             CompiledRule rule =
                     context.rule(ruleKey);
-            return new RuleExecutableNode(rule);
+            RuleExecutableNode node =
+                    RuleNodeFactory.create(rule, layout, EvaluationTrace.register(ref));
+
+            int bit = thresholds == null ? -1 : thresholds.bit(ruleKey);
+            return bit < 0 ? node : new IndexedThresholdRuleNode(node, thresholds, bit);
         }
 
         throw new IllegalStateException("Unknown node");
@@ -0,0 +1,120 @@
+package com.banyan.platform.ast.builder;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.ast.node.*;
+import com.banyan.platform.runtime.EvidenceLayout;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+/*
+ * Resolves operator and value type once, at build time, so that the
+ * produced node never switches on the operator or parses the expected
+ * value during evaluation.
+ */
+public final class RuleNodeFactory {
+
+    private static final Pattern INTEGRAL = Pattern.compile("-?\\d+");
+    private static final Pattern DECIMAL = Pattern.compile("-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?");
+
+    private RuleNodeFactory() {
+    }
+
+    public static RuleExecutableNode create(CompiledRule rule) {
+        return create(rule, null);
+    }
+
+    // Binds the node to the slot of its input when a layout is given
+    public static RuleExecutableNode create(CompiledRule rule, EvidenceLayout layout) {
+        return create(rule, layout, EvaluationTrace.UNTRACED);
+    }
+
+    // traceId identifies the rule in EvaluationTrace entries
+    public static RuleExecutableNode create(CompiledRule rule, EvidenceLayout layout, int traceId) {
+
+        switch (rule.operator()) {
+
+            case ">":
+                return new DoubleGreaterThanRuleNode(rule, layout, traceId, threshold(rule));
+
+            case ">=":
+                return new DoubleGreaterOrEqualRuleNode(rule, layout, traceId, threshold(rule));
+
+            case "<":
+                return new DoubleLessThanRuleNode(rule, layout, traceId, threshold(rule));
+
+            case "<=":
+                return new DoubleLessOrEqualRuleNode(rule, layout, traceId, threshold(rule));
+
+            case "==":
+                return equality(rule, layout, traceId, false);
+
+            case "!=":
+                return equality(rule, layout, traceId, true);
+
+            default:
+                throw new IllegalStateException(
+                        "Unsupported operator: " + rule.operator()
+                );
+        }
+    }
+
+    private static double threshold(CompiledRule rule) {
+
+        Object value = rule.value();
+
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && DECIMAL.matcher(text.trim()).matches()) {
+            return Double.parseDouble(text.trim());
+        }
+        throw new IllegalStateException(
+                "Non-numeric threshold for " + rule.input() + ": " + value
+        );
+    }
+
+    private static RuleExecutableNode equality(CompiledRule rule, EvidenceLayout layout, int traceId, boolean negated) {
+
+        Object value = rule.value();
+
+        if (value instanceof Boolean bool) {
+            return new BooleanEqualityRuleNode(rule, layout, traceId, bool, negated);
+        }
+        if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return new LongEqualityRuleNode(rule, layout, traceId, ((Number) value).longValue(), negated);
+        }
+        if (value instanceof Number number) {
+            return new DoubleEqualityRuleNode(rule, layout, traceId, number.doubleValue(), decimalLiteral(number), negated);
+        }
+        if (value == null) {
+            throw new IllegalStateException(
+                    "Missing expected value for " + rule.input()
+            );
+        }
+
+        String text = value.toString();
+
+        if ("true".equals(text) || "false".equals(text)) {
+            return new BooleanEqualityRuleNode(rule, layout, traceId, Boolean.parseBoolean(text), negated);
+        }
+        if (INTEGRAL.matcher(text).matches()) {
+            try {
+                return new LongEqualityRuleNode(rule, layout, traceId, Long.parseLong(text), negated);
+            } catch (NumberFormatException e) {
+                // wider than a long; compare as a decimal
+            }
+        }
+        if (DECIMAL.matcher(text).matches()) {
+            return new DoubleEqualityRuleNode(rule, layout, traceId, Double.parseDouble(text), text, negated);
+        }
+        return new StringEqualityRuleNode(rule, layout, traceId, text, negated);
+    }
+
+    private static String decimalLiteral(Number number) {
+        return number instanceof BigDecimal decimal
+                ? decimal.toPlainString()
+                : number.toString();
+    }
+}
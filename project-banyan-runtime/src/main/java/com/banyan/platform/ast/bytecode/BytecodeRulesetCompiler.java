@@ -0,0 +1,268 @@
+package com.banyan.platform.ast.bytecode;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.builder.RuleNodeFactory;
+import com.banyan.platform.ast.bytecode.ClassFileWriter.Code;
+import com.banyan.platform.ast.bytecode.ClassFileWriter.Label;
+import com.banyan.platform.ast.node.EvaluationTrace;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Optional alternative to AstBuilder: compiles a ruleset into a hidden class
+ * whose evaluate method is straight-line short-circuit code over the
+ * specialized rule nodes, which are held in static final fields so the JIT
+ * can inline the whole ruleset.
+ *
+ * Generated classes are not strongly bound to their defining loader: they
+ * become unloadable as soon as the returned node is unreachable, i.e. when
+ * the owner of the DarRuntimeContext drops it.
+ */
+public final class BytecodeRulesetCompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BytecodeRulesetCompiler.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String CLASS_NAME =
+            BytecodeRulesetCompiler.class.getPackageName().replace('.', '/') + "/GeneratedRuleset";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String EXECUTABLE_NODE = internalName(ExecutableNode.class);
+    private static final String MISSING_EVIDENCE = internalName(MissingEvidenceException.class);
+    private static final String CLASS_CAST = internalName(ClassCastException.class);
+    private static final String EVALUATE_DESCRIPTOR =
+            "(" + descriptor(EvidenceContext.class) + ")Z";
+
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ALOAD_1 = 0x2B;
+    private static final int ASTORE_0 = 0x4B;
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int AALOAD = 0x32;
+    private static final int POP = 0x57;
+    private static final int IFEQ = 0x99;
+    private static final int IFNE = 0x9A;
+    private static final int GOTO = 0xA7;
+    private static final int IRETURN = 0xAC;
+    private static final int RETURN = 0xB1;
+    private static final int GETSTATIC = 0xB2;
+    private static final int PUTSTATIC = 0xB3;
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int CHECKCAST = 0xC0;
+
+    private final DarRuntimeContext context;
+
+    public BytecodeRulesetCompiler(
+            DarRuntimeContext context
+    ) {
+        this.context = context;
+    }
+
+    public ExecutableNode compile(
+            DarRuntimeContext.RulesetKey key
+    ) {
+
+        RulesetExpression root =
+                context.ruleset(key).root();
+
+        List<RuleExecutableNode> rules = new ArrayList<>();
+        byte[] bytes;
+        try {
+            bytes = generate(root, rules);
+        } catch (ClassFileLimitException tooLarge) {
+            // Rulesets beyond the class file limits keep the tree form
+            LOGGER.warn("Keeping the tree form of {}: {}", key, tooLarge.getMessage());
+            return new AstBuilder(context).build(key);
+        }
+
+        try {
+            MethodHandles.Lookup hidden =
+                    LOOKUP.defineHiddenClassWithClassData(bytes, rules.toArray(), true);
+            return (ExecutableNode) hidden
+                    .findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to define compiled ruleset: " + key, e);
+        }
+    }
+
+    private byte[] generate(RulesetExpression root, List<RuleExecutableNode> rules) {
+
+        ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, OBJECT, EXECUTABLE_NODE);
+        Code evaluate = new Code(2, 2);
+
+        if (root instanceof LogicalNode) {
+            Label returnFalse = new Label();
+            List<Runnable> handlers = new ArrayList<>();
+            branch(writer, evaluate, root, false, returnFalse, rules, handlers);
+            evaluate.op(ICONST_1);
+            evaluate.op(IRETURN);
+            evaluate.mark(returnFalse);
+            evaluate.op(ICONST_0);
+            evaluate.op(IRETURN);
+            handlers.forEach(Runnable::run);
+        } else {
+            // A bare rule propagates MissingEvidenceException like the tree does
+            invokeRule(writer, evaluate, rules, ruleNode((RuleRefNode) root, rules));
+            evaluate.op(IRETURN);
+        }
+
+        Code initializer = new Code(4, 1);
+        initializer.op(INVOKESTATIC, writer.methodRef(
+                "java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;"));
+        initializer.op(LDC_W, writer.string("_"));
+        initializer.op(LDC_W, writer.classRef("[Ljava/lang/Object;"));
+        initializer.op(INVOKESTATIC, writer.methodRef(
+                "java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;"));
+        initializer.op(CHECKCAST, writer.classRef("[Ljava/lang/Object;"));
+        initializer.op(ASTORE_0);
+        for (int i = 0; i < rules.size(); i++) {
+            String type = fieldType(rules.get(i));
+            writer.field(
+                    ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_STATIC | ClassFileWriter.ACC_FINAL,
+                    "r" + i, "L" + type + ";");
+            initializer.op(ALOAD_0);
+            initializer.op(SIPUSH, i);
+            initializer.op(AALOAD);
+            initializer.op(CHECKCAST, writer.classRef(type));
+            initializer.op(PUTSTATIC, writer.fieldRef(CLASS_NAME, "r" + i, "L" + type + ";"));
+        }
+        initializer.op(RETURN);
+
+        Code constructor = new Code(1, 1);
+        constructor.op(ALOAD_0);
+        constructor.op(INVOKESPECIAL, writer.methodRef(OBJECT, "<init>", "()V"));
+        constructor.op(RETURN);
+
+        writer.method(ClassFileWriter.ACC_STATIC, "<clinit>", "()V", initializer);
+        writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", "()V", constructor);
+        writer.method(ClassFileWriter.ACC_PUBLIC, "evaluate", EVALUATE_DESCRIPTOR, evaluate);
+
+        return writer.toByteArray(
+                ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER);
+    }
+
+    /*
+     * Emits code that jumps to target when expr evaluates to jumpWhen and
+     * falls through otherwise. A rule directly under a logical node counts
+     * as false when its evidence is missing or of the wrong type, matching
+     * AndLogicalNode and OrLogicalNode.
+     */
+    private void branch(
+            ClassFileWriter writer,
+            Code code,
+            RulesetExpression expr,
+            boolean jumpWhen,
+            Label target,
+            List<RuleExecutableNode> rules,
+            List<Runnable> handlers
+    ) {
+
+        if (expr instanceof RuleRefNode ref) {
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            Label next = new Label();
+
+            code.mark(start);
+            invokeRule(writer, code, rules, ruleNode(ref, rules));
+            code.mark(end);
+            code.jump(jumpWhen ? IFNE : IFEQ, target);
+            code.mark(next);
+
+            code.handler(start, end, handler, writer.classRef(MISSING_EVIDENCE));
+            code.handler(start, end, handler, writer.classRef(CLASS_CAST));
+            handlers.add(() -> {
+                code.mark(handler);
+                code.op(POP);
+                code.jump(GOTO, jumpWhen ? next : target);
+            });
+            return;
+        }
+
+        LogicalNode logical = (LogicalNode) expr;
+        List<RulesetExpression> operands = logical.operands();
+
+        // AND short-circuits on false, OR on true
+        boolean decisive = switch (logical.operator()) {
+            case AND -> false;
+            case OR -> true;
+        };
+
+        if (jumpWhen == decisive) {
+            for (RulesetExpression operand : operands) {
+                branch(writer, code, operand, decisive, target, rules, handlers);
+            }
+            return;
+        }
+
+        Label skip = new Label();
+        for (int i = 0; i < operands.size() - 1; i++) {
+            branch(writer, code, operands.get(i), decisive, skip, rules, handlers);
+        }
+        if (operands.isEmpty()) {
+            // An empty AND is true and an empty OR is false
+            code.jump(GOTO, target);
+        } else {
+            branch(writer, code, operands.get(operands.size() - 1), jumpWhen, target, rules, handlers);
+        }
+        code.mark(skip);
+    }
+
+    private int ruleNode(RuleRefNode ref, List<RuleExecutableNode> rules) {
+
+        CompiledRule rule = context.rule(
+                new DarRuntimeContext.RuleKey(ref.version(), ref.ruleId())
+        );
+        rules.add(RuleNodeFactory.create(rule, null, EvaluationTrace.register(ref)));
+        return rules.size() - 1;
+    }
+
+    private void invokeRule(ClassFileWriter writer, Code code, List<RuleExecutableNode> rules, int index) {
+
+        String type = fieldType(rules.get(index));
+
+        code.op(GETSTATIC, writer.fieldRef(CLASS_NAME, "r" + index, "L" + type + ";"));
+        code.op(ALOAD_1);
+        if (type.equals(EXECUTABLE_NODE)) {
+            code.invokeInterface(writer.interfaceMethodRef(type, "evaluate", EVALUATE_DESCRIPTOR), 2);
+        } else {
+            code.op(INVOKEVIRTUAL, writer.methodRef(type, "evaluate", EVALUATE_DESCRIPTOR));
+        }
+    }
+
+    private static String fieldType(RuleExecutableNode node) {
+        Class<?> type = node.getClass();
+        return Modifier.isPublic(type.getModifiers())
+                ? internalName(type)
+                : EXECUTABLE_NODE;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        return "L" + internalName(type) + ";";
+    }
+}
@@ -0,0 +1,14 @@
+package com.banyan.platform.ast.bytecode;
+
+/*
+ * Thrown when a generated class would exceed a class file limit (constant
+ * pool size, method length, jump offset). BytecodeRulesetCompiler falls
+ * back to the tree form on this exception only; other generation failures
+ * are bugs and propagate.
+ */
+final class ClassFileLimitException extends IllegalStateException {
+
+    ClassFileLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,297 @@
+package com.banyan.platform.ast.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Minimal class file writer for the generated ruleset classes.
+ * Emits version 49 class files so no StackMapTable is required;
+ * only the handful of constants and opcodes BytecodeRulesetCompiler uses
+ * are supported.
+ */
+final class ClassFileWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int CLASS_FILE_VERSION = 49;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int poolCount = 1;
+
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+
+    ClassFileWriter(String internalName, String superName, String... interfaceNames) {
+        this.thisClass = classRef(internalName);
+        this.superClass = classRef(superName);
+        this.interfaces = new int[interfaceNames.length];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaces[i] = classRef(interfaceNames[i]);
+        }
+    }
+
+    int utf8(String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(1);
+            out.writeUTF(value);
+        });
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, out -> {
+            out.writeByte(7);
+            out.writeShort(name);
+        });
+    }
+
+    int string(String value) {
+        int utf = utf8(value);
+        return constant("S" + value, out -> {
+            out.writeByte(8);
+            out.writeShort(utf);
+        });
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(11, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        return constant(tag + owner + "." + name + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return constant("N" + name + descriptor, out -> {
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+    }
+
+    void field(int access, String name, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        write(() -> {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        });
+        fields.add(bytes.toByteArray());
+    }
+
+    void method(int access, String name, String descriptor, Code code) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeAttribute = utf8("Code");
+        byte[] body = code.toByteArray();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        write(() -> {
+            out.writeShort(access);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + body.length + 8 * code.handlers.size());
+            out.writeShort(code.maxStack);
+            out.writeShort(code.maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(code.handlers.size());
+            for (int[] handler : code.handlers) {
+                out.writeShort(handler[0]);
+                out.writeShort(handler[1]);
+                out.writeShort(handler[2]);
+                out.writeShort(handler[3]);
+            }
+            out.writeShort(0);
+        });
+        methods.add(bytes.toByteArray());
+    }
+
+    byte[] toByteArray(int access) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        write(() -> {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_VERSION);
+            out.writeShort(poolCount);
+            out.write(poolBytes.toByteArray());
+            out.writeShort(access);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.length);
+            for (int index : interfaces) {
+                out.writeShort(index);
+            }
+            out.writeShort(fields.size());
+            for (byte[] field : fields) {
+                out.write(field);
+            }
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0);
+        });
+        return bytes.toByteArray();
+    }
+
+    private int constant(String key, PoolEntry entry) {
+        Integer existing = constants.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        write(() -> entry.write(pool));
+        int index = poolCount++;
+        if (index > 0xFFFF) {
+            throw new ClassFileLimitException("Constant pool overflow");
+        }
+        constants.put(key, index);
+        return index;
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new IllegalStateException("Class file generation failed", e);
+        }
+    }
+
+    private interface PoolEntry {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    static final class Label {
+        private int position = -1;
+        private final List<Integer> jumpSites = new ArrayList<>();
+    }
+
+    static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Label> labels = new ArrayList<>();
+        private final List<int[]> handlers = new ArrayList<>();
+        private final List<Label[]> pendingHandlers = new ArrayList<>();
+        private final List<Integer> pendingCatchTypes = new ArrayList<>();
+        private final int maxStack;
+        private final int maxLocals;
+
+        Code(int maxStack, int maxLocals) {
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        int position() {
+            return bytes.size();
+        }
+
+        void op(int opcode) {
+            bytes.write(opcode);
+        }
+
+        void op(int opcode, int u2) {
+            bytes.write(opcode);
+            u2(u2);
+        }
+
+        void invokeInterface(int methodIndex, int argumentSlots) {
+            bytes.write(0xB9);
+            u2(methodIndex);
+            bytes.write(argumentSlots);
+            bytes.write(0);
+        }
+
+        void jump(int opcode, Label target) {
+            target.jumpSites.add(position());
+            labels.add(target);
+            bytes.write(opcode);
+            u2(0);
+        }
+
+        void mark(Label label) {
+            label.position = position();
+            if (!labels.contains(label)) {
+                labels.add(label);
+            }
+        }
+
+        void handler(Label start, Label end, Label handler, int catchType) {
+            pendingHandlers.add(new Label[]{start, end, handler});
+            pendingCatchTypes.add(catchType);
+        }
+
+        private void u2(int value) {
+            bytes.write((value >>> 8) & 0xFF);
+            bytes.write(value & 0xFF);
+        }
+
+        byte[] toByteArray() {
+            byte[] code = bytes.toByteArray();
+            if (code.length > 0xFFFF) {
+                throw new ClassFileLimitException("Method too large: " + code.length + " bytes");
+            }
+            for (Label label : labels) {
+                if (label.position < 0) {
+                    throw new IllegalStateException("Unbound label");
+                }
+                for (int site : label.jumpSites) {
+                    int offset = label.position - site;
+                    if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                        throw new ClassFileLimitException("Jump offset out of range: " + offset);
+                    }
+                    code[site + 1] = (byte) (offset >>> 8);
+                    code[site + 2] = (byte) offset;
+                }
+            }
+            handlers.clear();
+            for (int i = 0; i < pendingHandlers.size(); i++) {
+                Label[] range = pendingHandlers.get(i);
+                handlers.add(new int[]{
+                        range[0].position, range[1].position, range[2].position, pendingCatchTypes.get(i)
+                });
+            }
+            return code;
+        }
+    }
+}
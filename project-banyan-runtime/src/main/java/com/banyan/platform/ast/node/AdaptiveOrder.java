@@ -0,0 +1,111 @@
+package com.banyan.platform.ast.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Live child ordering for an adaptive logical node. About one evaluation in
+ * SAMPLE_RATE is timed child by child; every PUBLISH_EVERY samples the
+ * children are ranked by expected cost per short-circuit
+ * (mean nanos / P(decides)) and a new immutable Ordering is published
+ * through a volatile field. Evaluations never lock; only the sampled path
+ * records under this monitor. Statistics are halved at each publication so
+ * the order follows drifting traffic.
+ */
+final class AdaptiveOrder {
+
+    static final int SAMPLE_RATE = 64;
+    static final int PUBLISH_EVERY = 256;
+
+    // nodes[i] is the child at source position source[i]
+    record Ordering(ExecutableNode[] nodes, int[] source) {
+    }
+
+    private final long[] nanos;
+    private final long[] evaluations;
+    private final long[] decisions;
+    private volatile Ordering ordering;
+    private int samples;
+
+    AdaptiveOrder(ExecutableNode[] children) {
+        int[] source = new int[children.length];
+        Arrays.setAll(source, i -> i);
+        this.ordering = new Ordering(children, source);
+        this.nanos = new long[children.length];
+        this.evaluations = new long[children.length];
+        this.decisions = new long[children.length];
+    }
+
+    static boolean sample() {
+        return ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+    }
+
+    Ordering ordering() {
+        return ordering;
+    }
+
+    // The first evaluated children of used ran; the last one decided the node if decided
+    synchronized void record(Ordering used, long[] elapsed, int evaluated, boolean decided) {
+
+        for (int i = 0; i < evaluated; i++) {
+            int child = used.source()[i];
+            nanos[child] += elapsed[i];
+            evaluations[child]++;
+        }
+        if (decided) {
+            decisions[used.source()[evaluated - 1]]++;
+        }
+        if (++samples >= PUBLISH_EVERY) {
+            publish();
+            samples = 0;
+        }
+    }
+
+    private void publish() {
+
+        Ordering current = ordering;
+        List<Integer> ranked = new ArrayList<>(current.source().length);
+        for (int child : current.source()) {
+            ranked.add(child);
+        }
+        // stable: ties and children never reached keep their current place
+        ranked.sort(Comparator.comparingDouble(this::score));
+
+        int[] source = new int[ranked.size()];
+        ExecutableNode[] nodes = new ExecutableNode[ranked.size()];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = ranked.get(i);
+            nodes[i] = current.nodes()[indexOf(current.source(), source[i])];
+        }
+        if (!Arrays.equals(source, current.source())) {
+            ordering = new Ordering(nodes, source);
+        }
+
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] >>= 1;
+            evaluations[i] >>= 1;
+            decisions[i] >>= 1;
+        }
+    }
+
+    private double score(int child) {
+        if (evaluations[child] == 0) {
+            return Double.MAX_VALUE;
+        }
+        double cost = (double) nanos[child] / evaluations[child];
+        double decides = (decisions[child] + 1.0) / (evaluations[child] + 2.0);
+        return cost / decides;
+    }
+
+    private static int indexOf(int[] source, int child) {
+        for (int i = 0; i < source.length; i++) {
+            if (source[i] == child) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown child " + child);
+    }
+}
@@ -1,7 +1,7 @@
 package com.banyan.platform.ast.node;
 
 import com.banyan.platform.runtime.EvidenceContext;
-import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import com.banyan.platform.runtime.UnknownFields;
 
 import java.util.List;
 
@@ -12,22 +12,44 @@ public final class AndLogicalNode
         super(children);
     }
 
+    public AndLogicalNode(List<ExecutableNode> children, boolean adaptive) {
+        super(children, adaptive);
+    }
+
+    // A child with missing evidence makes the AND false, as before
     @Override
     public boolean evaluate(EvidenceContext context) {
 
-        for (ExecutableNode child : children)
+        if (sampling()) {
+            return sampled(context, null, TriState.FALSE, true) == TriState.TRUE;
+        }
+        for (ExecutableNode child : current())
         {
-            try {
-                if (!child.evaluate(context)) {
-                    return false; // short-circuit
-                }
-            }
-            catch(MissingEvidenceException e)
-            {
-                return false;
+            if (child.evaluate(context, null) != TriState.TRUE) {
+                return false; // short-circuit
             }
         }
         return true;
     }
+
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+
+        if (sampling()) {
+            return sampled(context, unknown, TriState.FALSE, false);
+        }
+        TriState result = TriState.TRUE;
+        for (ExecutableNode child : current())
+        {
+            TriState value = child.evaluate(context, unknown);
+            if (value == TriState.FALSE) {
+                return TriState.FALSE; // short-circuit
+            }
+            if (value == TriState.UNKNOWN) {
+                result = TriState.UNKNOWN;
+            }
+        }
+        return result;
+    }
 }
 
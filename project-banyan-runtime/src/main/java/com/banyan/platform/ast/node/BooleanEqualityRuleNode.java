@@ -0,0 +1,55 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+public final class BooleanEqualityRuleNode extends RuleExecutableNode {
+
+    private final boolean expected;
+    private final boolean negated;
+
+    public BooleanEqualityRuleNode(CompiledRule rule, EvidenceLayout layout, int traceId, boolean expected, boolean negated) {
+        super(rule, layout, traceId);
+        this.expected = expected;
+        this.negated = negated;
+    }
+
+    public boolean expected() {
+        return expected;
+    }
+
+    public boolean negated() {
+        return negated;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        EvidenceSlots slots = boundSlots(context);
+        if (slots != null) {
+            requirePresent(slots);
+            return trace(matches(slots));
+        }
+        return trace(matches(require(context)));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        boolean equal;
+        if (actual instanceof Boolean value) {
+            equal = value == expected;
+        } else {
+            equal = Boolean.toString(expected).equals(actual.toString());
+        }
+        return equal != negated;
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        if (slots.kind(slot) == EvidenceSlots.BOOLEAN) {
+            return (slots.booleanValue(slot) == expected) != negated;
+        }
+        return matches(slots.value(slot));
+    }
+}
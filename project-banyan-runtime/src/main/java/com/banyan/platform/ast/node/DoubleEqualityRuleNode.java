@@ -0,0 +1,60 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+public final class DoubleEqualityRuleNode extends RuleExecutableNode {
+
+    private final double expected;
+    private final String literal;
+    private final boolean negated;
+
+    public DoubleEqualityRuleNode(CompiledRule rule, EvidenceLayout layout, int traceId, double expected, String literal, boolean negated) {
+        super(rule, layout, traceId);
+        this.expected = expected;
+        this.literal = literal;
+        this.negated = negated;
+    }
+
+    public double expected() {
+        return expected;
+    }
+
+    public boolean negated() {
+        return negated;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        EvidenceSlots slots = boundSlots(context);
+        if (slots != null) {
+            requirePresent(slots);
+            return trace(matches(slots));
+        }
+        return trace(matches(require(context)));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        boolean equal;
+        if (actual instanceof Number number) {
+            equal = number.doubleValue() == expected;
+        } else {
+            equal = literal.equals(actual.toString());
+        }
+        return equal != negated;
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        switch (slots.kind(slot)) {
+            case EvidenceSlots.LONG:
+            case EvidenceSlots.DOUBLE:
+                return (slots.doubleValue(slot) == expected) != negated;
+            default:
+                return matches(slots.value(slot));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+public final class DoubleGreaterOrEqualRuleNode extends RuleExecutableNode {
+
+    private final double threshold;
+
+    public DoubleGreaterOrEqualRuleNode(CompiledRule rule, EvidenceLayout layout, int traceId, double threshold) {
+        super(rule, layout, traceId);
+        this.threshold = threshold;
+    }
+
+    public double threshold() {
+        return threshold;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        EvidenceSlots slots = boundSlots(context);
+        if (slots != null) {
+            requirePresent(slots);
+            return trace(matches(slots));
+        }
+        return trace(matches(require(context)));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        return ((Number) actual).doubleValue() >= threshold;
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        return slots.doubleValue(slot) >= threshold;
+    }
+}
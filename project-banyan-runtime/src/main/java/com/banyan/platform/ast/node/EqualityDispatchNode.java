@@ -0,0 +1,95 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The OR of several string ==/!= rules on one input, built by AstBuilder in
+ * place of those children of an OrLogicalNode. Matching rules are counted
+ * from one hash lookup of the evidence value: the == rules expecting it,
+ * and every != rule except those expecting it. The node is true when any
+ * member would be, and missing evidence is reported once for the input, as
+ * each member would report it.
+ */
+public final class EqualityDispatchNode extends RuleExecutableNode {
+
+    private static final int EQUAL = 0;
+    private static final int NOT_EQUAL = 1;
+
+    private final StringEqualityRuleNode[] members;
+    // expected value -> {== rules, != rules} expecting it
+    private final Map<String, int[]> counts;
+    private final int notEqual;
+
+    public EqualityDispatchNode(List<StringEqualityRuleNode> members) {
+        super(members.get(0).rule(), members.get(0).layout, EvaluationTrace.UNTRACED);
+        this.members = members.toArray(new StringEqualityRuleNode[0]);
+        this.counts = new HashMap<>();
+
+        int notEqual = 0;
+        for (StringEqualityRuleNode member : this.members) {
+            if (!member.input().equals(input) || member.slot() != slot) {
+                throw new IllegalArgumentException(
+                        "Equality group mixes inputs: " + input + ", " + member.input()
+                );
+            }
+            counts.computeIfAbsent(member.expected(), k -> new int[2])
+                    [member.negated() ? NOT_EQUAL : EQUAL]++;
+            if (member.negated()) {
+                notEqual++;
+            }
+        }
+        this.notEqual = notEqual;
+    }
+
+    public List<StringEqualityRuleNode> members() {
+        return List.of(members);
+    }
+
+    // Number of members that hold for the value
+    public int matching(Object actual) {
+        int[] hits = counts.get(key(actual));
+        return hits == null ? notEqual : hits[EQUAL] + notEqual - hits[NOT_EQUAL];
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        EvidenceSlots slots = boundSlots(context);
+        if (slots != null) {
+            requirePresent(slots);
+            return matches(slots);
+        }
+        return matches(require(context));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        if (EvaluationTrace.enabled) {
+            traceMembers(actual);
+        }
+        return matching(actual) > 0;
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        return matches(slots.kind(slot) == EvidenceSlots.REFERENCE
+                ? slots.reference(slot)
+                : slots.value(slot));
+    }
+
+    // Members keep their own trace entries
+    private void traceMembers(Object actual) {
+        for (StringEqualityRuleNode member : members) {
+            EvaluationTrace.record(member.traceId(), TriState.of(member.matches(actual)));
+        }
+    }
+
+    // Same comparison key as StringEqualityRuleNode
+    private static String key(Object actual) {
+        return actual instanceof String value ? value : actual.toString();
+    }
+}
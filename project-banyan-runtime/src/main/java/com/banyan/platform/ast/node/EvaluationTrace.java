@@ -0,0 +1,125 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Opt-in trace of rule outcomes. Rule nodes carry a compact trace id (one
+ * per Rule/<version>/<id>, assigned by AstBuilder) and, while tracing is
+ * enabled, write (id << 2 | outcome) into a preallocated ring buffer owned
+ * by the evaluating thread. Disabled, the cost is one read of a static
+ * field per rule. Rules that do not appear after a mark were
+ * short-circuited (or served from a SharedNode memo).
+ *
+ * Usage: long mark = EvaluationTrace.position(); evaluate;
+ * EvaluationTrace.since(mark). Only the last CAPACITY entries of a thread
+ * are kept. Work handed to other threads records into their rings; the
+ * parallel CompiledChallenge.evaluate appends each task's entries to the
+ * caller's ring in task order, so the caller's mark covers them too.
+ *
+ * The registry holds one id per distinct rule reference and is never
+ * pruned, so its size is bounded by the rules of the DARs ever loaded.
+ */
+public final class EvaluationTrace {
+
+    public static final int UNTRACED = -1;
+    public static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    static volatile boolean enabled;
+
+    private static final Map<RuleRefNode, Integer> IDS = new ConcurrentHashMap<>();
+    private static final Map<Integer, RuleRefNode> REFS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ThreadLocal<Ring> RINGS = ThreadLocal.withInitial(Ring::new);
+
+    public record Entry(String ruleId, int version, TriState outcome) {
+    }
+
+    private static final class Ring {
+        private final int[] entries = new int[CAPACITY];
+        private long position;
+    }
+
+    private EvaluationTrace() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // Stable id of a rule reference; ids are never reused
+    public static int register(RuleRefNode ref) {
+        Integer id = IDS.get(ref);
+        if (id != null) {
+            return id;
+        }
+        return IDS.computeIfAbsent(ref, r -> {
+            int next = NEXT_ID.getAndIncrement();
+            REFS.put(next, r);
+            return next;
+        });
+    }
+
+    public static RuleRefNode ruleRef(int traceId) {
+        return REFS.get(traceId);
+    }
+
+    static void record(int traceId, TriState outcome) {
+        if (traceId != UNTRACED) {
+            Ring ring = RINGS.get();
+            ring.entries[(int) (ring.position++ & MASK)] = traceId << 2 | outcome.ordinal();
+        }
+    }
+
+    // Copies raw entries of another thread into this thread's ring
+    public static void append(int[] raw) {
+        Ring ring = RINGS.get();
+        for (int entry : raw) {
+            ring.entries[(int) (ring.position++ & MASK)] = entry;
+        }
+    }
+
+    // Number of entries this thread has recorded so far
+    public static long position() {
+        return RINGS.get().position;
+    }
+
+    // Raw entries recorded by this thread after mark, oldest first
+    public static int[] rawSince(long mark) {
+        Ring ring = RINGS.get();
+        long from = Math.max(mark, ring.position - CAPACITY);
+        int[] raw = new int[(int) Math.max(0, ring.position - from)];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = ring.entries[(int) ((from + i) & MASK)];
+        }
+        return raw;
+    }
+
+    public static List<Entry> since(long mark) {
+        int[] raw = rawSince(mark);
+        List<Entry> entries = new ArrayList<>(raw.length);
+        for (int entry : raw) {
+            entries.add(decode(entry));
+        }
+        return entries;
+    }
+
+    public static Entry decode(int entry) {
+        RuleRefNode ref = ruleRef(entry >>> 2);
+        return new Entry(ref.ruleId(), ref.version(), TriState.values()[entry & 3]);
+    }
+}
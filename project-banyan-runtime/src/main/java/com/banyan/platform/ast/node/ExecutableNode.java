@@ -1,7 +1,26 @@
 package com.banyan.platform.ast.node;
 
 import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.UnknownFields;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
 
 public interface ExecutableNode {
     boolean evaluate(EvidenceContext context);
+
+    /*
+     * Tri-state evaluation: missing evidence yields UNKNOWN instead of an
+     * exception and its field is added to unknown (which may be null).
+     * Rule and logical nodes override this without throwing; the default
+     * only serves nodes that have no exception-free path.
+     */
+    default TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+        try {
+            return TriState.of(evaluate(context));
+        } catch (MissingEvidenceException e) {
+            if (unknown != null) {
+                unknown.add(e.field());
+            }
+            return TriState.UNKNOWN;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceSlots;
+import com.banyan.platform.runtime.ThresholdIndex;
+import com.banyan.platform.runtime.UnknownFields;
+
+/*
+ * A THRESHOLD rule answered from the ThresholdIndex: both evaluates read
+ * the rule's bit from the outcomes computed once per EvidenceContext, or
+ * ask the direct node when the index deferred a non-numeric value. The
+ * per-value matches of the direct node remain for callers that compare
+ * single values (batch and incremental evaluation).
+ */
+public final class IndexedThresholdRuleNode extends RuleExecutableNode {
+
+    private final RuleExecutableNode direct;
+    private final ThresholdIndex index;
+    private final int bit;
+
+    public IndexedThresholdRuleNode(RuleExecutableNode direct, ThresholdIndex index, int bit) {
+        super(direct.rule(), direct.layout, direct.traceId());
+        this.direct = direct;
+        this.index = index;
+        this.bit = bit;
+    }
+
+    public RuleExecutableNode direct() {
+        return direct;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        ThresholdIndex.Outcomes outcomes = index.outcomes(context);
+        if (!outcomes.isPresent(bit)) {
+            if (outcomes.isDeferred(bit)) {
+                return direct.evaluate(context);
+            }
+            throw missing();
+        }
+        return trace(outcomes.isTrue(bit));
+    }
+
+    // What AND/OR call; missing evidence is UNKNOWN, as in the direct node
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+        ThresholdIndex.Outcomes outcomes = index.outcomes(context);
+        if (outcomes.isPresent(bit)) {
+            return trace(TriState.of(outcomes.isTrue(bit)));
+        }
+        if (outcomes.isDeferred(bit)) {
+            return direct.evaluate(context, unknown);
+        }
+        return trace(unknown(unknown));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        return direct.matches(actual);
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        return direct.matches(slots);
+    }
+}
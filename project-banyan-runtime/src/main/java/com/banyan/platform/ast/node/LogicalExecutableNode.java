@@ -1,11 +1,80 @@
 package com.banyan.platform.ast.node;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.UnknownFields;
+
 import java.util.List;
 public abstract class LogicalExecutableNode
         implements ExecutableNode {
 
-    protected final List<ExecutableNode> children;
+    protected final ExecutableNode[] children;
+    private final AdaptiveOrder adaptive;
 
     protected LogicalExecutableNode(List<ExecutableNode> children) {
-        this.children = children;
+        this(children, false);
+    }
+
+    // Adaptive nodes reorder their children from sampled cost and short-circuit rates
+    protected LogicalExecutableNode(List<ExecutableNode> children, boolean adaptive) {
+        this.children = children.toArray(new ExecutableNode[0]);
+        this.adaptive = adaptive && this.children.length > 1 ? new AdaptiveOrder(this.children) : null;
+    }
+
+    // Source order
+    public List<ExecutableNode> children() {
+        return List.of(children);
+    }
+
+    // Order evaluation currently uses
+    public List<ExecutableNode> order() {
+        return List.of(current());
+    }
+
+    public boolean isAdaptive() {
+        return adaptive != null;
+    }
+
+    protected final ExecutableNode[] current() {
+        return adaptive == null ? children : adaptive.ordering().nodes();
+    }
+
+    protected final boolean sampling() {
+        return adaptive != null && AdaptiveOrder.sample();
+    }
+
+    /*
+     * Evaluation with per-child timing, used for sampled calls. decisive is
+     * the value that short-circuits the node (FALSE for AND, TRUE for OR);
+     * stopOnUnknown also stops at UNKNOWN, as the boolean AND does.
+     */
+    protected final TriState sampled(
+            EvidenceContext context,
+            UnknownFields unknown,
+            TriState decisive,
+            boolean stopOnUnknown
+    ) {
+
+        AdaptiveOrder.Ordering ordering = adaptive.ordering();
+        ExecutableNode[] nodes = ordering.nodes();
+        long[] elapsed = new long[nodes.length];
+        TriState result = decisive.not();
+        int evaluated = 0;
+        boolean decided = false;
+
+        for (ExecutableNode child : nodes) {
+            long start = System.nanoTime();
+            TriState value = child.evaluate(context, unknown);
+            elapsed[evaluated++] = System.nanoTime() - start;
+
+            if (value == decisive || (value == TriState.UNKNOWN && stopOnUnknown)) {
+                result = value;
+                decided = true;
+                break;
+            }
+            if (value == TriState.UNKNOWN) {
+                result = TriState.UNKNOWN;
+            }
+        }
+        adaptive.record(ordering, elapsed, evaluated, decided);
+        return result;
     }
 }
@@ -0,0 +1,63 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+public final class LongEqualityRuleNode extends RuleExecutableNode {
+
+    private final long expected;
+    private final String literal;
+    private final boolean negated;
+
+    public LongEqualityRuleNode(CompiledRule rule, EvidenceLayout layout, int traceId, long expected, boolean negated) {
+        super(rule, layout, traceId);
+        this.expected = expected;
+        this.literal = Long.toString(expected);
+        this.negated = negated;
+    }
+
+    public long expected() {
+        return expected;
+    }
+
+    public boolean negated() {
+        return negated;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        EvidenceSlots slots = boundSlots(context);
+        if (slots != null) {
+            requirePresent(slots);
+            return trace(matches(slots));
+        }
+        return trace(matches(require(context)));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        boolean equal;
+        if (isIntegral(actual)) {
+            equal = ((Number) actual).longValue() == expected;
+        } else if (actual instanceof Number number) {
+            equal = number.doubleValue() == (double) expected;
+        } else {
+            equal = literal.equals(actual.toString());
+        }
+        return equal != negated;
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        switch (slots.kind(slot)) {
+            case EvidenceSlots.LONG:
+                return (slots.longValue(slot) == expected) != negated;
+            case EvidenceSlots.DOUBLE:
+                return (slots.doubleValue(slot) == (double) expected) != negated;
+            default:
+                return matches(slots.value(slot));
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.banyan.platform.ast.node;
 
 import com.banyan.platform.runtime.EvidenceContext;
-import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import com.banyan.platform.runtime.UnknownFields;
 
 import java.util.List;
 
@@ -12,22 +12,44 @@ public final class OrLogicalNode
         super(children);
     }
 
+    public OrLogicalNode(List<ExecutableNode> children, boolean adaptive) {
+        super(children, adaptive);
+    }
+
+    // A child with missing evidence is skipped, as before
     @Override
     public boolean evaluate(EvidenceContext context) {
 
-        for (ExecutableNode child : children)
+        if (sampling()) {
+            return sampled(context, null, TriState.TRUE, false) == TriState.TRUE;
+        }
+        for (ExecutableNode child : current())
         {
-            try {
-                if (child.evaluate(context)) {
-                    return true; // short-circuit
-                }
-            }
-            catch(MissingEvidenceException e)
-            {
-                ;
+            if (child.evaluate(context, null) == TriState.TRUE) {
+                return true; // short-circuit
             }
         }
         return false;
     }
+
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+
+        if (sampling()) {
+            return sampled(context, unknown, TriState.TRUE, false);
+        }
+        TriState result = TriState.FALSE;
+        for (ExecutableNode child : current())
+        {
+            TriState value = child.evaluate(context, unknown);
+            if (value == TriState.TRUE) {
+                return TriState.TRUE; // short-circuit
+            }
+            if (value == TriState.UNKNOWN) {
+                result = TriState.UNKNOWN;
+            }
+        }
+        return result;
+    }
 }
 
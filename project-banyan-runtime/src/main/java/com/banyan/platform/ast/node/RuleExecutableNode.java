@@ -2,64 +2,144 @@ package com.banyan.platform.ast.node;
 
 import com.banyan.compiler.backend.rule.CompiledRule;
 import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+import com.banyan.platform.runtime.UnknownFields;
 import com.banyan.platform.runtime.exception.MissingEvidenceException;
 
-public final class RuleExecutableNode implements ExecutableNode {
+/*
+ * Base of the operator/type specialized rule nodes produced by AstBuilder.
+ * Every concrete node is final and implements evaluate itself so that each
+ * call site stays monomorphic; the expected value is parsed once at build time.
+ * The tri-state evaluate is shared; only IndexedThresholdRuleNode, which
+ * answers from precomputed outcomes, overrides it. It treats a value of the
+ * wrong type like a missing one, so AND/OR give the same answer whichever
+ * child they happen to evaluate first.
+ */
+public abstract class RuleExecutableNode implements ExecutableNode {
+
+    protected final CompiledRule rule;
+    protected final String input;
+    protected final EvidenceLayout layout;
+    protected final int slot;
+    protected final int traceId;
+
+    protected RuleExecutableNode(CompiledRule rule, EvidenceLayout layout, int traceId) {
+        this.rule = rule;
+        this.traceId = traceId;
+        this.input = rule.input();
+        this.slot = layout == null ? EvidenceLayout.UNBOUND : layout.slot(input);
+        this.layout = slot == EvidenceLayout.UNBOUND ? null : layout;
+    }
 
-    private final CompiledRule rule;
+    public CompiledRule rule() {
+        return rule;
+    }
 
-    public RuleExecutableNode(CompiledRule rule) {
-        this.rule = rule;
+    public String input() {
+        return input;
     }
 
-    @Override
-    public boolean evaluate(EvidenceContext context) {
+    public int slot() {
+        return slot;
+    }
+
+    public int traceId() {
+        return traceId;
+    }
 
-        Object actual = context.get(rule.input());
+    public abstract boolean matches(Object actual);
 
+    // Called with the slot known to be present
+    protected abstract boolean matches(EvidenceSlots slots);
+
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+
+        EvidenceSlots slots = boundSlots(context);
+        TriState state;
+        if (slots != null) {
+            state = slots.isPresent(slot) ? state(slots) : TriState.UNKNOWN;
+        } else {
+            state = state(context.get(input));
+        }
+        return trace(state == TriState.UNKNOWN ? unknown(unknown) : state);
+    }
+
+    // UNKNOWN when the value is absent or of a type this rule cannot compare
+    public final TriState state(Object actual) {
         if (actual == null) {
-            throw new MissingEvidenceException(
-                    "Missing evidence: " + rule.input()
-            );
+            return TriState.UNKNOWN;
+        }
+        try {
+            return TriState.of(matches(actual));
+        } catch (ClassCastException mistyped) {
+            return TriState.UNKNOWN;
         }
+    }
 
-        return applyOperator(actual, rule.operator(), rule.value());
+    private TriState state(EvidenceSlots slots) {
+        try {
+            return TriState.of(matches(slots));
+        } catch (ClassCastException mistyped) {
+            return TriState.UNKNOWN;
+        }
     }
 
-    private boolean applyOperator(
-            Object actual,
-            String operator,
-            Object expected
-    ) {
+    protected final TriState unknown(UnknownFields unknown) {
+        if (unknown != null) {
+            unknown.add(input);
+        }
+        return TriState.UNKNOWN;
+    }
 
-        switch (operator) {
+    protected final TriState trace(TriState state) {
+        if (EvaluationTrace.enabled) {
+            EvaluationTrace.record(traceId, state);
+        }
+        return state;
+    }
 
-            case ">":
-                return ((Number) actual).doubleValue() >
-                        (Double.valueOf((String) expected)).doubleValue();
+    protected final boolean trace(boolean outcome) {
+        if (EvaluationTrace.enabled) {
+            EvaluationTrace.record(traceId, TriState.of(outcome));
+        }
+        return outcome;
+    }
 
-            case "<":
-                return ((Number) actual).doubleValue() <
-                        (Double.valueOf((String) expected)).doubleValue();
+    protected final MissingEvidenceException missing() {
+        if (EvaluationTrace.enabled) {
+            EvaluationTrace.record(traceId, TriState.UNKNOWN);
+        }
+        return new MissingEvidenceException(input);
+    }
 
-            case ">=":
-                return ((Number) actual).doubleValue() >=
-                        (Double.valueOf((String) expected)).doubleValue();
+    protected final Object require(EvidenceContext context) {
 
-            case "<=":
-                return ((Number) actual).doubleValue() <=
-                        (Double.valueOf((String) expected)).doubleValue();
+        Object actual = context.get(input);
 
-            case "==":
-                return actual.equals(expected);
+        if (actual == null) {
+            throw missing();
+        }
+        return actual;
+    }
 
-            case "!=":
-                return !actual.equals(expected);
+    // Non-null only when the evidence uses the layout this node was bound to
+    protected final EvidenceSlots boundSlots(EvidenceContext context) {
+        EvidenceSlots slots = context.slots();
+        return slots != null && slots.layout() == layout ? slots : null;
+    }
 
-            default:
-                throw new IllegalStateException(
-                        "Unsupported operator: " + operator
-                );
+    protected final void requirePresent(EvidenceSlots slots) {
+        if (!slots.isPresent(slot)) {
+            throw missing();
         }
     }
+
+    protected static boolean isIntegral(Object actual) {
+        return actual instanceof Integer
+                || actual instanceof Long
+                || actual instanceof Short
+                || actual instanceof Byte;
+    }
 }
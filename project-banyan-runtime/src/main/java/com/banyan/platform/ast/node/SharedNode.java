@@ -0,0 +1,57 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.platform.runtime.EvaluationMemo;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.UnknownFields;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+
+/*
+ * A rule or sub-expression referenced from more than one place in a DAR.
+ * AstBuilder hands out one instance per distinct expression; its result is
+ * memoized on the EvidenceContext so it runs at most once per evidence.
+ */
+public final class SharedNode implements ExecutableNode {
+
+    private final ExecutableNode delegate;
+    private final Object scope;
+    private final int size;
+    private final int id;
+
+    public SharedNode(ExecutableNode delegate, Object scope, int size, int id) {
+        this.delegate = delegate;
+        this.scope = scope;
+        this.size = size;
+        this.id = id;
+    }
+
+    public ExecutableNode delegate() {
+        return delegate;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        TriState state = evaluate(context, null);
+        if (state == TriState.UNKNOWN && delegate instanceof RuleExecutableNode rule) {
+            throw new MissingEvidenceException(rule.input()); // as a bare rule does
+        }
+        return state == TriState.TRUE;
+    }
+
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+
+        EvaluationMemo memo = context.memo(scope, size);
+        TriState state = memo.get(id);
+        if (state == null) {
+            state = delegate.evaluate(context, unknown);
+            memo.put(id, state);
+        } else if (state == TriState.UNKNOWN && unknown != null) {
+            delegate.evaluate(context, unknown); // collect the missing fields
+        }
+        return state;
+    }
+}
@@ -0,0 +1,51 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+public final class StringEqualityRuleNode extends RuleExecutableNode {
+
+    private final String expected;
+    private final boolean negated;
+
+    public StringEqualityRuleNode(CompiledRule rule, EvidenceLayout layout, int traceId, String expected, boolean negated) {
+        super(rule, layout, traceId);
+        this.expected = expected;
+        this.negated = negated;
+    }
+
+    public String expected() {
+        return expected;
+    }
+
+    public boolean negated() {
+        return negated;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+        EvidenceSlots slots = boundSlots(context);
+        if (slots != null) {
+            requirePresent(slots);
+            return trace(matches(slots));
+        }
+        return trace(matches(require(context)));
+    }
+
+    @Override
+    public boolean matches(Object actual) {
+        boolean equal = actual instanceof String value
+                ? expected.equals(value)
+                : expected.equals(actual.toString());
+        return equal != negated;
+    }
+
+    @Override
+    protected boolean matches(EvidenceSlots slots) {
+        return matches(slots.kind(slot) == EvidenceSlots.REFERENCE
+                ? slots.reference(slot)
+                : slots.value(slot));
+    }
+}
@@ -0,0 +1,38 @@
+package com.banyan.platform.ast.node;
+
+/*
+ * Kleene three-valued result: UNKNOWN is a rule whose evidence is missing.
+ * FALSE dominates AND, TRUE dominates OR, otherwise UNKNOWN propagates.
+ */
+public enum TriState {
+
+    TRUE,
+    FALSE,
+    UNKNOWN;
+
+    public static TriState of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public TriState and(TriState other) {
+        if (this == FALSE || other == FALSE) {
+            return FALSE;
+        }
+        return this == TRUE && other == TRUE ? TRUE : UNKNOWN;
+    }
+
+    public TriState or(TriState other) {
+        if (this == TRUE || other == TRUE) {
+            return TRUE;
+        }
+        return this == FALSE && other == FALSE ? FALSE : UNKNOWN;
+    }
+
+    public TriState not() {
+        return this == UNKNOWN ? UNKNOWN : of(this == FALSE);
+    }
+
+    public boolean isTrue() {
+        return this == TRUE;
+    }
+}
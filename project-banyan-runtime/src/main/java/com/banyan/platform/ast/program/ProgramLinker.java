@@ -0,0 +1,103 @@
+package com.banyan.platform.ast.program;
+
+import com.banyan.compiler.backend.program.ProgramRule;
+import com.banyan.compiler.backend.program.RulesetProgram;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.builder.RuleNodeFactory;
+import com.banyan.platform.ast.node.EvaluationTrace;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.banyan.compiler.backend.program.RulesetProgram.*;
+
+/*
+ * Optional alternative to AstBuilder: links the RulesetProgram the DAR
+ * carries for a ruleset into a ProgramNode, creating one rule node per
+ * entry of its rule table from the pre-typed constants instead of walking
+ * the expression. Every entry must agree with the DAR's rule of that id
+ * and every jump must point forward; otherwise, or without a program, the
+ * ruleset keeps the tree form. A bare rule keeps it too, so missing
+ * evidence throws as it does there.
+ */
+public final class ProgramLinker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgramLinker.class);
+
+    private final DarRuntimeContext context;
+    private final EvidenceLayout layout;
+
+    public ProgramLinker(DarRuntimeContext context) {
+        this(context, null);
+    }
+
+    // Rule nodes are bound to the slots of the given layout
+    public ProgramLinker(DarRuntimeContext context, EvidenceLayout layout) {
+        this.context = context;
+        this.layout = layout;
+    }
+
+    public ExecutableNode link(DarRuntimeContext.RulesetKey key) {
+
+        RulesetProgram program = context.program(key);
+        ExecutableNode node = program == null ? null : link(key, program);
+        return node != null ? node : new AstBuilder(context, layout, false, null, true).build(key);
+    }
+
+    private ProgramNode link(DarRuntimeContext.RulesetKey key, RulesetProgram program) {
+
+        int[] code = program.code();
+        if (code.length == 1 && opcode(code[0]) == RULE) {
+            return null;
+        }
+        List<ProgramRule> table = program.rules();
+        for (int pc = 0; pc < code.length; pc++) {
+            if (!valid(code[pc], pc, code.length, table.size())) {
+                LOGGER.warn("Ignoring program of {}: invalid instruction at {}", key, pc);
+                return null;
+            }
+        }
+
+        RuleExecutableNode[] rules = new RuleExecutableNode[table.size()];
+        for (int i = 0; i < rules.length; i++) {
+            ProgramRule rule = table.get(i);
+            CompiledRule source = context.rule(new DarRuntimeContext.RuleKey(rule.version(), rule.ruleId()));
+            if (!agrees(rule, source)) {
+                LOGGER.warn("Ignoring program of {}: rule {} v{} differs from the DAR",
+                        key, rule.ruleId(), rule.version());
+                return null;
+            }
+            rules[i] = RuleNodeFactory.create(
+                    new CompiledRule(rule.input(), rule.operator(), rule.value(), rule.ruleType()),
+                    layout,
+                    EvaluationTrace.register(new RuleRefNode(rule.ruleId(), rule.version())));
+        }
+        return new ProgramNode(key, rules, code);
+    }
+
+    // Forward jumps only, so every run ends
+    private static boolean valid(int instruction, int pc, int length, int rules) {
+        int argument = argument(instruction);
+        return switch (opcode(instruction)) {
+            case RULE -> argument < rules;
+            case CONST -> argument <= 1;
+            default -> argument > pc && argument <= length;
+        };
+    }
+
+    // The DAR's rule values are text, the program's typed
+    private static boolean agrees(ProgramRule rule, CompiledRule source) {
+        return Objects.equals(rule.input(), source.input())
+                && Objects.equals(rule.operator(), source.operator())
+                && Objects.equals(rule.ruleType(), source.ruleType())
+                && String.valueOf(rule.value()).equals(String.valueOf(source.value()));
+    }
+}
@@ -0,0 +1,109 @@
+package com.banyan.platform.ast.program;
+
+import com.banyan.compiler.backend.program.RulesetProgram;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.TriState;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.UnknownFields;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+
+import static com.banyan.compiler.backend.program.RulesetProgram.*;
+
+/*
+ * A ruleset linked by ProgramLinker: the RulesetProgram's code run over an
+ * array of rule nodes. Missing evidence leaves the register false, which is
+ * what the AND/OR tree decides: AND fails on it and OR moves on.
+ */
+public final class ProgramNode implements ExecutableNode {
+
+    private final DarRuntimeContext.RulesetKey key;
+    private final RuleExecutableNode[] rules;
+    private final int[] code;
+
+    ProgramNode(DarRuntimeContext.RulesetKey key, RuleExecutableNode[] rules, int[] code) {
+        this.key = key;
+        this.rules = rules;
+        this.code = code;
+    }
+
+    public DarRuntimeContext.RulesetKey key() {
+        return key;
+    }
+
+    public int instructions() {
+        return code.length;
+    }
+
+    @Override
+    public boolean evaluate(EvidenceContext context) {
+
+        boolean register = false;
+        int pc = 0;
+        while (pc < code.length) {
+            int instruction = code[pc];
+            switch (opcode(instruction)) {
+                case RULE -> {
+                    register = rules[argument(instruction)].evaluate(context, null) == TriState.TRUE;
+                    pc++;
+                }
+                case CONST -> {
+                    register = argument(instruction) != 0;
+                    pc++;
+                }
+                case JUMP_IF_FALSE -> pc = register ? pc + 1 : argument(instruction);
+                default -> pc = register ? argument(instruction) : pc + 1;
+            }
+        }
+        return register;
+    }
+
+    /*
+     * TRUE when the program accepts with every unknown rule false, FALSE when
+     * it rejects with every unknown rule true, UNKNOWN otherwise; the
+     * expression is monotone, so this is its Kleene value. Rules are
+     * evaluated once across both runs, as in DecisionDiagram.
+     */
+    @Override
+    public TriState evaluate(EvidenceContext context, UnknownFields unknown) {
+
+        TriState[] states = new TriState[rules.length];
+        if (run(context, unknown, states, false)) {
+            return TriState.TRUE;
+        }
+        return run(context, unknown, states, true) ? TriState.UNKNOWN : TriState.FALSE;
+    }
+
+    private boolean run(
+            EvidenceContext context,
+            UnknownFields unknown,
+            TriState[] states,
+            boolean unknownHolds
+    ) {
+
+        boolean register = false;
+        int pc = 0;
+        while (pc < code.length) {
+            int instruction = code[pc];
+            switch (opcode(instruction)) {
+                case RULE -> {
+                    int rule = argument(instruction);
+                    TriState state = states[rule];
+                    if (state == null) {
+                        state = rules[rule].evaluate(context, unknown);
+                        states[rule] = state;
+                    }
+                    register = state == TriState.UNKNOWN ? unknownHolds : state == TriState.TRUE;
+                    pc++;
+                }
+                case CONST -> {
+                    register = argument(instruction) != 0;
+                    pc++;
+                }
+                case JUMP_IF_FALSE -> pc = register ? pc + 1 : argument(instruction);
+                default -> pc = register ? argument(instruction) : pc + 1;
+            }
+        }
+        return register;
+    }
+}
@@ -1,29 +1,112 @@
 package com.banyan.platform.challenge;
 
+import com.banyan.platform.ast.node.EvaluationTrace;
 import com.banyan.platform.runtime.EvidenceContext;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public final class CompiledChallenge {
     private final String challengeId;
-    private final TaskNode task;
+    private final TaskNode[] tasks;
     private final int version;
 
-    public CompiledChallenge(String challengeId,int version, TaskNode task){
+    private record Outcome(boolean result, int[] trace) {
+    }
+
+    // Results are keyed by task id, so a task may appear once, as the compiler's CH-201 requires
+    public CompiledChallenge(String challengeId,int version, List<TaskNode> tasks){
+        Set<String> taskIds = new HashSet<>();
+        for (TaskNode task : tasks) {
+            if (!taskIds.add(task.getTaskId())) {
+                throw new IllegalArgumentException(
+                        "Challenge " + challengeId + " v" + version + " lists task " + task.getTaskId() + " twice");
+            }
+        }
         this.challengeId = challengeId;
         this.version = version;
-        this.task = task;
+        this.tasks = tasks.toArray(new TaskNode[0]);
     }
 
     public String getChallengeId() { return this.challengeId;}
 
     public int getVersion() { return this.version;}
 
+    public List<TaskNode> getTasks() { return List.of(this.tasks);}
+
+    public int getTaskCount() { return this.tasks.length;}
+
+    // Task results in challenge order
     public Map<String, Boolean> evaluate(EvidenceContext context) {
-        Map<String, Boolean> results = new HashMap<>();
-        results.put(task.getTaskId(), task.evaluate(context));
+        Map<String, Boolean> results = LinkedHashMap.newLinkedHashMap(tasks.length);
+        for (TaskNode task : tasks) {
+            results.put(task.getTaskId(), task.evaluate(context));
+        }
         return results;
     }
 
+    /*
+     * Runs every task on the executor and joins the results in challenge
+     * order, so the map and the exception thrown (that of the first failing
+     * task in order) are the same as for the sequential evaluate. Each task
+     * evaluates its own fork of the context, as a context is not safe for
+     * concurrent use; tasks therefore do not share memoized nodes. While
+     * tracing, each task's entries are appended to the caller's trace as
+     * its result is joined.
+     */
+    public Map<String, Boolean> evaluate(EvidenceContext context, ExecutorService executor) {
+        boolean traced = EvaluationTrace.isEnabled();
+        List<Future<Outcome>> futures = new ArrayList<>(tasks.length);
+        try {
+            for (TaskNode task : tasks) {
+                EvidenceContext fork = context.fork();
+                futures.add(executor.submit(() -> evaluate(task, fork, traced)));
+            }
+            Map<String, Boolean> results = LinkedHashMap.newLinkedHashMap(tasks.length);
+            for (int i = 0; i < tasks.length; i++) {
+                Outcome outcome = join(futures.get(i));
+                if (outcome.trace() != null) {
+                    EvaluationTrace.append(outcome.trace());
+                }
+                results.put(tasks[i].getTaskId(), outcome.result());
+            }
+            return results;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static Outcome evaluate(TaskNode task, EvidenceContext context, boolean traced) {
+        if (!traced) {
+            return new Outcome(task.evaluate(context), null);
+        }
+        long mark = EvaluationTrace.position();
+        boolean result = task.evaluate(context);
+        return new Outcome(result, EvaluationTrace.rawSince(mark));
+    }
+
+    private Outcome join(Future<Outcome> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating challenge " + challengeId, e);
+        }
+    }
+
 }
@@ -1,20 +1,31 @@
 package com.banyan.platform.challenge;
 
-import com.banyan.platform.ast.node.RuleNode;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.platform.ast.node.ExecutableNode;
 import com.banyan.platform.runtime.EvidenceContext;
 
 public final class TaskNode {
     private final String taskId;
-    private final RuleNode rule;
+    private final int version;
+    private final CompiledTask task;
+    private final ExecutableNode ruleset;
 
-    public  TaskNode(String taskId, RuleNode rule){
-        this.rule = rule;
+    public  TaskNode(String taskId, int version, CompiledTask task, ExecutableNode ruleset){
         this.taskId = taskId;
+        this.version = version;
+        this.task = task;
+        this.ruleset = ruleset;
     }
 
     public boolean evaluate(EvidenceContext ctx) {
-        return this.rule.evaluate(ctx);
+        return this.ruleset.evaluate(ctx);
     }
 
     public String getTaskId() { return this.taskId;}
+
+    public int getVersion() { return this.version;}
+
+    public CompiledTask getTask() { return this.task;}
+
+    public ExecutableNode getRuleset() { return this.ruleset;}
 }
@@ -0,0 +1,13 @@
+package com.banyan.platform.cli;
+
+import io.quarkus.picocli.runtime.annotations.TopCommand;
+import picocli.CommandLine;
+
+@TopCommand
+@CommandLine.Command(
+        name = "banyan",
+        mixinStandardHelpOptions = true,
+        subcommands = {EvalCommand.class}
+)
+public class BanyanCommand {
+}
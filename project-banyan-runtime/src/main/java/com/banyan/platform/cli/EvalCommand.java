@@ -0,0 +1,93 @@
+package com.banyan.platform.cli;
+
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.ChallengeAstRegistry;
+import com.banyan.platform.runtime.bulk.BulkEvaluator;
+import com.banyan.platform.runtime.bulk.RecordFormat;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import picocli.CommandLine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/*
+ * banyan eval --dar app.dar --challenge login_challenge --challenge-version 1 evidence.ndjson
+ *
+ * Streams the evidence file through BulkEvaluator and writes one decision
+ * line per record, in input order, to --output or standard out. A run
+ * summary goes to standard error; the exit code is 1 when a record failed.
+ */
+@CommandLine.Command(
+        name = "eval",
+        mixinStandardHelpOptions = true,
+        description = "Evaluate a challenge for every record of an NDJSON or CSV evidence file."
+)
+public class EvalCommand implements Callable<Integer> {
+
+    private static final int BUFFER = 1 << 16;
+
+    @CommandLine.Option(names = "--dar", required = true, description = "DAR file to evaluate against.")
+    Path dar;
+
+    @CommandLine.Option(names = "--challenge", required = true, description = "Challenge id.")
+    String challengeId;
+
+    @CommandLine.Option(names = "--challenge-version", required = true, description = "Challenge version.")
+    int version;
+
+    @CommandLine.Parameters(index = "0", description = "Evidence file, one record per line; - for standard in.")
+    String input;
+
+    @CommandLine.Option(names = "--format", description = "NDJSON or CSV; by default from the file extension.")
+    RecordFormat format;
+
+    @CommandLine.Option(names = {"-o", "--output"}, description = "Decision file; standard out by default.")
+    Path output;
+
+    @CommandLine.Option(names = "--threads", description = "Worker threads; one per core by default.")
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(names = "--chunk-size", description = "Records per work unit.")
+    int chunkSize = BulkEvaluator.DEFAULT_CHUNK_SIZE;
+
+    @Override
+    public Integer call() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(1, Duration.ofDays(1));
+        DarId darId = store.register(new DarId(1, dar.getFileName().toString()),
+                ZipDarLoader.loadLazy(dar.toString()));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        CompiledChallenge challenge = registry.get(darId, challengeId, version);
+
+        boolean stdin = input.equals("-");
+        RecordFormat recordFormat = format != null ? format
+                : stdin ? RecordFormat.NDJSON : RecordFormat.of(Path.of(input));
+        BulkEvaluator evaluator = new BulkEvaluator(
+                challenge, registry.reader(darId, challengeId, version), recordFormat, threads, chunkSize);
+
+        long start = System.nanoTime();
+        BulkEvaluator.Summary summary;
+        try (BufferedReader in = stdin
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER)
+                : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+             Writer out = output != null
+                     ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                     : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER)) {
+            summary = evaluator.run(in, out);
+        }
+
+        System.err.printf("%d records, %d failed, %d ms%n",
+                summary.records(), summary.failed(), (System.nanoTime() - start) / 1_000_000);
+        return summary.failed() == 0 ? 0 : 1;
+    }
+}
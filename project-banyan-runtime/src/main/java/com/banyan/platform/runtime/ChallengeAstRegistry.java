@@ -1,15 +1,267 @@
 package com.banyan.platform.runtime;
 
+import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.platform.ast.bdd.BddRulesetCompiler;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.program.ProgramLinker;
 import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.challenge.TaskNode;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+ * Executable challenges and rulesets of the DARs in a DarRuntimeStore,
+ * built lazily on first use. The cache computes each key once even under
+ * concurrent first requests, and every entry of a DAR is dropped when the
+ * store unloads, replaces or evicts it. One hash-consing AstBuilder per DAR
+ * is shared by all its entries, so a challenge and a ruleset lookup return
+ * the same nodes. Built ASTs are immutable and used from any thread.
+ *
+ * A lookup binds only the artifacts reachable from what it builds, plus
+ * the DAR's EvidenceTypes for the layout, so a lazily loaded DAR stays
+ * mostly unbound: sharing is decided incrementally, and with thresholdIndex
+ * each lookup indexes only its own rules, in a builder of its own.
+ * Rulesets can also be looked up as decision diagrams, see BddRulesetCompiler,
+ * or as the precompiled programs the DAR carries, see ProgramLinker.
+ */
 public final class ChallengeAstRegistry {
-    private final CompiledChallenge challenge;
 
-    public ChallengeAstRegistry(CompiledChallenge challenge){
-        this.challenge = challenge;
+    // artifact is a DarRuntimeContext.ChallengeKey, RulesetKey, DiagramKey, ProgramKey or ReaderKey
+    public record Key(DarId darId, Object artifact) {
+    }
+
+    public record DiagramKey(DarRuntimeContext.RulesetKey ruleset) {
+    }
+
+    public record ProgramKey(DarRuntimeContext.RulesetKey ruleset) {
+    }
+
+    public record ReaderKey(DarRuntimeContext.ChallengeKey challenge) {
+    }
+
+    // source guards against an entry built from a context unloaded meanwhile
+    private record Built(DarRuntimeContext source, Object value) {
+    }
+
+    private final DarRuntimeStore store;
+    private final boolean thresholdIndex;
+    private final Cache<Key, Built> asts;
+    private final Map<DarId, DarAsts> dars = new ConcurrentHashMap<>();
+
+    public ChallengeAstRegistry(DarRuntimeStore store){
+        this(store, false);
+    }
+
+    // With thresholdIndex, each DAR's THRESHOLD rules are answered from one ThresholdIndex
+    public ChallengeAstRegistry(DarRuntimeStore store, boolean thresholdIndex){
+        this.store = store;
+        this.thresholdIndex = thresholdIndex;
+        this.asts = Caffeine.newBuilder()
+                .recordStats()
+                .build();
+        store.onUnload(this::invalidate);
+    }
+
+    public CompiledChallenge get(DarId darId, String challengeId, int version){
+        var key = new DarRuntimeContext.ChallengeKey(version, challengeId);
+        return (CompiledChallenge) lookup(darId, key, dar -> dar.challenge(key));
+    }
+
+    public ExecutableNode ruleset(DarId darId, String rulesetId, int version) {
+        var key = new DarRuntimeContext.RulesetKey(version, rulesetId);
+        return (ExecutableNode) lookup(darId, key, dar -> dar.ruleset(key));
+    }
+
+    // Same decisions as ruleset(), walking a BDD that evaluates each rule at most once
+    public ExecutableNode diagram(DarId darId, String rulesetId, int version) {
+        var key = new DarRuntimeContext.RulesetKey(version, rulesetId);
+        return (ExecutableNode) lookup(darId, new DiagramKey(key), dar -> dar.diagram(key));
+    }
+
+    // Same decisions as ruleset(), running the DAR's RulesetProgram when it has a valid one
+    public ExecutableNode program(DarId darId, String rulesetId, int version) {
+        var key = new DarRuntimeContext.RulesetKey(version, rulesetId);
+        return (ExecutableNode) lookup(darId, new ProgramKey(key), dar -> dar.program(key));
+    }
+
+    // Layout the rule nodes of a DAR are bound to, for slot-backed evidence
+    public EvidenceLayout layout(DarId darId) {
+        return dar(darId, store.get(darId)).layout;
+    }
+
+    // Streams JSON evidence into slots of that layout, see EvidenceReader; binds every Rule
+    public EvidenceReader reader(DarId darId) {
+        return dar(darId, store.get(darId)).reader();
+    }
+
+    // Same, keeping only the fields the challenge's rules read
+    public EvidenceReader reader(DarId darId, String challengeId, int version) {
+        var key = new DarRuntimeContext.ChallengeKey(version, challengeId);
+        return (EvidenceReader) lookup(darId, new ReaderKey(key), dar -> dar.reader(key));
+    }
+
+    public void invalidate(DarId darId) {
+        dars.remove(darId);
+        asts.asMap().keySet().removeIf(key -> key.darId().equals(darId));
+    }
+
+    // Hits, misses and build (load) time of the cached ASTs
+    public CacheStats stats() {
+        return asts.stats();
+    }
+
+    private Object lookup(DarId darId, Object artifact, Function<DarAsts, Object> build) {
+
+        DarRuntimeContext context = store.get(darId);
+        Key key = new Key(darId, artifact);
+        Built built = asts.get(key, k -> new Built(context, build.apply(dar(darId, context))));
+
+        if (built.source() != context) {
+            asts.asMap().remove(key, built);
+            return lookup(darId, artifact, build);
+        }
+        // unloaded while building: invalidate ran before the entry existed
+        if (!store.isLoaded(darId, context)) {
+            asts.asMap().remove(key, built);
+        }
+        return built.value();
+    }
+
+    private DarAsts dar(DarId darId, DarRuntimeContext context) {
+
+        DarAsts current = dars.get(darId);
+        if (current == null || current.context != context) {
+            DarAsts created = new DarAsts(context, thresholdIndex);
+            current = dars.compute(darId, (id, existing) ->
+                    existing != null && existing.context == context ? existing : created);
+        }
+        // same race as in lookup
+        if (!store.isLoaded(darId, context)) {
+            dars.remove(darId, current);
+        }
+        return current;
+    }
+
+    // Whether anything built from the DAR is still held
+    boolean isCached(DarId darId) {
+        return dars.containsKey(darId)
+                || asts.asMap().keySet().stream().anyMatch(key -> key.darId().equals(darId));
     }
 
-    public CompiledChallenge get(String challengeId,int version){
-        return this.challenge;
+    private static final class DarAsts {
+
+        private final DarRuntimeContext context;
+        private final EvidenceLayout layout;
+        private final boolean thresholdIndex;
+        private final AstBuilder builder;
+        private EvidenceReader reader;
+        private BddRulesetCompiler diagrams;
+        private ProgramLinker programs;
+
+        DarAsts(DarRuntimeContext context, boolean thresholdIndex) {
+            this.context = context;
+            this.layout = EvidenceLayout.of(context);
+            this.thresholdIndex = thresholdIndex;
+            this.builder = thresholdIndex ? null : new AstBuilder(context, layout, false, null, true);
+        }
+
+        // AstBuilder is not thread-safe
+        synchronized ExecutableNode ruleset(DarRuntimeContext.RulesetKey key) {
+            return builder(List.of(key)).build(key);
+        }
+
+        synchronized EvidenceReader reader() {
+            if (reader == null) {
+                reader = EvidenceReader.of(context, layout);
+            }
+            return reader;
+        }
+
+        synchronized EvidenceReader reader(DarRuntimeContext.ChallengeKey key) {
+            return EvidenceReader.of(rules(rulesets(key)).entrySet(), layout);
+        }
+
+        // The shared builder, or one indexing only the rules of these rulesets
+        private AstBuilder builder(List<DarRuntimeContext.RulesetKey> rulesets) {
+            if (!thresholdIndex) {
+                return builder;
+            }
+            return new AstBuilder(context, layout, false,
+                    ThresholdIndex.of(rules(rulesets).entrySet(), layout), true);
+        }
+
+        private List<DarRuntimeContext.RulesetKey> rulesets(DarRuntimeContext.ChallengeKey key) {
+            List<DarRuntimeContext.RulesetKey> rulesets = new ArrayList<>();
+            for (CompiledTaskRef ref : context.challenge(key).compiledTaskRefsList()) {
+                var taskKey = new DarRuntimeContext.TaskKey(ref.taskVersion(), ref.taskId());
+                CompiledTask task = context.task(taskKey);
+                if (task.rulesetVersion() == null) {
+                    throw new IllegalStateException("Task without ruleset version: " + taskKey);
+                }
+                rulesets.add(new DarRuntimeContext.RulesetKey(task.rulesetVersion(), task.ruleSetId()));
+            }
+            return rulesets;
+        }
+
+        // Rules the rulesets reference, binding nothing else
+        private Map<DarRuntimeContext.RuleKey, CompiledRule> rules(List<DarRuntimeContext.RulesetKey> rulesets) {
+            Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new LinkedHashMap<>();
+            for (DarRuntimeContext.RulesetKey ruleset : rulesets) {
+                collect(context.ruleset(ruleset).root(), rules);
+            }
+            return rules;
+        }
+
+        private void collect(RulesetExpression expr, Map<DarRuntimeContext.RuleKey, CompiledRule> rules) {
+            switch (expr) {
+                case RuleRefNode ref -> rules.computeIfAbsent(
+                        new DarRuntimeContext.RuleKey(ref.version(), ref.ruleId()), context::rule);
+                case LogicalNode logical -> logical.operands().forEach(operand -> collect(operand, rules));
+            }
+        }
+
+        synchronized ExecutableNode diagram(DarRuntimeContext.RulesetKey key) {
+            if (diagrams == null) {
+                diagrams = new BddRulesetCompiler(context, layout, BddRulesetCompiler.DEFAULT_MAX_NODES);
+            }
+            return diagrams.compile(key);
+        }
+
+        synchronized ExecutableNode program(DarRuntimeContext.RulesetKey key) {
+            if (programs == null) {
+                programs = new ProgramLinker(context, layout);
+            }
+            return programs.link(key);
+        }
+
+        synchronized CompiledChallenge challenge(DarRuntimeContext.ChallengeKey key) {
+
+            List<DarRuntimeContext.RulesetKey> rulesets = rulesets(key);
+            List<ExecutableNode> roots = builder(rulesets).buildAll(rulesets);
+            List<TaskNode> tasks = new ArrayList<>();
+            List<CompiledTaskRef> refs = context.challenge(key).compiledTaskRefsList();
+            for (int i = 0; i < refs.size(); i++) {
+                var taskKey = new DarRuntimeContext.TaskKey(refs.get(i).taskVersion(), refs.get(i).taskId());
+                tasks.add(new TaskNode(taskKey.name(), taskKey.version(), context.task(taskKey), roots.get(i)));
+            }
+            return new CompiledChallenge(key.name(), key.version(), tasks);
+        }
     }
 }
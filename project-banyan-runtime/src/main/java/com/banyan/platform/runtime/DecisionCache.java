@@ -0,0 +1,160 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.LogicalExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.SharedNode;
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.challenge.TaskNode;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/*
+ * Optional cache of ruleset and challenge results. The key is the DarId,
+ * the artifact key and the values of only the evidence fields the
+ * artifact's rules read (CompiledRule.input()), so evidence differing in
+ * unread fields hits the same entry. The projected values themselves are
+ * part of the key, not just their hash, so a collision can never return
+ * another evidence's decision.
+ *
+ * Eviction is by weight (projected values plus result entries). Artifacts
+ * whose AST cannot be inspected, e.g. hidden-class rulesets, bypass the
+ * cache. Entries of a DAR are dropped when the store unloads it. The key
+ * also holds the evaluated AST or challenge by identity, so a decision
+ * still being computed from a replaced DAR can never answer for its
+ * successor under the same DarId.
+ */
+public final class DecisionCache {
+
+    // source is the ExecutableNode or CompiledChallenge evaluated; neither overrides equals
+    private record Artifact(DarId darId, Object key, Object source) {
+    }
+
+    private record DecisionKey(Artifact artifact, Object[] values, int hash) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DecisionKey that
+                    && hash == that.hash
+                    && artifact.equals(that.artifact)
+                    && Arrays.equals(values, that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final Cache<DecisionKey, Object> decisions;
+    // Keyed by source, weakly, so projections go with the ASTs they describe
+    private final Cache<Object, Optional<String[]>> projections = Caffeine.newBuilder().weakKeys().build();
+
+    public DecisionCache(DarRuntimeStore store, long maximumWeight) {
+        this.decisions = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .<DecisionKey, Object>weigher((key, result) -> key.values().length
+                        + (result instanceof Map<?, ?> tasks ? tasks.size() : 1))
+                .recordStats()
+                .build();
+        store.onUnload(this::invalidate);
+    }
+
+    public boolean ruleset(
+            DarId darId,
+            DarRuntimeContext.RulesetKey key,
+            ExecutableNode ruleset,
+            EvidenceContext context
+    ) {
+        Artifact artifact = new Artifact(darId, key, ruleset);
+        String[] fields = projection(ruleset, () -> fields(ruleset));
+        if (fields == null) {
+            return ruleset.evaluate(context);
+        }
+        return (Boolean) decisions.get(key(artifact, fields, context), k -> ruleset.evaluate(context));
+    }
+
+    // The returned map is unmodifiable and may be shared between callers
+    @SuppressWarnings("unchecked")
+    public Map<String, Boolean> challenge(
+            DarId darId,
+            CompiledChallenge challenge,
+            EvidenceContext context,
+            Supplier<Map<String, Boolean>> evaluation
+    ) {
+        Artifact artifact = new Artifact(darId,
+                new DarRuntimeContext.ChallengeKey(challenge.getVersion(), challenge.getChallengeId()), challenge);
+        String[] fields = projection(challenge, () -> {
+            TreeSet<String> inputs = new TreeSet<>();
+            for (TaskNode task : challenge.getTasks()) {
+                if (!collect(task.getRuleset(), inputs)) {
+                    return null;
+                }
+            }
+            return inputs.toArray(new String[0]);
+        });
+        if (fields == null) {
+            return evaluation.get();
+        }
+        return (Map<String, Boolean>) decisions.get(key(artifact, fields, context),
+                k -> Collections.unmodifiableMap(evaluation.get()));
+    }
+
+    public void invalidate(DarId darId) {
+        decisions.asMap().keySet().removeIf(key -> key.artifact().darId().equals(darId));
+    }
+
+    // Hits, misses and evictions
+    public CacheStats stats() {
+        return decisions.stats();
+    }
+
+    private String[] projection(Object source, Supplier<String[]> fields) {
+        return projections.get(source, s -> Optional.ofNullable(fields.get())).orElse(null);
+    }
+
+    private static DecisionKey key(Artifact artifact, String[] fields, EvidenceContext context) {
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = context.get(fields[i]);
+        }
+        return new DecisionKey(artifact, values, Objects.hash(artifact, Arrays.hashCode(values)));
+    }
+
+    private static String[] fields(ExecutableNode root) {
+        TreeSet<String> inputs = new TreeSet<>();
+        return collect(root, inputs) ? inputs.toArray(new String[0]) : null;
+    }
+
+    // false when the node's inputs cannot be known
+    private static boolean collect(ExecutableNode node, TreeSet<String> inputs) {
+        if (node instanceof RuleExecutableNode rule) {
+            inputs.add(rule.input());
+            return true;
+        }
+        if (node instanceof SharedNode shared) {
+            return collect(shared.delegate(), inputs);
+        }
+        if (node instanceof LogicalExecutableNode logical) {
+            for (ExecutableNode child : logical.children()) {
+                if (!collect(child, inputs)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.node.TriState;
+
+import java.util.Arrays;
+
+/*
+ * Per-evidence results of shared AST nodes, indexed by the id AstBuilder
+ * gave each shared node. The scope identifies the id space (one AstBuilder),
+ * so a context evaluated against nodes of another DAR starts a fresh memo.
+ *
+ * Not thread-safe, like the EvidenceContext that owns it: ensure may swap
+ * the array while another thread indexes it. Concurrent evaluations use
+ * EvidenceContext#fork, which starts an empty memo.
+ */
+public final class EvaluationMemo {
+
+    private static final TriState[] STATES = {null, TriState.TRUE, TriState.FALSE, TriState.UNKNOWN};
+
+    private final Object scope;
+    private byte[] states;
+
+    EvaluationMemo(Object scope, int size) {
+        this.scope = scope;
+        this.states = new byte[size];
+    }
+
+    Object scope() {
+        return scope;
+    }
+
+    // An incremental AstBuilder hands out more ids as it builds
+    void ensure(int size) {
+        if (states.length < size) {
+            states = Arrays.copyOf(states, size);
+        }
+    }
+
+    // null when the node has not been evaluated against this context
+    public TriState get(int id) {
+        return STATES[states[id]];
+    }
+
+    public void put(int id, TriState state) {
+        states[id] = (byte) (state.ordinal() + 1);
+    }
+
+    void clear() {
+        Arrays.fill(states, (byte) 0);
+    }
+}
@@ -0,0 +1,273 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.node.AndLogicalNode;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.OrLogicalNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.SharedNode;
+import com.banyan.platform.ast.node.TriState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * Stateful evaluation of one AST against evidence that changes a field at a
+ * time. Every node gets an index (children before parents) and a cached
+ * TriState; logical nodes keep counts of their children's states. An
+ * inverted index maps each evidence field to the rule nodes reading it, so
+ * update(field, value) re-evaluates only those rules and pushes state
+ * changes up through the counts, stopping where a node's state is
+ * unchanged.
+ *
+ * States follow the tri-state evaluation of the tree: state() == TRUE
+ * exactly when root.evaluate(context) would be true. Nodes the session does
+ * not understand (e.g. hidden-class rulesets) are re-evaluated on every
+ * update. An update whose evaluation throws leaves the session as it was.
+ * Not thread-safe; use one session per evidence stream.
+ */
+public final class EvaluationSession {
+
+    private static final byte RULE = 0;
+    private static final byte AND = 1;
+    private static final byte OR = 2;
+    private static final byte PASS = 3;
+    private static final byte OPAQUE = 4;
+    private static final int[] NONE = new int[0];
+
+    private final List<ExecutableNode> nodes = new ArrayList<>();
+    private final List<Byte> kindList = new ArrayList<>();
+    private final List<List<Integer>> parentList = new ArrayList<>();
+    private final List<Integer> childCountList = new ArrayList<>();
+    private final Map<ExecutableNode, Integer> indexes = new IdentityHashMap<>();
+
+    private final byte[] kinds;
+    private final int[][] parents;
+    private final int[] childCounts;
+    private final int[] trueCount;
+    private final int[] falseCount;
+    private final TriState[] states;
+    private final Map<String, int[]> dependents = new HashMap<>();
+    private final int[] opaque;
+    private final Map<String, Object> values;
+    private final int root;
+    private long ruleEvaluations;
+
+    public EvaluationSession(ExecutableNode root, Map<String, Object> evidence) {
+
+        this.values = new HashMap<>(evidence);
+        this.root = register(root);
+
+        int size = nodes.size();
+        this.kinds = new byte[size];
+        this.parents = new int[size][];
+        this.childCounts = new int[size];
+        this.trueCount = new int[size];
+        this.falseCount = new int[size];
+        this.states = new TriState[size];
+
+        Map<String, List<Integer>> readers = new HashMap<>();
+        List<Integer> opaqueNodes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            kinds[i] = kindList.get(i);
+            parents[i] = parentList.get(i).stream().mapToInt(Integer::intValue).toArray();
+            childCounts[i] = childCountList.get(i);
+            if (kinds[i] == RULE) {
+                String input = ((RuleExecutableNode) nodes.get(i)).input();
+                readers.computeIfAbsent(input, k -> new ArrayList<>()).add(i);
+            } else if (kinds[i] == OPAQUE) {
+                opaqueNodes.add(i);
+            }
+        }
+        readers.forEach((field, rules) ->
+                dependents.put(field, rules.stream().mapToInt(Integer::intValue).toArray()));
+        this.opaque = opaqueNodes.stream().mapToInt(Integer::intValue).toArray();
+
+        // indexes are post-order, so children are settled before their parents
+        for (int i = 0; i < size; i++) {
+            TriState state = switch (kinds[i]) {
+                case RULE -> ruleState(i);
+                case OPAQUE -> opaqueState(i);
+                default -> derive(i);
+            };
+            states[i] = state;
+            for (int parent : parents[i]) {
+                count(parent, state, 1);
+            }
+        }
+    }
+
+    public TriState state() {
+        return states[root];
+    }
+
+    public Object get(String field) {
+        return values.get(field);
+    }
+
+    // A null value removes the field
+    public TriState update(String field, Object value) {
+
+        if (Objects.equals(values.get(field), value)) {
+            return state();
+        }
+
+        // new states first, so a rule that throws changes nothing
+        int[] rules = dependents.getOrDefault(field, NONE);
+        TriState[] ruleStates = new TriState[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            ruleStates[i] = ruleState(rules[i], value);
+        }
+        TriState[] opaqueStates = new TriState[opaque.length];
+        if (opaque.length > 0) {
+            Map<String, Object> next = new HashMap<>(values);
+            put(next, field, value);
+            for (int i = 0; i < opaque.length; i++) {
+                opaqueStates[i] = opaqueState(opaque[i], next);
+            }
+        }
+
+        put(values, field, value);
+        for (int i = 0; i < rules.length; i++) {
+            set(rules[i], ruleStates[i]);
+        }
+        for (int i = 0; i < opaque.length; i++) {
+            set(opaque[i], opaqueStates[i]);
+        }
+        return state();
+    }
+
+    // All changes or, if one throws, none of them
+    public TriState update(Map<String, Object> changes) {
+
+        Map<String, Object> previous = new HashMap<>();
+        try {
+            changes.forEach((field, value) -> {
+                if (!previous.containsKey(field)) {
+                    previous.put(field, values.get(field));
+                }
+                update(field, value);
+            });
+        } catch (RuntimeException e) {
+            // the previous values evaluated before, so restoring them does not throw
+            previous.forEach(this::update);
+            throw e;
+        }
+        return state();
+    }
+
+    // Rule evaluations since the session was created
+    public long ruleEvaluations() {
+        return ruleEvaluations;
+    }
+
+    private int register(ExecutableNode node) {
+
+        Integer known = indexes.get(node);
+        if (known != null) {
+            return known;
+        }
+
+        List<ExecutableNode> children;
+        byte kind;
+        if (node instanceof RuleExecutableNode) {
+            kind = RULE;
+            children = List.of();
+        } else if (node instanceof AndLogicalNode and) {
+            kind = AND;
+            children = and.children();
+        } else if (node instanceof OrLogicalNode or) {
+            kind = OR;
+            children = or.children();
+        } else if (node instanceof SharedNode shared) {
+            kind = PASS;
+            children = List.of(shared.delegate());
+        } else {
+            kind = OPAQUE;
+            children = List.of();
+        }
+
+        int[] childIndexes = new int[children.size()];
+        for (int i = 0; i < childIndexes.length; i++) {
+            childIndexes[i] = register(children.get(i));
+        }
+
+        int index = nodes.size();
+        nodes.add(node);
+        kindList.add(kind);
+        parentList.add(new ArrayList<>());
+        childCountList.add(childIndexes.length);
+        indexes.put(node, index);
+        for (int child : childIndexes) {
+            parentList.get(child).add(index);
+        }
+        return index;
+    }
+
+    private void set(int node, TriState state) {
+
+        TriState previous = states[node];
+        if (previous == state) {
+            return;
+        }
+        states[node] = state;
+        for (int parent : parents[node]) {
+            count(parent, previous, -1);
+            count(parent, state, 1);
+            set(parent, derive(parent));
+        }
+    }
+
+    private void count(int node, TriState state, int delta) {
+        if (state == TriState.TRUE) {
+            trueCount[node] += delta;
+        } else if (state == TriState.FALSE) {
+            falseCount[node] += delta;
+        }
+    }
+
+    // Unknown children are the ones counted neither true nor false
+    private TriState derive(int node) {
+
+        int unknown = childCounts[node] - trueCount[node] - falseCount[node];
+        switch (kinds[node]) {
+            case AND:
+                return falseCount[node] > 0 ? TriState.FALSE
+                        : unknown > 0 ? TriState.UNKNOWN : TriState.TRUE;
+            case OR:
+                return trueCount[node] > 0 ? TriState.TRUE
+                        : unknown > 0 ? TriState.UNKNOWN : TriState.FALSE;
+            default:
+                return trueCount[node] > 0 ? TriState.TRUE
+                        : falseCount[node] > 0 ? TriState.FALSE : TriState.UNKNOWN;
+        }
+    }
+
+    private TriState ruleState(int node) {
+        return ruleState(node, values.get(((RuleExecutableNode) nodes.get(node)).input()));
+    }
+
+    private TriState ruleState(int node, Object actual) {
+        ruleEvaluations++;
+        return ((RuleExecutableNode) nodes.get(node)).state(actual);
+    }
+
+    private TriState opaqueState(int node) {
+        return opaqueState(node, values);
+    }
+
+    private TriState opaqueState(int node, Map<String, Object> evidence) {
+        return nodes.get(node).evaluate(new EvidenceContext(evidence), null);
+    }
+
+    private static void put(Map<String, Object> evidence, String field, Object value) {
+        if (value == null) {
+            evidence.remove(field);
+        } else {
+            evidence.put(field, value);
+        }
+    }
+}
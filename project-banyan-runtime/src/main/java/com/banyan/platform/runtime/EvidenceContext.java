@@ -5,17 +5,69 @@ package com.banyan.platform.runtime;
 
 import java.util.Map;
 
+/*
+ * Evidence plus what evaluation derives from it (shared node results,
+ * threshold outcomes). The derived state is not synchronized, so a context
+ * is evaluated by one thread at a time; fork() gives each concurrent
+ * evaluation a view of its own over the same evidence.
+ */
 public final class EvidenceContext {
 
     private final Map<String, Object> values;
+    private final EvidenceSlots slots;
+    private EvaluationMemo memo;
+    // see ThresholdIndex#outcomes
+    ThresholdIndex.Outcomes thresholds;
 
     public EvidenceContext(Map<String, Object> values) {
         this.values = Map.copyOf(values);
+        this.slots = null;
+    }
+
+    // Slot-backed evidence, see EvidenceLayout#newBuilder
+    EvidenceContext(EvidenceSlots slots) {
+        this.values = null;
+        this.slots = slots;
+    }
+
+    private EvidenceContext(Map<String, Object> values, EvidenceSlots slots) {
+        this.values = values;
+        this.slots = slots;
+    }
+
+    // Same evidence, nothing derived yet; the evidence must not change while forks evaluate
+    public EvidenceContext fork() {
+        return new EvidenceContext(values, slots);
     }
 
     public Object get(String key) {
+        if (slots != null) {
+            return slots.get(key);
+        }
         return values.get(key);
     }
-}
 
+    public EvidenceSlots slots() {
+        return slots;
+    }
+
+    // Results of shared nodes for this evidence, see AstBuilder
+    public EvaluationMemo memo(Object scope, int size) {
+        EvaluationMemo current = memo;
+        if (current == null || current.scope() != scope) {
+            current = new EvaluationMemo(scope, size);
+            memo = current;
+        } else {
+            current.ensure(size);
+        }
+        return current;
+    }
 
+    // Drops results derived from the previous evidence of a reused builder
+    void clearDerived() {
+        if (memo != null) {
+            memo.clear();
+        }
+        thresholds = null;
+    }
+}
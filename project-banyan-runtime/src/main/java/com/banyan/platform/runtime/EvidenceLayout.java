@@ -0,0 +1,89 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.evidence.EvidenceField;
+import com.banyan.compiler.enums.EvidenceValueType;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Assigns a dense slot index to every evidence field declared by the
+ * EvidenceTypes of a DAR. Slot order is deterministic: evidence types by
+ * (name, version), then fields by name. A field declared by several
+ * evidence types shares one slot.
+ */
+public final class EvidenceLayout {
+
+    public static final int UNBOUND = -1;
+
+    private final Map<String, Integer> slots;
+    private final String[] fields;
+    private final EvidenceValueType[] types;
+
+    private EvidenceLayout(List<EvidenceField> declared) {
+        this.slots = new HashMap<>();
+        List<EvidenceField> unique = new ArrayList<>();
+        for (EvidenceField field : declared) {
+            if (!slots.containsKey(field.name())) {
+                slots.put(field.name(), unique.size());
+                unique.add(field);
+            }
+        }
+        this.fields = new String[unique.size()];
+        this.types = new EvidenceValueType[unique.size()];
+        for (int i = 0; i < unique.size(); i++) {
+            fields[i] = unique.get(i).name();
+            types[i] = unique.get(i).type();
+        }
+    }
+
+    public static EvidenceLayout of(DarRuntimeContext context) {
+        List<Map.Entry<DarRuntimeContext.EvidenceTypeKey, CompiledEvidenceType>> evidenceTypes = new ArrayList<>();
+        context.evidenceTypes().forEach(evidenceTypes::add);
+        evidenceTypes.sort(Comparator
+                .comparing((Map.Entry<DarRuntimeContext.EvidenceTypeKey, CompiledEvidenceType> e) -> e.getKey().name())
+                .thenComparingInt(e -> e.getKey().version()));
+
+        List<EvidenceField> declared = new ArrayList<>();
+        for (var entry : evidenceTypes) {
+            declared.addAll(sortedFields(entry.getValue()));
+        }
+        return new EvidenceLayout(declared);
+    }
+
+    public static EvidenceLayout of(CompiledEvidenceType evidenceType) {
+        return new EvidenceLayout(sortedFields(evidenceType));
+    }
+
+    private static List<EvidenceField> sortedFields(CompiledEvidenceType evidenceType) {
+        List<EvidenceField> fields = new ArrayList<>(evidenceType.fields().values());
+        fields.sort(Comparator.comparing(EvidenceField::name));
+        return fields;
+    }
+
+    public int slot(String field) {
+        Integer slot = slots.get(field);
+        return slot != null ? slot : UNBOUND;
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    public String field(int slot) {
+        return fields[slot];
+    }
+
+    public EvidenceValueType type(int slot) {
+        return types[slot];
+    }
+
+    public EvidenceSlots.Builder newBuilder() {
+        return new EvidenceSlots.Builder(this);
+    }
+}
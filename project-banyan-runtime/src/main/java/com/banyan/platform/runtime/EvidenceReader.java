@@ -0,0 +1,131 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Streams a JSON evidence object into EvidenceSlots without building a tree
+ * or a Map. Only top-level fields that some rule of the DAR reads (and that
+ * the layout declares) are kept; every other field is skipped, nested
+ * values included, without being materialized.
+ *
+ * Values get the slot kind EvidenceSlots.Builder#set gives the Map that
+ * Jackson would have produced: integers that fit a long as LONG, decimals
+ * as DOUBLE, booleans as BOOLEAN, strings and anything else as REFERENCE,
+ * null as absent. A repeated field keeps its last value. Immutable and
+ * thread-safe; the builder is the caller's, one per thread.
+ */
+public final class EvidenceReader {
+
+    // Codec for the rare object or array value of a projected field
+    private static final JsonFactory FACTORY = new ObjectMapper().getFactory();
+
+    private final EvidenceLayout layout;
+    private final Map<String, Integer> projection;
+
+    private EvidenceReader(EvidenceLayout layout, Map<String, Integer> projection) {
+        this.layout = layout;
+        this.projection = projection;
+    }
+
+    public static EvidenceReader of(DarRuntimeContext context, EvidenceLayout layout) {
+        return of(context.rules(), layout);
+    }
+
+    // Keeps only the fields the given rules read, e.g. those of one challenge
+    public static EvidenceReader of(
+            Iterable<Map.Entry<DarRuntimeContext.RuleKey, CompiledRule>> rules,
+            EvidenceLayout layout
+    ) {
+
+        Map<String, Integer> projection = new HashMap<>();
+        for (var entry : rules) {
+            CompiledRule rule = entry.getValue();
+            int slot = layout.slot(rule.input());
+            if (slot != EvidenceLayout.UNBOUND) {
+                projection.put(rule.input(), slot);
+            }
+        }
+        return new EvidenceReader(layout, projection);
+    }
+
+    public EvidenceLayout layout() {
+        return layout;
+    }
+
+    // Fields kept by the reader
+    public boolean isProjected(String field) {
+        return projection.containsKey(field);
+    }
+
+    public EvidenceContext read(byte[] json, EvidenceSlots.Builder builder) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return read(parser, builder);
+        }
+    }
+
+    public EvidenceContext read(String json, EvidenceSlots.Builder builder) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return read(parser, builder);
+        }
+    }
+
+    public EvidenceContext read(InputStream json, EvidenceSlots.Builder builder) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return read(parser, builder);
+        }
+    }
+
+    // Resets the builder and reads one object from the parser's next token
+    public EvidenceContext read(JsonParser parser, EvidenceSlots.Builder builder) throws IOException {
+
+        if (builder.build().slots().layout() != layout) {
+            throw new IllegalArgumentException("Builder does not use the reader's layout");
+        }
+        builder.reset();
+
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Evidence must be a JSON object, found " + token);
+        }
+
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+
+            Integer slot = projection.get(parser.currentName());
+            token = parser.nextToken();
+            if (slot == null) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (token) {
+                case VALUE_NUMBER_INT -> {
+                    JsonParser.NumberType type = parser.getNumberType();
+                    if (type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG) {
+                        builder.setLong(slot, parser.getLongValue());
+                    } else {
+                        builder.setReference(slot, parser.getBigIntegerValue());
+                    }
+                }
+                case VALUE_NUMBER_FLOAT -> builder.setDouble(slot, parser.getDoubleValue());
+                case VALUE_TRUE -> builder.setBoolean(slot, true);
+                case VALUE_FALSE -> builder.setBoolean(slot, false);
+                case VALUE_STRING -> builder.setReference(slot, parser.getText());
+                case VALUE_NULL -> builder.setReference(slot, null);
+                default -> builder.setReference(slot, parser.readValueAs(Object.class));
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IllegalArgumentException("Truncated evidence object");
+        }
+        return builder.build();
+    }
+}
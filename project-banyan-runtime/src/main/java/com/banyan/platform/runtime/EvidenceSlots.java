@@ -0,0 +1,161 @@
+package com.banyan.platform.runtime;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/*
+ * Slot-indexed evidence storage. Integral and boolean values live in a
+ * long[], decimals in a double[], anything else (strings) in an Object[];
+ * a per-slot kind byte records which one holds the value.
+ *
+ * Instances are mutable and owned by a Builder, which is meant to be reused
+ * per thread: reset(), set the fields, build(), evaluate. build() drops the
+ * memo and threshold outcomes of the previous evidence, so fields may also
+ * be overwritten without a reset.
+ */
+public final class EvidenceSlots {
+
+    public static final byte ABSENT = 0;
+    public static final byte LONG = 1;
+    public static final byte DOUBLE = 2;
+    public static final byte BOOLEAN = 3;
+    public static final byte REFERENCE = 4;
+
+    private final EvidenceLayout layout;
+    private final byte[] kinds;
+    private final long[] longs;
+    private final double[] doubles;
+    private final Object[] references;
+
+    private EvidenceSlots(EvidenceLayout layout) {
+        int size = layout.size();
+        this.layout = layout;
+        this.kinds = new byte[size];
+        this.longs = new long[size];
+        this.doubles = new double[size];
+        this.references = new Object[size];
+    }
+
+    public EvidenceLayout layout() {
+        return layout;
+    }
+
+    public byte kind(int slot) {
+        return kinds[slot];
+    }
+
+    public boolean isPresent(int slot) {
+        return kinds[slot] != ABSENT;
+    }
+
+    public long longValue(int slot) {
+        return longs[slot];
+    }
+
+    public boolean booleanValue(int slot) {
+        return longs[slot] != 0L;
+    }
+
+    public double doubleValue(int slot) {
+        switch (kinds[slot]) {
+            case LONG:
+                return (double) longs[slot];
+            case DOUBLE:
+                return doubles[slot];
+            default:
+                return ((Number) value(slot)).doubleValue();
+        }
+    }
+
+    public Object reference(int slot) {
+        return references[slot];
+    }
+
+    public Object value(int slot) {
+        switch (kinds[slot]) {
+            case LONG:
+                return longs[slot];
+            case DOUBLE:
+                return doubles[slot];
+            case BOOLEAN:
+                return longs[slot] != 0L;
+            case REFERENCE:
+                return references[slot];
+            default:
+                return null;
+        }
+    }
+
+    public Object get(String field) {
+        int slot = layout.slot(field);
+        return slot == EvidenceLayout.UNBOUND ? null : value(slot);
+    }
+
+    public static final class Builder {
+
+        private final EvidenceSlots slots;
+        private final EvidenceContext context;
+
+        Builder(EvidenceLayout layout) {
+            this.slots = new EvidenceSlots(layout);
+            this.context = new EvidenceContext(slots);
+        }
+
+        public Builder reset() {
+            Arrays.fill(slots.kinds, ABSENT);
+            Arrays.fill(slots.references, null);
+            return this;
+        }
+
+        public Builder setLong(int slot, long value) {
+            slots.longs[slot] = value;
+            slots.kinds[slot] = LONG;
+            return this;
+        }
+
+        public Builder setDouble(int slot, double value) {
+            slots.doubles[slot] = value;
+            slots.kinds[slot] = DOUBLE;
+            return this;
+        }
+
+        public Builder setBoolean(int slot, boolean value) {
+            slots.longs[slot] = value ? 1L : 0L;
+            slots.kinds[slot] = BOOLEAN;
+            return this;
+        }
+
+        public Builder setReference(int slot, Object value) {
+            slots.references[slot] = value;
+            slots.kinds[slot] = value == null ? ABSENT : REFERENCE;
+            return this;
+        }
+
+        // Fields not declared by the layout are ignored
+        public Builder set(String field, Object value) {
+            int slot = slots.layout.slot(field);
+            if (slot == EvidenceLayout.UNBOUND) {
+                return this;
+            }
+            if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                return setLong(slot, ((Number) value).longValue());
+            }
+            if (value instanceof Double || value instanceof Float) {
+                return setDouble(slot, ((Number) value).doubleValue());
+            }
+            if (value instanceof BigDecimal decimal) {
+                return setDouble(slot, decimal.doubleValue());
+            }
+            if (value instanceof Boolean bool) {
+                return setBoolean(slot, bool);
+            }
+            return setReference(slot, value);
+        }
+
+        public EvidenceContext build() {
+            context.clearDerived();
+            return context;
+        }
+    }
+}
@@ -1,25 +1,78 @@
 package com.banyan.platform.runtime;
 
 import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.context.DarId;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public final class RuntimeEvaluator {
+/*
+ * Challenges with at least parallelThreshold tasks run their tasks
+ * concurrently, one virtual thread per task; smaller ones stay on the
+ * caller thread. Results are the same either way. With a DecisionCache,
+ * challenge results are looked up there first.
+ */
+public final class RuntimeEvaluator implements AutoCloseable {
     private final ChallengeAstRegistry challengeAstRegistry;
+    private final int parallelThreshold;
+    private final ExecutorService executor;
+    private final DecisionCache decisionCache;
+
     public RuntimeEvaluator(ChallengeAstRegistry challengeAstRegistry)
     {
+        this(challengeAstRegistry, Integer.MAX_VALUE);
+    }
+
+    public RuntimeEvaluator(ChallengeAstRegistry challengeAstRegistry, int parallelThreshold)
+    {
+        this(challengeAstRegistry, parallelThreshold, null);
+    }
+
+    public RuntimeEvaluator(
+            ChallengeAstRegistry challengeAstRegistry,
+            int parallelThreshold,
+            DecisionCache decisionCache
+    )
+    {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive: " + parallelThreshold);
+        }
         this.challengeAstRegistry = challengeAstRegistry;
+        this.parallelThreshold = parallelThreshold;
+        this.decisionCache = decisionCache;
+        this.executor = parallelThreshold == Integer.MAX_VALUE
+                ? null
+                : Executors.newVirtualThreadPerTaskExecutor();
     }
 
+    // Task id -> result, in the order the challenge lists its tasks
     public Map<String, Boolean> evaluate(
+            DarId darId,
             String challengeId,
             int version,
-            int failedAttempts,
-            boolean businessHours
+            EvidenceContext context
     )
     {
-        //EvidenceContext ctx = new EvidenceContext(failedAttempts,businessHours);
-        CompiledChallenge challenge = this.challengeAstRegistry.get(challengeId,version);
-        return null;//challenge.evaluate(ctx);
+        CompiledChallenge challenge = this.challengeAstRegistry.get(darId,challengeId,version);
+        if (decisionCache != null) {
+            return decisionCache.challenge(darId, challenge, context, () -> evaluate(challenge, context));
+        }
+        return evaluate(challenge, context);
+    }
+
+    private Map<String, Boolean> evaluate(CompiledChallenge challenge, EvidenceContext context)
+    {
+        if (executor != null && challenge.getTaskCount() >= parallelThreshold) {
+            return challenge.evaluate(context, executor);
+        }
+        return challenge.evaluate(context);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
     }
 }
@@ -0,0 +1,334 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.ast.builder.RuleNodeFactory;
+import com.banyan.platform.ast.node.DoubleGreaterOrEqualRuleNode;
+import com.banyan.platform.ast.node.DoubleGreaterThanRuleNode;
+import com.banyan.platform.ast.node.DoubleLessOrEqualRuleNode;
+import com.banyan.platform.ast.node.DoubleLessThanRuleNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.TriState;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * All THRESHOLD rules (>, >=, <, <=) of a DAR, grouped by input field and
+ * operator with their thresholds in sorted primitive arrays. Each rule gets
+ * a bit, numbered contiguously in threshold order within its group, so the
+ * rules a value satisfies form one prefix or suffix of the group's bits:
+ *
+ *   >  t  holds for t <  v   prefix up to lowerBound(v)
+ *   >= t  holds for t <= v   prefix up to upperBound(v)
+ *   <  t  holds for t >  v   suffix from upperBound(v)
+ *   <= t  holds for t >= v   suffix from lowerBound(v)
+ *
+ * Evaluating the index therefore costs one binary search per group of a
+ * present field plus word-wise range fills, instead of one comparison per
+ * rule. The outcome bitset is computed once per EvidenceContext and read by
+ * every IndexedThresholdRuleNode of every ruleset. A non-numeric value
+ * leaves its field's rules deferred to their direct nodes, so it fails only
+ * where a rule reading it is reached; NaN satisfies no threshold.
+ */
+public final class ThresholdIndex {
+
+    private static final int GREATER = 0;
+    private static final int GREATER_OR_EQUAL = 1;
+    private static final int LESS = 2;
+    private static final int LESS_OR_EQUAL = 3;
+    private static final int OPERATORS = 4;
+
+    private final EvidenceLayout layout;
+    private final Field[] fields;
+    private final Map<DarRuntimeContext.RuleKey, Integer> bits;
+    private final DarRuntimeContext.RuleKey[] rules;
+
+    private record Threshold(DarRuntimeContext.RuleKey key, int operator, double value) {
+    }
+
+    // Bits [from, to) of one input field; group g spans [base[g], base[g] + thresholds[g].length)
+    private record Field(String name, int slot, int from, int to, int[] base, double[][] thresholds) {
+    }
+
+    private ThresholdIndex(EvidenceLayout layout, Map<String, List<Threshold>> byField) {
+
+        this.layout = layout;
+        this.fields = new Field[byField.size()];
+        this.bits = new HashMap<>();
+        List<DarRuntimeContext.RuleKey> ordered = new ArrayList<>();
+
+        int f = 0;
+        for (Map.Entry<String, List<Threshold>> entry : byField.entrySet()) {
+
+            List<Threshold> thresholds = entry.getValue();
+            thresholds.sort(Comparator
+                    .comparingInt(Threshold::operator)
+                    .thenComparingDouble(Threshold::value));
+
+            int from = ordered.size();
+            int[] base = new int[OPERATORS];
+            double[][] values = new double[OPERATORS][];
+            int i = 0;
+            for (int op = 0; op < OPERATORS; op++) {
+                base[op] = ordered.size();
+                int start = i;
+                while (i < thresholds.size() && thresholds.get(i).operator() == op) {
+                    bits.put(thresholds.get(i).key(), ordered.size());
+                    ordered.add(thresholds.get(i).key());
+                    i++;
+                }
+                values[op] = new double[i - start];
+                for (int j = start; j < i; j++) {
+                    values[op][j - start] = thresholds.get(j).value();
+                }
+            }
+
+            String name = entry.getKey();
+            int slot = layout == null ? EvidenceLayout.UNBOUND : layout.slot(name);
+            fields[f++] = new Field(name, slot, from, ordered.size(), base, values);
+        }
+        this.rules = ordered.toArray(new DarRuntimeContext.RuleKey[0]);
+    }
+
+    public static ThresholdIndex of(DarRuntimeContext context) {
+        return of(context, null);
+    }
+
+    // Reads slot-backed evidence directly when it uses the given layout
+    public static ThresholdIndex of(DarRuntimeContext context, EvidenceLayout layout) {
+        return of(context.rules(), layout);
+    }
+
+    // Indexes only the given rules, e.g. those reachable from one challenge
+    public static ThresholdIndex of(
+            Iterable<Map.Entry<DarRuntimeContext.RuleKey, CompiledRule>> rules,
+            EvidenceLayout layout
+    ) {
+
+        Map<String, List<Threshold>> byField = new TreeMap<>();
+        for (var entry : rules) {
+
+            CompiledRule rule = entry.getValue();
+            int operator = operator(rule.operator());
+            if (operator < 0) {
+                continue;
+            }
+            double value = threshold(RuleNodeFactory.create(rule));
+            byField.computeIfAbsent(rule.input(), k -> new ArrayList<>())
+                    .add(new Threshold(entry.getKey(), operator, value));
+        }
+        return new ThresholdIndex(layout, byField);
+    }
+
+    private static int operator(String operator) {
+        return switch (operator) {
+            case ">" -> GREATER;
+            case ">=" -> GREATER_OR_EQUAL;
+            case "<" -> LESS;
+            case "<=" -> LESS_OR_EQUAL;
+            default -> -1;
+        };
+    }
+
+    // The threshold as parsed by RuleNodeFactory
+    private static double threshold(RuleExecutableNode node) {
+        if (node instanceof DoubleGreaterThanRuleNode n) {
+            return n.threshold();
+        }
+        if (node instanceof DoubleGreaterOrEqualRuleNode n) {
+            return n.threshold();
+        }
+        if (node instanceof DoubleLessThanRuleNode n) {
+            return n.threshold();
+        }
+        if (node instanceof DoubleLessOrEqualRuleNode n) {
+            return n.threshold();
+        }
+        throw new IllegalStateException("Not a threshold rule: " + node.rule());
+    }
+
+    // Number of indexed rules
+    public int size() {
+        return rules.length;
+    }
+
+    // Bit of the rule, or -1 if it is not a threshold rule of this DAR
+    public int bit(DarRuntimeContext.RuleKey key) {
+        Integer bit = bits.get(key);
+        return bit == null ? -1 : bit;
+    }
+
+    public DarRuntimeContext.RuleKey rule(int bit) {
+        return rules[bit];
+    }
+
+    public EvidenceLayout layout() {
+        return layout;
+    }
+
+    // Outcome of every indexed rule for the evidence, computed once per context
+    public Outcomes outcomes(EvidenceContext context) {
+
+        Outcomes current = context.thresholds;
+        if (current == null || current.index != this) {
+            current = evaluate(context);
+            context.thresholds = current;
+        }
+        return current;
+    }
+
+    private Outcomes evaluate(EvidenceContext context) {
+
+        int words = (rules.length + 63) >>> 6;
+        long[] present = new long[words];
+        long[] outcomes = new long[words];
+        long[] deferred = new long[words];
+
+        EvidenceSlots slots = context.slots();
+        boolean bound = slots != null && layout != null && slots.layout() == layout;
+
+        for (Field field : fields) {
+
+            double value;
+            if (bound && field.slot() != EvidenceLayout.UNBOUND) {
+                byte kind = slots.kind(field.slot());
+                if (kind == EvidenceSlots.ABSENT) {
+                    continue;
+                }
+                if (kind == EvidenceSlots.LONG || kind == EvidenceSlots.DOUBLE) {
+                    value = slots.doubleValue(field.slot());
+                } else if (slots.value(field.slot()) instanceof Number number) {
+                    value = number.doubleValue();
+                } else {
+                    setRange(deferred, field.from(), field.to());
+                    continue;
+                }
+            } else {
+                Object actual = context.get(field.name());
+                if (actual == null) {
+                    continue;
+                }
+                if (!(actual instanceof Number number)) {
+                    setRange(deferred, field.from(), field.to());
+                    continue;
+                }
+                value = number.doubleValue();
+            }
+
+            setRange(present, field.from(), field.to());
+            if (Double.isNaN(value)) {
+                continue;
+            }
+
+            int[] base = field.base();
+            double[][] thresholds = field.thresholds();
+            setRange(outcomes, base[GREATER],
+                    base[GREATER] + lowerBound(thresholds[GREATER], value));
+            setRange(outcomes, base[GREATER_OR_EQUAL],
+                    base[GREATER_OR_EQUAL] + upperBound(thresholds[GREATER_OR_EQUAL], value));
+            setRange(outcomes, base[LESS] + upperBound(thresholds[LESS], value),
+                    base[LESS] + thresholds[LESS].length);
+            setRange(outcomes, base[LESS_OR_EQUAL] + lowerBound(thresholds[LESS_OR_EQUAL], value),
+                    base[LESS_OR_EQUAL] + thresholds[LESS_OR_EQUAL].length);
+        }
+        return new Outcomes(this, present, outcomes, deferred);
+    }
+
+    // First index whose threshold is >= value
+    private static int lowerBound(double[] thresholds, double value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index whose threshold is > value
+    private static int upperBound(double[] thresholds, double value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Sets bits [from, to)
+    private static void setRange(long[] words, int from, int to) {
+
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[w] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /*
+     * Rule outcomes for one EvidenceContext. A rule whose input is missing
+     * is neither present nor true; one whose input is not a number is
+     * deferred instead, and its outcome must come from the rule itself.
+     */
+    public static final class Outcomes {
+
+        private final ThresholdIndex index;
+        private final long[] present;
+        private final long[] outcomes;
+        private final long[] deferred;
+
+        private Outcomes(ThresholdIndex index, long[] present, long[] outcomes, long[] deferred) {
+            this.index = index;
+            this.present = present;
+            this.outcomes = outcomes;
+            this.deferred = deferred;
+        }
+
+        public boolean isPresent(int bit) {
+            return (present[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        public boolean isDeferred(int bit) {
+            return (deferred[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        // Only meaningful when the bit is present
+        public boolean isTrue(int bit) {
+            return (outcomes[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        public TriState state(int bit) {
+            return isPresent(bit) ? TriState.of(isTrue(bit)) : TriState.UNKNOWN;
+        }
+
+        public long[] toLongArray() {
+            return Arrays.copyOf(outcomes, outcomes.length);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.banyan.platform.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Collects the evidence fields a tri-state evaluation found missing, in the
+ * order they were consulted, without duplicates. Reusable through clear().
+ */
+public final class UnknownFields {
+
+    private final List<String> fields = new ArrayList<>(4);
+
+    public void add(String field) {
+        if (!fields.contains(field)) {
+            fields.add(field);
+        }
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    public List<String> fields() {
+        return List.copyOf(fields);
+    }
+
+    public UnknownFields clear() {
+        fields.clear();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return fields.toString();
+    }
+}
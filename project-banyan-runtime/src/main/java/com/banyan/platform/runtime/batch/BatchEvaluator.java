@@ -0,0 +1,275 @@
+package com.banyan.platform.runtime.batch;
+
+import com.banyan.platform.ast.node.AndLogicalNode;
+import com.banyan.platform.ast.node.BooleanEqualityRuleNode;
+import com.banyan.platform.ast.node.DoubleEqualityRuleNode;
+import com.banyan.platform.ast.node.DoubleGreaterOrEqualRuleNode;
+import com.banyan.platform.ast.node.DoubleGreaterThanRuleNode;
+import com.banyan.platform.ast.node.DoubleLessOrEqualRuleNode;
+import com.banyan.platform.ast.node.DoubleLessThanRuleNode;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.IndexedThresholdRuleNode;
+import com.banyan.platform.ast.node.LongEqualityRuleNode;
+import com.banyan.platform.ast.node.OrLogicalNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.SharedNode;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+
+import java.util.Arrays;
+
+/*
+ * Evaluates an AST over an EvidenceBatch and returns the matching rows as a
+ * mask (BitSet.valueOf(mask) if a BitSet is wanted).
+ *
+ * Numeric and boolean rules over primitive columns run as branch-free loops
+ * that build 64 rows per word; AND/OR combine child masks word by word.
+ * A row whose evidence is missing fails its rule, which is what the
+ * logical nodes do with MissingEvidenceException. A bare rule at the root
+ * still fails fast when any row lacks its input. Other columns and nodes the
+ * evaluator does not know fall back to row-by-row evaluation.
+ */
+public final class BatchEvaluator {
+
+    private static final int GT = 0;
+    private static final int GE = 1;
+    private static final int LT = 2;
+    private static final int LE = 3;
+    private static final int EQ = 4;
+
+    private BatchEvaluator() {
+    }
+
+    public static long[] evaluate(ExecutableNode root, EvidenceBatch batch) {
+
+        if (root instanceof SharedNode shared) {
+            return evaluate(shared.delegate(), batch);
+        }
+        if (root instanceof RuleExecutableNode rule) {
+            int slot = batch.layout().slot(rule.input());
+            if (slot == EvidenceLayout.UNBOUND
+                    || !Arrays.equals(batch.presence(slot), BitMasks.all(batch.size()))) {
+                throw new MissingEvidenceException(rule.input());
+            }
+        }
+        return mask(root, batch, true);
+    }
+
+    private static long[] mask(ExecutableNode node, EvidenceBatch batch, boolean root) {
+
+        if (node instanceof SharedNode shared) {
+            return mask(shared.delegate(), batch, root);
+        }
+        if (node instanceof AndLogicalNode and) {
+            long[] result = BitMasks.all(batch.size());
+            for (ExecutableNode child : and.children()) {
+                long[] hits = mask(child, batch, false);
+                for (int w = 0; w < result.length; w++) {
+                    result[w] &= hits[w];
+                }
+                if (BitMasks.isEmpty(result)) {
+                    break;
+                }
+            }
+            return result;
+        }
+        if (node instanceof OrLogicalNode or) {
+            long[] result = new long[BitMasks.words(batch.size())];
+            for (ExecutableNode child : or.children()) {
+                long[] hits = mask(child, batch, false);
+                for (int w = 0; w < result.length; w++) {
+                    result[w] |= hits[w];
+                }
+            }
+            return result;
+        }
+        if (node instanceof RuleExecutableNode rule) {
+            return rule(rule, batch);
+        }
+        return rows(node, batch, root);
+    }
+
+    private static long[] rule(RuleExecutableNode node, EvidenceBatch batch) {
+
+        if (node instanceof IndexedThresholdRuleNode indexed) {
+            node = indexed.direct();
+        }
+        int size = batch.size();
+        int slot = batch.layout().slot(node.input());
+        if (slot == EvidenceLayout.UNBOUND) {
+            return new long[BitMasks.words(size)];
+        }
+
+        long[] present = batch.presence(slot);
+        byte kind = batch.kind(slot);
+        boolean numeric = kind == EvidenceSlots.LONG || kind == EvidenceSlots.DOUBLE;
+        long[] hits = null;
+        boolean negated = false;
+
+        if (numeric && node instanceof DoubleGreaterThanRuleNode n) {
+            hits = compare(batch, slot, GT, n.threshold());
+        } else if (numeric && node instanceof DoubleGreaterOrEqualRuleNode n) {
+            hits = compare(batch, slot, GE, n.threshold());
+        } else if (numeric && node instanceof DoubleLessThanRuleNode n) {
+            hits = compare(batch, slot, LT, n.threshold());
+        } else if (numeric && node instanceof DoubleLessOrEqualRuleNode n) {
+            hits = compare(batch, slot, LE, n.threshold());
+        } else if (numeric && node instanceof DoubleEqualityRuleNode n) {
+            hits = compare(batch, slot, EQ, n.expected());
+            negated = n.negated();
+        } else if (kind == EvidenceSlots.LONG && node instanceof LongEqualityRuleNode n) {
+            hits = equal(batch.longColumn(slot), size, n.expected());
+            negated = n.negated();
+        } else if (kind == EvidenceSlots.DOUBLE && node instanceof LongEqualityRuleNode n) {
+            hits = compare(batch, slot, EQ, (double) n.expected());
+            negated = n.negated();
+        } else if (kind == EvidenceSlots.BOOLEAN && node instanceof BooleanEqualityRuleNode n) {
+            hits = equal(batch.longColumn(slot), size, n.expected() ? 1L : 0L);
+            negated = n.negated();
+        }
+
+        if (hits == null) {
+            return matches(node, batch, slot, present);
+        }
+        long flip = negated ? -1L : 0L;
+        for (int w = 0; w < hits.length; w++) {
+            hits[w] = (hits[w] ^ flip) & present[w];
+        }
+        return hits;
+    }
+
+    private static long[] compare(EvidenceBatch batch, int slot, int op, double threshold) {
+        return batch.kind(slot) == EvidenceSlots.LONG
+                ? compare(batch.longColumn(slot), batch.size(), op, threshold)
+                : compare(batch.doubleColumn(slot), batch.size(), op, threshold);
+    }
+
+    private static long[] compare(double[] values, int size, int op, double t) {
+
+        long[] hits = new long[BitMasks.words(size)];
+        for (int w = 0; w < hits.length; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, size);
+            long bits = 0L;
+            switch (op) {
+                case GT:
+                    for (int i = base; i < end; i++) bits |= (values[i] > t ? 1L : 0L) << i;
+                    break;
+                case GE:
+                    for (int i = base; i < end; i++) bits |= (values[i] >= t ? 1L : 0L) << i;
+                    break;
+                case LT:
+                    for (int i = base; i < end; i++) bits |= (values[i] < t ? 1L : 0L) << i;
+                    break;
+                case LE:
+                    for (int i = base; i < end; i++) bits |= (values[i] <= t ? 1L : 0L) << i;
+                    break;
+                default:
+                    for (int i = base; i < end; i++) bits |= (values[i] == t ? 1L : 0L) << i;
+            }
+            hits[w] = bits;
+        }
+        return hits;
+    }
+
+    private static long[] compare(long[] values, int size, int op, double t) {
+
+        long[] hits = new long[BitMasks.words(size)];
+        for (int w = 0; w < hits.length; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, size);
+            long bits = 0L;
+            switch (op) {
+                case GT:
+                    for (int i = base; i < end; i++) bits |= ((double) values[i] > t ? 1L : 0L) << i;
+                    break;
+                case GE:
+                    for (int i = base; i < end; i++) bits |= ((double) values[i] >= t ? 1L : 0L) << i;
+                    break;
+                case LT:
+                    for (int i = base; i < end; i++) bits |= ((double) values[i] < t ? 1L : 0L) << i;
+                    break;
+                case LE:
+                    for (int i = base; i < end; i++) bits |= ((double) values[i] <= t ? 1L : 0L) << i;
+                    break;
+                default:
+                    for (int i = base; i < end; i++) bits |= ((double) values[i] == t ? 1L : 0L) << i;
+            }
+            hits[w] = bits;
+        }
+        return hits;
+    }
+
+    private static long[] equal(long[] values, int size, long expected) {
+
+        long[] hits = new long[BitMasks.words(size)];
+        for (int w = 0; w < hits.length; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, size);
+            long bits = 0L;
+            for (int i = base; i < end; i++) {
+                bits |= (values[i] == expected ? 1L : 0L) << i;
+            }
+            hits[w] = bits;
+        }
+        return hits;
+    }
+
+    // Strings and mixed columns: the node's own matches, present rows only
+    private static long[] matches(RuleExecutableNode node, EvidenceBatch batch, int slot, long[] present) {
+
+        long[] hits = new long[present.length];
+        for (int row = 0; row < batch.size(); row++) {
+            if ((present[row >>> 6] & (1L << row)) != 0L && node.matches(batch.value(slot, row))) {
+                hits[row >>> 6] |= 1L << row;
+            }
+        }
+        return hits;
+    }
+
+    private static long[] rows(ExecutableNode node, EvidenceBatch batch, boolean root) {
+
+        EvidenceLayout layout = batch.layout();
+        EvidenceSlots.Builder builder = layout.newBuilder();
+        long[] hits = new long[BitMasks.words(batch.size())];
+
+        for (int row = 0; row < batch.size(); row++) {
+            builder.reset();
+            for (int slot = 0; slot < layout.size(); slot++) {
+                if ((batch.presence(slot)[row >>> 6] & (1L << row)) != 0L) {
+                    copy(batch, slot, row, builder);
+                }
+            }
+            boolean matched;
+            try {
+                matched = node.evaluate(builder.build());
+            } catch (MissingEvidenceException e) {
+                if (root) {
+                    throw e;
+                }
+                matched = false;
+            }
+            if (matched) {
+                hits[row >>> 6] |= 1L << row;
+            }
+        }
+        return hits;
+    }
+
+    private static void copy(EvidenceBatch batch, int slot, int row, EvidenceSlots.Builder builder) {
+        switch (batch.kind(slot)) {
+            case EvidenceSlots.LONG:
+                builder.setLong(slot, batch.longColumn(slot)[row]);
+                break;
+            case EvidenceSlots.DOUBLE:
+                builder.setDouble(slot, batch.doubleColumn(slot)[row]);
+                break;
+            case EvidenceSlots.BOOLEAN:
+                builder.setBoolean(slot, batch.longColumn(slot)[row] != 0L);
+                break;
+            default:
+                builder.setReference(slot, batch.referenceColumn(slot)[row]);
+        }
+    }
+}
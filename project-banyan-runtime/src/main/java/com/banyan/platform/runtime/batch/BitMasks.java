@@ -0,0 +1,43 @@
+package com.banyan.platform.runtime.batch;
+
+import java.util.Arrays;
+
+/*
+ * Row masks are long[] words, row i at bit (i & 63) of word i >>> 6.
+ * Bits past the batch size are always clear.
+ */
+final class BitMasks {
+
+    private BitMasks() {
+    }
+
+    static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    static long[] all(int size) {
+        long[] mask = new long[words(size)];
+        Arrays.fill(mask, -1L);
+        if ((size & 63) != 0) {
+            mask[mask.length - 1] = -1L >>> (64 - (size & 63));
+        }
+        return mask;
+    }
+
+    static long[] and(long[] left, long[] right) {
+        long[] result = new long[right.length];
+        for (int w = 0; w < right.length; w++) {
+            result[w] = left[w] & right[w];
+        }
+        return result;
+    }
+
+    static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,167 @@
+package com.banyan.platform.runtime.batch;
+
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+/*
+ * Column-oriented evidence for offline scoring: one primitive array per
+ * evidence field, indexed by row, plus a presence bit mask per column
+ * (bit i of word i >>> 6). Columns are keyed by the slots of an
+ * EvidenceLayout and use the EvidenceSlots kind constants.
+ *
+ * Arrays are held by reference, not copied.
+ */
+public final class EvidenceBatch {
+
+    private final EvidenceLayout layout;
+    private final int size;
+    private final long[] all;
+    private final long[] none;
+    private final byte[] kinds;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final Object[][] references;
+    private final long[][] present;
+
+    public EvidenceBatch(EvidenceLayout layout, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative batch size: " + size);
+        }
+        int columns = layout.size();
+        this.layout = layout;
+        this.size = size;
+        this.all = BitMasks.all(size);
+        this.none = new long[all.length];
+        this.kinds = new byte[columns];
+        this.longs = new long[columns][];
+        this.doubles = new double[columns][];
+        this.references = new Object[columns][];
+        this.present = new long[columns][];
+    }
+
+    public EvidenceLayout layout() {
+        return layout;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte kind(int slot) {
+        return kinds[slot];
+    }
+
+    public long[] longColumn(int slot) {
+        return longs[slot];
+    }
+
+    public double[] doubleColumn(int slot) {
+        return doubles[slot];
+    }
+
+    public Object[] referenceColumn(int slot) {
+        return references[slot];
+    }
+
+    // Words of rows that carry a value; all zero for a column never set
+    public long[] presence(int slot) {
+        long[] mask = present[slot];
+        return mask != null ? mask : none;
+    }
+
+    public Object value(int slot, int row) {
+        switch (kinds[slot]) {
+            case EvidenceSlots.LONG:
+                return longs[slot][row];
+            case EvidenceSlots.DOUBLE:
+                return doubles[slot][row];
+            case EvidenceSlots.BOOLEAN:
+                return longs[slot][row] != 0L;
+            case EvidenceSlots.REFERENCE:
+                return references[slot][row];
+            default:
+                return null;
+        }
+    }
+
+    public EvidenceBatch longs(String field, long[] values) {
+        return longs(field, values, null);
+    }
+
+    public EvidenceBatch longs(String field, long[] values, long[] presence) {
+        int slot = column(field, values.length, presence);
+        if (slot != EvidenceLayout.UNBOUND) {
+            set(slot, EvidenceSlots.LONG, presence);
+            longs[slot] = values;
+        }
+        return this;
+    }
+
+    public EvidenceBatch doubles(String field, double[] values) {
+        return doubles(field, values, null);
+    }
+
+    public EvidenceBatch doubles(String field, double[] values, long[] presence) {
+        int slot = column(field, values.length, presence);
+        if (slot != EvidenceLayout.UNBOUND) {
+            set(slot, EvidenceSlots.DOUBLE, presence);
+            doubles[slot] = values;
+        }
+        return this;
+    }
+
+    public EvidenceBatch booleans(String field, boolean[] values) {
+        return booleans(field, values, null);
+    }
+
+    // Stored as 0/1 longs, as EvidenceSlots does
+    public EvidenceBatch booleans(String field, boolean[] values, long[] presence) {
+        int slot = column(field, values.length, presence);
+        if (slot != EvidenceLayout.UNBOUND) {
+            long[] column = new long[size];
+            for (int i = 0; i < size; i++) {
+                column[i] = values[i] ? 1L : 0L;
+            }
+            set(slot, EvidenceSlots.BOOLEAN, presence);
+            longs[slot] = column;
+        }
+        return this;
+    }
+
+    // Null entries are absent
+    public EvidenceBatch references(String field, Object[] values) {
+        int slot = column(field, values.length, null);
+        if (slot != EvidenceLayout.UNBOUND) {
+            long[] mask = new long[all.length];
+            for (int i = 0; i < size; i++) {
+                if (values[i] != null) {
+                    mask[i >>> 6] |= 1L << i;
+                }
+            }
+            set(slot, EvidenceSlots.REFERENCE, mask);
+            references[slot] = values;
+        }
+        return this;
+    }
+
+    // Fields not declared by the layout are ignored
+    private int column(String field, int length, long[] presence) {
+        if (length < size) {
+            throw new IllegalArgumentException(
+                    "Column " + field + " has " + length + " rows, batch has " + size);
+        }
+        if (presence != null && presence.length < all.length) {
+            throw new IllegalArgumentException(
+                    "Presence mask of " + field + " is shorter than the batch");
+        }
+        return layout.slot(field);
+    }
+
+    private void set(int slot, byte kind, long[] presence) {
+        kinds[slot] = kind;
+        longs[slot] = null;
+        doubles[slot] = null;
+        references[slot] = null;
+        present[slot] = presence == null ? all : BitMasks.and(presence, all);
+    }
+}
@@ -0,0 +1,259 @@
+package com.banyan.platform.runtime.bulk;
+
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.challenge.TaskNode;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceReader;
+import com.banyan.platform.runtime.EvidenceSlots;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Evaluates a challenge for every record of a line-oriented evidence file
+ * and writes one decision line per record, in input order.
+ *
+ * A reader thread cuts the input into chunks of chunkSize lines and hands
+ * each to a pool of worker threads, which parse and evaluate it with their
+ * own reused EvidenceSlots.Builder. The calling thread writes finished
+ * chunks in submission order. At most 2 * threads chunks are in flight:
+ * when the writer falls behind, the reader blocks, so memory stays bounded
+ * however large the input is.
+ *
+ * A record that cannot be parsed or evaluated yields an error line rather
+ * than failing the run. Blank lines are skipped; line numbers count them.
+ */
+public final class BulkEvaluator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private static final CompletableFuture<Chunk> END = CompletableFuture.completedFuture(null);
+
+    public record Summary(long records, long failed) {
+    }
+
+    // Output text of consecutive records
+    private record Chunk(String text, int records, int failed) {
+    }
+
+    private final CompiledChallenge challenge;
+    private final EvidenceReader reader;
+    private final RecordFormat format;
+    private final int threads;
+    private final int chunkSize;
+    private final ThreadLocal<EvidenceSlots.Builder> builders;
+
+    public BulkEvaluator(
+            CompiledChallenge challenge,
+            EvidenceReader reader,
+            RecordFormat format,
+            int threads,
+            int chunkSize
+    ) {
+        if (threads < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException(
+                    "Threads and chunk size must be positive: " + threads + ", " + chunkSize);
+        }
+        this.challenge = challenge;
+        this.reader = reader;
+        this.format = format;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.builders = ThreadLocal.withInitial(reader.layout()::newBuilder);
+    }
+
+    public Summary run(BufferedReader in, Writer out) throws IOException {
+
+        CsvEvidenceParser csv = null;
+        long line = 0;
+        if (format == RecordFormat.CSV) {
+            String header = in.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV input without header line");
+            }
+            csv = new CsvEvidenceParser(reader, header);
+            line = 1;
+            out.write(csvHeader());
+        }
+
+        BlockingQueue<Future<Chunk>> pending = new ArrayBlockingQueue<>(2 * threads);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CsvEvidenceParser parser = csv;
+        long first = line + 1;
+        Thread producer = Thread.ofPlatform()
+                .name("banyan-eval-reader")
+                .daemon()
+                .start(() -> produce(in, first, parser, workers, pending));
+
+        try {
+            long records = 0;
+            long failed = 0;
+            for (Future<Chunk> next = pending.take(); next != END; next = pending.take()) {
+                Chunk chunk = join(next);
+                out.write(chunk.text());
+                records += chunk.records();
+                failed += chunk.failed();
+            }
+            out.flush();
+            return new Summary(records, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing decisions");
+        } finally {
+            producer.interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    private void produce(
+            BufferedReader in,
+            long first,
+            CsvEvidenceParser csv,
+            ExecutorService workers,
+            BlockingQueue<Future<Chunk>> pending
+    ) {
+        try {
+            try {
+                List<String> lines = new ArrayList<>(chunkSize);
+                String text;
+                while ((text = in.readLine()) != null) {
+                    lines.add(text);
+                    if (lines.size() == chunkSize) {
+                        pending.put(submit(workers, lines, first, csv));
+                        first += chunkSize;
+                        lines = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    pending.put(submit(workers, lines, first, csv));
+                }
+            } catch (IOException | RuntimeException e) {
+                pending.put(CompletableFuture.failedFuture(e));
+            }
+            pending.put(END);
+        } catch (InterruptedException e) {
+            // the writer stopped
+        }
+    }
+
+    private Future<Chunk> submit(ExecutorService workers, List<String> lines, long first, CsvEvidenceParser csv) {
+        return workers.submit(() -> evaluate(lines, first, csv));
+    }
+
+    private Chunk evaluate(List<String> lines, long first, CsvEvidenceParser csv) {
+
+        EvidenceSlots.Builder builder = builders.get();
+        StringBuilder text = new StringBuilder(lines.size() * 64);
+        int records = 0;
+        int failed = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String record = lines.get(i);
+            if (record.isBlank()) {
+                continue;
+            }
+            records++;
+            long line = first + i;
+            try {
+                EvidenceContext evidence = csv != null
+                        ? csv.parse(record, builder)
+                        : reader.read(record, builder);
+                appendDecisions(text, line, challenge.evaluate(evidence));
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                appendError(text, line, e);
+            }
+        }
+        return new Chunk(text.toString(), records, failed);
+    }
+
+    // One column per result key: task ids are unique within a challenge
+    private String csvHeader() {
+        StringBuilder header = new StringBuilder("line");
+        for (TaskNode task : challenge.getTasks()) {
+            header.append(',').append(csvCell(task.getTaskId()));
+        }
+        return header.append(",error\n").toString();
+    }
+
+    private void appendDecisions(StringBuilder text, long line, Map<String, Boolean> decisions) {
+        if (format == RecordFormat.CSV) {
+            text.append(line);
+            for (Boolean decision : decisions.values()) {
+                text.append(',').append(decision);
+            }
+            text.append(",\n");
+            return;
+        }
+        text.append("{\"line\":").append(line).append(",\"decisions\":{");
+        boolean firstTask = true;
+        for (Map.Entry<String, Boolean> decision : decisions.entrySet()) {
+            if (!firstTask) {
+                text.append(',');
+            }
+            firstTask = false;
+            text.append('"').append(JsonStringEncoder.getInstance().quoteAsString(decision.getKey()))
+                    .append("\":").append(decision.getValue());
+        }
+        text.append("}}\n");
+    }
+
+    private void appendError(StringBuilder text, long line, Exception e) {
+        String message = message(e);
+        if (format == RecordFormat.CSV) {
+            text.append(line);
+            text.append(",".repeat(challenge.getTaskCount()));
+            text.append(',').append(csvCell(message)).append('\n');
+            return;
+        }
+        text.append("{\"line\":").append(line).append(",\"error\":\"")
+                .append(JsonStringEncoder.getInstance().quoteAsString(message))
+                .append("\"}\n");
+    }
+
+    // First line only; Jackson appends the source location on further lines
+    private static String message(Exception e) {
+        String message = e.getMessage();
+        if (message == null) {
+            return e.getClass().getSimpleName();
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    private static String csvCell(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static Chunk join(Future<Chunk> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
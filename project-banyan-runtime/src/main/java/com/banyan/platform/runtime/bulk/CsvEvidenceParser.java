@@ -0,0 +1,112 @@
+package com.banyan.platform.runtime.bulk;
+
+import com.banyan.compiler.enums.EvidenceValueType;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.EvidenceReader;
+import com.banyan.platform.runtime.EvidenceSlots;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Reads CSV records into EvidenceSlots. The header names the evidence
+ * fields; cells are typed by the field's declared EvidenceValueType, so
+ * INTEGER becomes LONG and DECIMAL DOUBLE, as the same JSON numbers would.
+ * An empty cell is missing evidence. Columns no rule reads are skipped.
+ *
+ * Quoted cells may contain commas and doubled quotes, but not line
+ * breaks: one record is one line.
+ */
+public final class CsvEvidenceParser {
+
+    private final EvidenceLayout layout;
+    // slot of each column, UNBOUND when skipped
+    private final int[] slots;
+
+    public CsvEvidenceParser(EvidenceReader reader, String header) {
+        this.layout = reader.layout();
+        List<String> columns = split(header);
+        this.slots = new int[columns.size()];
+        for (int i = 0; i < slots.length; i++) {
+            String field = columns.get(i).trim();
+            slots[i] = reader.isProjected(field) ? layout.slot(field) : EvidenceLayout.UNBOUND;
+        }
+    }
+
+    public EvidenceContext parse(String line, EvidenceSlots.Builder builder) {
+
+        List<String> cells = split(line);
+        if (cells.size() != slots.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + slots.length + " columns, found " + cells.size());
+        }
+
+        builder.reset();
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            String cell = cells.get(i);
+            if (slot == EvidenceLayout.UNBOUND || cell.isEmpty()) {
+                continue;
+            }
+            set(builder, slot, layout.type(slot), cell);
+        }
+        return builder.build();
+    }
+
+    private void set(EvidenceSlots.Builder builder, int slot, EvidenceValueType type, String cell) {
+        try {
+            switch (type) {
+                case INTEGER -> builder.setLong(slot, Long.parseLong(cell.trim()));
+                case DECIMAL -> builder.setDouble(slot, Double.parseDouble(cell.trim()));
+                case BOOLEAN -> builder.setBoolean(slot, parseBoolean(cell.trim()));
+                default -> builder.setReference(slot, cell);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Not " + type + " for " + layout.field(slot) + ": " + cell);
+        }
+    }
+
+    private static boolean parseBoolean(String cell) {
+        if (cell.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (cell.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new NumberFormatException(cell);
+    }
+
+    static List<String> split(String line) {
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    cell.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted cell");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
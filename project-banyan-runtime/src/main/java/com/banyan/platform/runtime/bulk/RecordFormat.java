@@ -0,0 +1,16 @@
+package com.banyan.platform.runtime.bulk;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+// One evidence record per line; CSV starts with a header line
+public enum RecordFormat {
+    NDJSON,
+    CSV;
+
+    // By file extension: .csv is CSV, anything else NDJSON
+    public static RecordFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") ? CSV : NDJSON;
+    }
+}
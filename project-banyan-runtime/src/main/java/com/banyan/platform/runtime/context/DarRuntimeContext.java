@@ -2,20 +2,25 @@ package com.banyan.platform.runtime.context;
 
 import com.banyan.compiler.backend.challenge.CompiledChallenge;
 import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.program.RulesetProgram;
 import com.banyan.compiler.backend.rule.CompiledRule;
 import com.banyan.compiler.backend.ruleset.CompiledRuleset;
 import com.banyan.compiler.backend.task.CompiledTask;
 import com.banyan.platform.runtime.darLoader.ZipDarLoader;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Map;
 
-public final class DarRuntimeContext {
+public final class DarRuntimeContext implements Closeable {
 
     private final Map<ChallengeKey, CompiledChallenge> challenges;
     private final Map<TaskKey, CompiledTask> tasks;
     private final Map<RulesetKey, CompiledRuleset> rulesets;
     private final Map<RuleKey, CompiledRule> rules;
     private final Map<EvidenceTypeKey, CompiledEvidenceType> evidenceTypes;
+    private final Map<RulesetKey, RulesetProgram> programs;
+    private final Closeable archive;
 
 
     public record ChallengeKey(int version, String name) {
@@ -39,12 +44,51 @@ public final class DarRuntimeContext {
             Map<RulesetKey, CompiledRuleset> rulesets,
             Map<RuleKey, CompiledRule> rules,
             Map<EvidenceTypeKey, CompiledEvidenceType> evidenceTypes
+    ) {
+        this(challenges, tasks, rulesets, rules, evidenceTypes, Map.of());
+    }
+
+    // programs holds the precompiled RulesetPrograms whose sourceHash matched their ruleset
+    public DarRuntimeContext(
+            Map<ChallengeKey, CompiledChallenge> challenges,
+            Map<TaskKey, CompiledTask> tasks,
+            Map<RulesetKey, CompiledRuleset> rulesets,
+            Map<RuleKey, CompiledRule> rules,
+            Map<EvidenceTypeKey, CompiledEvidenceType> evidenceTypes,
+            Map<RulesetKey, RulesetProgram> programs
+    ) {
+        this(challenges, tasks, rulesets, rules, evidenceTypes, programs, null);
+    }
+
+    // archive backs maps that bind artifacts on first read; close() releases it
+    public DarRuntimeContext(
+            Map<ChallengeKey, CompiledChallenge> challenges,
+            Map<TaskKey, CompiledTask> tasks,
+            Map<RulesetKey, CompiledRuleset> rulesets,
+            Map<RuleKey, CompiledRule> rules,
+            Map<EvidenceTypeKey, CompiledEvidenceType> evidenceTypes,
+            Map<RulesetKey, RulesetProgram> programs,
+            Closeable archive
     ) {
         this.challenges = challenges;
         this.tasks = tasks;
         this.rulesets = rulesets;
         this.rules = rules;
         this.evidenceTypes = evidenceTypes;
+        this.programs = programs;
+        this.archive = archive;
+    }
+
+    /*
+     * Releases the archive of a lazily loaded context; artifacts already
+     * bound stay readable, unbound ones can no longer be read. A no-op for
+     * fully loaded contexts. DarRuntimeStore calls it on unload.
+     */
+    @Override
+    public void close() throws IOException {
+        if (archive != null) {
+            archive.close();
+        }
     }
 
     public CompiledChallenge challenge(ChallengeKey key) {
@@ -67,6 +111,11 @@ public final class DarRuntimeContext {
         return require(evidenceTypes, key, "EvidenceType");
     }
 
+    // Null when the DAR carries no valid program for the ruleset
+    public RulesetProgram program(RulesetKey key) {
+        return programs.get(key);
+    }
+
     private static <K, V> V require(Map<K, V> map, K key, String type) {
         V value = map.get(key);
         if (value == null) {
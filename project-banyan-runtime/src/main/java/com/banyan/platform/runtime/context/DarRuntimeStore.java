@@ -2,17 +2,29 @@ package com.banyan.platform.runtime.context;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public final class DarRuntimeStore {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DarRuntimeStore.class);
+
     private final Cache<DarId, DarRuntimeContext> cache;
+    private final List<Consumer<DarId>> unloadListeners = new CopyOnWriteArrayList<>();
 
     public DarRuntimeStore(long maxSize, Duration expiry) {
+        // listeners run on the removing thread, so unload() returns after them
         this.cache = Caffeine.newBuilder()
                 .maximumSize(maxSize)
                 .expireAfterAccess(expiry)
+                .executor(Runnable::run)
+                .<DarId, DarRuntimeContext>removalListener((id, context, cause) -> unloaded(id, context))
                 .build();
     }
 
@@ -29,7 +41,36 @@ public final class DarRuntimeStore {
         return ctx;
     }
 
+    // Whether context is still the one loaded under id
+    public boolean isLoaded(DarId id, DarRuntimeContext context) {
+        return cache.getIfPresent(id) == context;
+    }
+
     public void unload(DarId id) {
         cache.invalidate(id);
     }
+
+    // Called when a DAR is unloaded, replaced, evicted or expires, before its context is closed
+    public void onUnload(Consumer<DarId> listener) {
+        unloadListeners.add(listener);
+    }
+
+    private void unloaded(DarId id, DarRuntimeContext context) {
+        if (id == null) {
+            return;
+        }
+        unloadListeners.forEach(listener -> listener.accept(id));
+        // a context registered again under its own id stays open
+        if (context != null && cache.asMap().get(id) != context) {
+            close(id, context);
+        }
+    }
+
+    private static void close(DarId id, DarRuntimeContext context) {
+        try {
+            context.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close DAR {}: {}", id, e.getMessage());
+        }
+    }
 }
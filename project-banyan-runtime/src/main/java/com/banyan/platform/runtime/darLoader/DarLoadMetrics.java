@@ -0,0 +1,25 @@
+package com.banyan.platform.runtime.darLoader;
+
+import com.banyan.compiler.enums.ArtifactType;
+
+import java.time.Duration;
+import java.util.Map;
+
+/*
+ * Where the time of one ZipDarLoader load went. bindTime sums the worker
+ * time spent inflating and binding the artifacts of a type, so with several
+ * threads it can exceed the wall-clock total.
+ */
+public record DarLoadMetrics(
+        Duration total,
+        int threads,
+        Map<ArtifactType, TypeMetrics> types
+) {
+
+    public record TypeMetrics(int artifacts, long bytes, Duration bindTime) {
+    }
+
+    public int artifacts() {
+        return types.values().stream().mapToInt(TypeMetrics::artifacts).sum();
+    }
+}
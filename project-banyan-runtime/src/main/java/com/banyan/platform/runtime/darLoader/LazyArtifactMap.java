@@ -0,0 +1,121 @@
+package com.banyan.platform.runtime.darLoader;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+
+/*
+ * Read-only map over the artifacts of one type in a DAR. Keys come from the
+ * manifest; a value is bound from its zip entry on first get and memoized,
+ * so concurrent first lookups of one key bind it once.
+ */
+final class LazyArtifactMap<K, V> extends AbstractMap<K, V> {
+
+    interface Resolver<K, V> {
+        V resolve(K key, ZipEntry entry) throws IOException;
+    }
+
+    private final Map<K, ZipEntry> index;
+    private final Resolver<K, V> resolver;
+    private final ConcurrentHashMap<K, V> resolved;
+
+    LazyArtifactMap(Map<K, ZipEntry> index, Resolver<K, V> resolver) {
+        this.index = index;
+        this.resolver = resolver;
+        this.resolved = new ConcurrentHashMap<>(index.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        ZipEntry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        return resolved.computeIfAbsent((K) key, k -> {
+            try {
+                return resolver.resolve(k, entry);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + entry.getName(), e);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                Iterator<K> keys = index.keySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        return new LazyEntry(keys.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    // Binds its value only when read
+    private final class LazyEntry implements Entry<K, V> {
+
+        private final K key;
+
+        private LazyEntry(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> entry
+                    && key.equals(entry.getKey())
+                    && getValue().equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+    }
+}
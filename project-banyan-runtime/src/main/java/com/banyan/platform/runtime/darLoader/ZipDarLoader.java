@@ -1,116 +1,417 @@
 package com.banyan.platform.runtime.darLoader;
 
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Enumeration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import com.banyan.compiler.backend.api.CompiledArtifact;
 import com.banyan.compiler.backend.challenge.CompiledChallenge;
-import com.banyan.compiler.backend.challenge.CompiledChallengeArtifact;
+import com.banyan.compiler.backend.emitter.BinaryArtifactFormat;
+import com.banyan.compiler.backend.emitter.ManifestsJson;
 import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
-import com.banyan.compiler.backend.evidence.CompiledEvidenceTypeArtifact;
+import com.banyan.compiler.backend.program.RulesetProgram;
 import com.banyan.compiler.backend.rule.CompiledRule;
-import com.banyan.compiler.backend.rule.CompiledRuleArtifact;
 import com.banyan.compiler.backend.ruleset.CompiledRuleset;
-import com.banyan.compiler.backend.ruleset.CompiledRulesetArtifact;
-import com.banyan.compiler.backend.ruleset.RulesetExpression;
 import com.banyan.compiler.backend.task.CompiledTask;
 
-import com.banyan.compiler.backend.task.CompiledTaskArtifact;
+import com.banyan.compiler.enums.ArtifactType;
 import com.banyan.platform.deserializer.*;
 
-import com.banyan.platform.runtime.context.DarId;
 import com.banyan.platform.runtime.context.DarRuntimeContext;
-import com.banyan.platform.runtime.context.DarRuntimeStore;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 
+/*
+ * Loads a DAR into a DarRuntimeContext. Entries are inflated and bound on a
+ * bounded pool, each streamed straight from the zip into its compiled
+ * artifact without an intermediate JsonNode tree. Entries ending in .bin
+ * are in the BinaryArtifactFormat and read by BinaryArtifactReader; both
+ * encodings may appear in one DAR. A Ruleset's .program sidecar under
+ * Program/, see RulesetProgramReader, is kept only when its sourceHash
+ * equals the contentHash of the ruleset with the same version and id. Results are collected in
+ * entry order on the calling thread, so the context never sees concurrent
+ * writes and its maps are sized up front from the zip's central directory.
+ */
 public final class ZipDarLoader {
 
     private static final Logger LOGGER =
             LoggerFactory.getLogger(ZipDarLoader.class);
     private static  final ObjectMapper mapper = new ObjectMapper();
+    private static final String MANIFEST = "manifests.json";
+
+    private static final CompiledChallengeArtifactDeserializer CHALLENGE =
+            new CompiledChallengeArtifactDeserializer(mapper);
+    private static final CompiledTaskArtifactDeserializer TASK =
+            new CompiledTaskArtifactDeserializer(mapper);
+    private static final CompiledRulesetArtifactDeserializer RULESET =
+            new CompiledRulesetArtifactDeserializer(mapper);
+    private static final CompiledRuleArtifactDeserializer RULE =
+            new CompiledRuleArtifactDeserializer(mapper);
+    private static final CompiledEvidenceTypeArtifactDeserializer EVIDENCETYPE =
+            new CompiledEvidenceTypeArtifactDeserializer(mapper);
+    private static final BinaryArtifactReader BINARY = new BinaryArtifactReader();
+    private static final RulesetProgramReader PROGRAM = new RulesetProgramReader();
 
+    public record DarLoad(DarRuntimeContext context, DarLoadMetrics metrics) {
+    }
+
+    // One bound entry; key and payload types follow the artifact type
+    private record Bound(ArtifactType type, Object key, Object payload, String contentHash, long bytes, long nanos) {
+    }
 
     public static DarRuntimeContext load(String darPath) throws Exception {
-        Map<DarRuntimeContext.ChallengeKey, CompiledChallenge> challenges = new HashMap<>();
-        Map<DarRuntimeContext.TaskKey, CompiledTask> tasks = new HashMap<>();
-        Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets = new HashMap<>();
-        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
-        Map<DarRuntimeContext.EvidenceTypeKey, CompiledEvidenceType> evidenceTypes = new HashMap<>();
-
-        CompiledChallengeArtifactDeserializer CHALLENGE =
-                new CompiledChallengeArtifactDeserializer(mapper);
-        CompiledTaskArtifactDeserializer TASK =
-                new CompiledTaskArtifactDeserializer(mapper);
-        CompiledRulesetArtifactDeserializer RULESET =
-                new CompiledRulesetArtifactDeserializer(mapper);
-        CompiledRuleArtifactDeserializer RULE =
-                new CompiledRuleArtifactDeserializer(mapper);
-        CompiledEvidenceTypeArtifactDeserializer EVIDENCETYPE =
-                new CompiledEvidenceTypeArtifactDeserializer(mapper);
+        return loadWithMetrics(darPath, Runtime.getRuntime().availableProcessors()).context();
+    }
+
+    /*
+     * Reads only manifests.json up front; each artifact is bound on first
+     * lookup and then kept. Iterating keys binds nothing, reading an entry's
+     * value binds that artifact. The archive stays open until the context
+     * is closed, which DarRuntimeStore does when the DAR is unloaded.
+     */
+    public static DarRuntimeContext loadLazy(String darPath) throws IOException {
+
+        ZipFile zip = new ZipFile(darPath);
+        try {
+            ZipEntry manifestEntry = zip.getEntry(MANIFEST);
+            if (manifestEntry == null) {
+                throw new IllegalStateException("DAR has no " + MANIFEST + ": " + darPath);
+            }
+            ManifestsJson manifest;
+            try (InputStream in = zip.getInputStream(manifestEntry)) {
+                manifest = mapper.readValue(in, ManifestsJson.class);
+            }
+
+            Map<ArtifactType, List<ZipEntry>> entries = new EnumMap<>(ArtifactType.class);
+            List<ZipEntry> programEntries = new ArrayList<>();
+            for (String name : manifest.fileLists()) {
+                ZipEntry entry = zip.getEntry(name);
+                if (RulesetProgramReader.isProgram(name) && entry != null) {
+                    programEntries.add(entry);
+                    continue;
+                }
+                ArtifactType type = typeOf(name.replace('\\', '/'));
+                if (type == null || entry == null) {
+                    throw new IllegalStateException("Manifest entry not in DAR: " + name);
+                }
+                entries.computeIfAbsent(type, t -> new ArrayList<>()).add(entry);
+            }
+
+            LOGGER.info("Indexed {} artifacts from {}", manifest.fileLists().size(), darPath);
+            Map<DarRuntimeContext.RulesetKey, String> hashes = new ConcurrentHashMap<>();
+            LazyArtifactMap<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets =
+                    lazyMap(zip, ArtifactType.Ruleset, entries, DarRuntimeContext.RulesetKey::new, hashes);
+            return new DarRuntimeContext(
+                    lazyMap(zip, ArtifactType.Challenge, entries, DarRuntimeContext.ChallengeKey::new, null),
+                    lazyMap(zip, ArtifactType.Task, entries, DarRuntimeContext.TaskKey::new, null),
+                    rulesets,
+                    lazyMap(zip, ArtifactType.Rule, entries, DarRuntimeContext.RuleKey::new, null),
+                    lazyMap(zip, ArtifactType.EvidenceType, entries, DarRuntimeContext.EvidenceTypeKey::new, null),
+                    lazyPrograms(zip, programEntries, rulesets, hashes),
+                    zip
+            );
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    public static DarLoad loadWithMetrics(String darPath, int threads) throws Exception {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        }
+        long start = System.nanoTime();
 
         try (ZipFile zip = new ZipFile(darPath)) {
-            Enumeration<? extends ZipEntry> entries = zip.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                if (entry.isDirectory()) continue;
-                String name = entry.getName();
-                InputStream in = zip.getInputStream(entry);
-                if (name.startsWith("Challenge/")) {
-                    LOGGER.info(name);
-                    JsonNode names = mapper.readTree(in);
-                    CompiledChallengeArtifact artifact = CHALLENGE.deserialize(names);
-                    challenges.put(new DarRuntimeContext.ChallengeKey(artifact.version(),artifact.id()),artifact.payload());
-                } else if (name.startsWith("Task/")) {
-                    LOGGER.info(name);
-                    JsonNode names = mapper.readTree(in);
-                    CompiledTaskArtifact artifact = TASK.deserialize(names);
-                    tasks.put(new DarRuntimeContext.TaskKey(artifact.version(), artifact.id()),artifact.payload());
-
-                } else if (name.startsWith("Ruleset/")) {
-                    LOGGER.info(name);
-                    JsonNode names = mapper.readTree(in);
-                    CompiledRulesetArtifact artifact = RULESET.deserialize(names);
-                    artifact.dependencies().forEach(task->{System.out.println(task.id()+task.type()+task.version());});
-                    rulesets.put(new DarRuntimeContext.RulesetKey(artifact.version(), artifact.id()),artifact.payload());
-                } else if (name.startsWith("Rule/")) {
-                    LOGGER.info(name);
-                    JsonNode names = mapper.readTree(in);
-                    CompiledRuleArtifact artifact = RULE.deserialize(names);
-                    rules.put(new DarRuntimeContext.RuleKey(artifact.version(), artifact.id()),artifact.payload());
-                } else if (name.startsWith("EvidenceType/")) {
-                    LOGGER.info(name);
-                    JsonNode names = mapper.readTree(in);
-                    CompiledEvidenceTypeArtifact artifact = EVIDENCETYPE.deserialize(names);
-                    evidenceTypes.put(new DarRuntimeContext.EvidenceTypeKey(artifact.version(), artifact.id()),artifact.payload());
+            List<ZipEntry> entries = new ArrayList<>();
+            List<ArtifactType> types = new ArrayList<>();
+            List<ZipEntry> programEntries = new ArrayList<>();
+            Map<ArtifactType, Integer> counts = new EnumMap<>(ArtifactType.class);
+            zip.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> {
+                if (RulesetProgramReader.isProgram(entry.getName())) {
+                    programEntries.add(entry);
+                    return;
+                }
+                ArtifactType type = typeOf(entry.getName());
+                if (type != null) {
+                    entries.add(entry);
+                    types.add(type);
+                    counts.merge(type, 1, Integer::sum);
+                }
+            });
+
+            Map<DarRuntimeContext.ChallengeKey, CompiledChallenge> challenges =
+                    HashMap.newHashMap(counts.getOrDefault(ArtifactType.Challenge, 0));
+            Map<DarRuntimeContext.TaskKey, CompiledTask> tasks =
+                    HashMap.newHashMap(counts.getOrDefault(ArtifactType.Task, 0));
+            Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets =
+                    HashMap.newHashMap(counts.getOrDefault(ArtifactType.Ruleset, 0));
+            Map<DarRuntimeContext.RuleKey, CompiledRule> rules =
+                    HashMap.newHashMap(counts.getOrDefault(ArtifactType.Rule, 0));
+            Map<DarRuntimeContext.EvidenceTypeKey, CompiledEvidenceType> evidenceTypes =
+                    HashMap.newHashMap(counts.getOrDefault(ArtifactType.EvidenceType, 0));
+
+            int workers = Math.min(threads, entries.size());
+            List<Bound> bound = workers <= 1
+                    ? bindAll(zip, entries, types)
+                    : bindAll(zip, entries, types, workers);
+
+            Map<DarRuntimeContext.RulesetKey, String> hashes = new HashMap<>();
+            Map<ArtifactType, long[]> totals = new EnumMap<>(ArtifactType.class);
+            for (Bound artifact : bound) {
+                switch (artifact.type()) {
+                    case Challenge -> challenges.put(
+                            (DarRuntimeContext.ChallengeKey) artifact.key(), (CompiledChallenge) artifact.payload());
+                    case Task -> tasks.put(
+                            (DarRuntimeContext.TaskKey) artifact.key(), (CompiledTask) artifact.payload());
+                    case Ruleset -> {
+                        rulesets.put((DarRuntimeContext.RulesetKey) artifact.key(), (CompiledRuleset) artifact.payload());
+                        if (artifact.contentHash() != null) {
+                            hashes.put((DarRuntimeContext.RulesetKey) artifact.key(), artifact.contentHash());
+                        }
+                    }
+                    case Rule -> rules.put(
+                            (DarRuntimeContext.RuleKey) artifact.key(), (CompiledRule) artifact.payload());
+                    case EvidenceType -> evidenceTypes.put(
+                            (DarRuntimeContext.EvidenceTypeKey) artifact.key(), (CompiledEvidenceType) artifact.payload());
+                }
+                long[] total = totals.computeIfAbsent(artifact.type(), type -> new long[3]);
+                total[0]++;
+                total[1] += artifact.bytes();
+                total[2] += artifact.nanos();
+            }
+
+            Map<DarRuntimeContext.RulesetKey, RulesetProgram> programs = HashMap.newHashMap(programEntries.size());
+            for (ZipEntry entry : programEntries) {
+                RulesetProgram program = readProgram(zip, entry);
+                DarRuntimeContext.RulesetKey key = programKey(program);
+                if (matches(program, hashes.get(key), entry)) {
+                    programs.put(key, program);
                 }
             }
-            return new DarRuntimeContext(challenges,tasks,rulesets,rules,evidenceTypes);
+
+            DarRuntimeContext context =
+                    new DarRuntimeContext(challenges, tasks, rulesets, rules, evidenceTypes, programs);
+            DarLoadMetrics metrics = new DarLoadMetrics(
+                    Duration.ofNanos(System.nanoTime() - start), Math.max(workers, 1), typeMetrics(totals));
+            LOGGER.info("Loaded {} artifacts from {} in {} ms on {} threads",
+                    metrics.artifacts(), darPath, metrics.total().toMillis(), metrics.threads());
+            return new DarLoad(context, metrics);
         }
     }
-/*
-    public static void main(String args[]) throws Exception {
-        DarRuntimeStore store = new DarRuntimeStore(10000L, Duration.ofMinutes(30));
-        DarRuntimeContext runtimeContext = ZipDarLoader.load("/Users/bharani/Documents/task-challenge-backend/project-banyan-runtime/src/main/resources/compilation_package.dar");
-        DarRuntimeContext.RulesetKey key = null;
-        DarRuntimeContext.RuleKey ruleKey = null;
-        for (var entry : runtimeContext.rulesets()) {
-            key = entry.getKey();
+
+    /*
+     * Keys come from the Type/version/id.json path and are checked on bind.
+     * Bound content hashes are recorded in hashes when it is given.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> LazyArtifactMap<K, V> lazyMap(
+            ZipFile zip,
+            ArtifactType type,
+            Map<ArtifactType, List<ZipEntry>> entries,
+            BiFunction<Integer, String, K> keyOf,
+            Map<K, String> hashes
+    ) {
+        Map<K, ZipEntry> index = new LinkedHashMap<>();
+        for (ZipEntry entry : entries.getOrDefault(type, List.of())) {
+            String[] path = entry.getName().split("[/\\\\]");
+            String file = path[path.length - 1];
+            String extension = BinaryArtifactReader.isBinary(file)
+                    ? BinaryArtifactFormat.BINARY_EXTENSION
+                    : BinaryArtifactFormat.JSON_EXTENSION;
+            if (path.length != 3 || !file.endsWith(extension)) {
+                throw new IllegalStateException("Unexpected artifact path: " + entry.getName());
+            }
+            int version;
+            try {
+                version = Integer.parseInt(path[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Unexpected artifact path: " + entry.getName());
+            }
+            index.put(keyOf.apply(version, file.substring(0, file.length() - extension.length())), entry);
         }
-        for (var entry : runtimeContext.rules()) {
-            ruleKey = entry.getKey();
+        return new LazyArtifactMap<>(index, (key, entry) -> {
+            Bound bound = bind(zip, entry, type);
+            if (!bound.key().equals(key)) {
+                throw new IllegalStateException(
+                        "Artifact " + entry.getName() + " declares " + bound.key());
+            }
+            if (hashes != null && bound.contentHash() != null) {
+                hashes.put(key, bound.contentHash());
+            }
+            return (V) bound.payload();
+        });
+    }
+
+    /*
+     * Reading a program first binds its ruleset for the hash. A program that
+     * does not match resolves to null, which is not memoized, so it is read
+     * again on the next lookup; ProgramLinker only looks each ruleset up once.
+     */
+    private static Map<DarRuntimeContext.RulesetKey, RulesetProgram> lazyPrograms(
+            ZipFile zip,
+            List<ZipEntry> programEntries,
+            Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets,
+            Map<DarRuntimeContext.RulesetKey, String> hashes
+    ) {
+        Map<DarRuntimeContext.RulesetKey, ZipEntry> index = new LinkedHashMap<>();
+        for (ZipEntry entry : programEntries) {
+            String[] path = entry.getName().split("[/\\\\]");
+            String file = path[path.length - 1];
+            if (path.length != 3 || !BinaryArtifactFormat.PROGRAM_DIRECTORY.equals(path[0])) {
+                throw new IllegalStateException("Unexpected program path: " + entry.getName());
+            }
+            int version;
+            try {
+                version = Integer.parseInt(path[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Unexpected program path: " + entry.getName());
+            }
+            String id = file.substring(0, file.length() - BinaryArtifactFormat.PROGRAM_EXTENSION.length());
+            index.put(new DarRuntimeContext.RulesetKey(version, id), entry);
+        }
+        return new LazyArtifactMap<>(index, (key, entry) -> {
+            RulesetProgram program = readProgram(zip, entry);
+            if (!programKey(program).equals(key)) {
+                throw new IllegalStateException(
+                        "Program " + entry.getName() + " declares " + programKey(program));
+            }
+            rulesets.get(key); // binds the ruleset, recording its hash
+            return matches(program, hashes.get(key), entry) ? program : null;
+        });
+    }
+
+    private static RulesetProgram readProgram(ZipFile zip, ZipEntry entry) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            return PROGRAM.read(in.readAllBytes());
+        }
+    }
+
+    private static DarRuntimeContext.RulesetKey programKey(RulesetProgram program) {
+        return new DarRuntimeContext.RulesetKey(program.rulesetVersion(), program.rulesetId());
+    }
+
+    // A stale or orphaned program is dropped; its ruleset keeps the tree form
+    private static boolean matches(RulesetProgram program, String contentHash, ZipEntry entry) {
+        if (contentHash != null && contentHash.equals(program.sourceHash())) {
+            return true;
+        }
+        LOGGER.warn("Ignoring {}: sourceHash {} does not match ruleset contentHash {}",
+                entry.getName(), program.sourceHash(), contentHash);
+        return false;
+    }
+
+    private static ArtifactType typeOf(String name) {
+        if (name.startsWith("Challenge/")) {
+            return ArtifactType.Challenge;
+        } else if (name.startsWith("Task/")) {
+            return ArtifactType.Task;
+        } else if (name.startsWith("Ruleset/")) {
+            return ArtifactType.Ruleset;
+        } else if (name.startsWith("Rule/")) {
+            return ArtifactType.Rule;
+        } else if (name.startsWith("EvidenceType/")) {
+            return ArtifactType.EvidenceType;
         }
-        DarId id = store.register(new DarId(key.version(),key.name()),runtimeContext);
-        RulesetExpression exp = runtimeContext.ruleset(key).root();
-        CompiledRule rule = runtimeContext.rule(ruleKey);
-        LOGGER.info("id {} : name {} expression {} compiledRule {}",id.darName(),id.uniqueId(),exp.toString(),rule.toString());
-    }*/
+        return null;
+    }
+
+    private static List<Bound> bindAll(ZipFile zip, List<ZipEntry> entries, List<ArtifactType> types)
+            throws IOException {
+        List<Bound> bound = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            bound.add(bind(zip, entries.get(i), types.get(i)));
+        }
+        return bound;
+    }
+
+    private static List<Bound> bindAll(ZipFile zip, List<ZipEntry> entries, List<ArtifactType> types, int workers)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Bound>> futures = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                ZipEntry entry = entries.get(i);
+                ArtifactType type = types.get(i);
+                futures.add(pool.submit(() -> bind(zip, entry, type)));
+            }
+            List<Bound> bound = new ArrayList<>(entries.size());
+            for (Future<Bound> future : futures) {
+                try {
+                    bound.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception cause) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+            }
+            return bound;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Bound bind(ZipFile zip, ZipEntry entry, ArtifactType type) throws IOException {
+        long start = System.nanoTime();
+        CompiledArtifact<?> artifact;
+        try (InputStream in = zip.getInputStream(entry)) {
+            artifact = BinaryArtifactReader.isBinary(entry.getName())
+                    ? BINARY.read(in.readAllBytes())
+                    : deserialize(in, type);
+        }
+        if (artifact.type() != type) {
+            throw new IllegalStateException("Entry " + entry.getName() + " holds a " + artifact.type());
+        }
+        String contentHash = artifact.metadata() == null ? null : artifact.metadata().getContentHash();
+        return new Bound(type, keyOf(type, artifact.version(), artifact.id()), artifact.payload(), contentHash,
+                entry.getSize(), System.nanoTime() - start);
+    }
+
+    private static CompiledArtifact<?> deserialize(InputStream in, ArtifactType type) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            return switch (type) {
+                case Challenge -> CHALLENGE.deserialize(parser);
+                case Task -> TASK.deserialize(parser);
+                case Ruleset -> RULESET.deserialize(parser);
+                case Rule -> RULE.deserialize(parser);
+                case EvidenceType -> EVIDENCETYPE.deserialize(parser);
+            };
+        }
+    }
+
+    private static Object keyOf(ArtifactType type, int version, String id) {
+        return switch (type) {
+            case Challenge -> new DarRuntimeContext.ChallengeKey(version, id);
+            case Task -> new DarRuntimeContext.TaskKey(version, id);
+            case Ruleset -> new DarRuntimeContext.RulesetKey(version, id);
+            case Rule -> new DarRuntimeContext.RuleKey(version, id);
+            case EvidenceType -> new DarRuntimeContext.EvidenceTypeKey(version, id);
+        };
+    }
+
+    private static Map<ArtifactType, DarLoadMetrics.TypeMetrics> typeMetrics(Map<ArtifactType, long[]> totals) {
+        Map<ArtifactType, DarLoadMetrics.TypeMetrics> metrics = new EnumMap<>(ArtifactType.class);
+        totals.forEach((type, total) -> metrics.put(type,
+                new DarLoadMetrics.TypeMetrics((int) total[0], total[1], Duration.ofNanos(total[2]))));
+        return metrics;
+    }
 }
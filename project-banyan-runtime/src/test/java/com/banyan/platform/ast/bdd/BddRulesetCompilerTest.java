@@ -0,0 +1,164 @@
+package com.banyan.platform.ast.bdd;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.EvaluationTrace;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BddRulesetCompilerTest {
+
+    @Test
+    void diagramMatchesTree() throws Exception {
+
+        List<Map<String, Object>> evidences = List.of(
+                Map.of("failedAttempts", 9, "country", "IN"),
+                Map.of("failedAttempts", 2, "businessHours", true),
+                Map.of("failedAttempts", 2, "businessHours", false, "country", "US"),
+                Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN"),
+                Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 90),
+                Map.of("country", "US"),
+                Map.of()
+        );
+
+        for (String dar : List.of(
+                "src/main/resources/compilation_package.dar",
+                "src/main/resources/compilation_driving_package.dar")) {
+
+            DarRuntimeContext context = ZipDarLoader.load(dar);
+            BddRulesetCompiler compiler = new BddRulesetCompiler(context);
+            for (var entry : context.rulesets()) {
+                ExecutableNode tree = new AstBuilder(context).build(entry.getKey());
+                ExecutableNode diagram = compiler.compile(entry.getKey());
+
+                assertSame(diagram, compiler.compile(entry.getKey()));
+                for (Map<String, Object> evidence : evidences) {
+                    assertSameDecision(tree, diagram, evidence, entry.getKey() + " " + evidence);
+                }
+            }
+        }
+    }
+
+    @Test
+    void repeatedPredicatesAreEvaluatedOnce() {
+
+        // (a > 50 AND b == X) OR (a > 50 AND c > 10) OR (b == X AND c > 10)
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        rules.put(new DarRuntimeContext.RuleKey(1, "a_high"), new CompiledRule("a", ">", 50, "THRESHOLD"));
+        rules.put(new DarRuntimeContext.RuleKey(1, "a_high_copy"), new CompiledRule("a", ">", 50, "THRESHOLD"));
+        rules.put(new DarRuntimeContext.RuleKey(1, "b_x"), new CompiledRule("b", "==", "X", "EQUALITY"));
+        rules.put(new DarRuntimeContext.RuleKey(1, "c_high"), new CompiledRule("c", ">", 10, "THRESHOLD"));
+
+        RulesetExpression root = or(
+                and(ref("a_high"), ref("b_x")),
+                and(ref("a_high_copy"), ref("c_high")),
+                and(ref("b_x"), ref("c_high"))
+        );
+        var key = new DarRuntimeContext.RulesetKey(1, "majority");
+        DarRuntimeContext context = new DarRuntimeContext(Map.of(), Map.of(),
+                Map.of(key, new CompiledRuleset(root)), rules, Map.of());
+
+        ExecutableNode tree = new AstBuilder(context).build(key);
+        DecisionDiagram diagram = assertInstanceOf(DecisionDiagram.class,
+                new BddRulesetCompiler(context).compile(key));
+        assertEquals(3, diagram.predicates());
+
+        List<Map<String, Object>> evidences = new ArrayList<>();
+        for (Object a : new Object[]{null, 10, 90}) {
+            for (Object b : new Object[]{null, "X", "Y"}) {
+                for (Object c : new Object[]{null, 5, 20}) {
+                    Map<String, Object> evidence = new HashMap<>();
+                    if (a != null) evidence.put("a", a);
+                    if (b != null) evidence.put("b", b);
+                    if (c != null) evidence.put("c", c);
+                    evidences.add(evidence);
+                }
+            }
+        }
+
+        EvaluationTrace.enable();
+        try {
+            for (Map<String, Object> evidence : evidences) {
+                assertSameDecision(tree, diagram, evidence, evidence.toString());
+
+                long mark = EvaluationTrace.position();
+                diagram.evaluate(new EvidenceContext(evidence));
+                List<EvaluationTrace.Entry> entries = EvaluationTrace.since(mark);
+                assertEquals(entries.size(), new HashSet<>(entries.stream()
+                        .map(EvaluationTrace.Entry::ruleId).toList()).size(), evidence.toString());
+                assertTrue(entries.size() <= 3);
+            }
+        } finally {
+            EvaluationTrace.disable();
+        }
+    }
+
+    @Test
+    void nodeLimitAppliesPerRuleset() {
+
+        // four rulesets, each an AND of its own three rules
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            List<RulesetExpression> operands = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                String id = "rule_" + i + "_" + j;
+                rules.put(new DarRuntimeContext.RuleKey(1, id), new CompiledRule("f" + i, ">", j, "THRESHOLD"));
+                operands.add(ref(id));
+            }
+            rulesets.put(new DarRuntimeContext.RulesetKey(1, "ruleset_" + i),
+                    new CompiledRuleset(new LogicalNode(LogicalOperator.AND, operands)));
+        }
+        DarRuntimeContext context = new DarRuntimeContext(Map.of(), Map.of(), rulesets, rules, Map.of());
+
+        // room for one ruleset's diagram, not for all of them together
+        BddRulesetCompiler compiler = new BddRulesetCompiler(context, null, 8);
+        for (var key : rulesets.keySet()) {
+            DecisionDiagram diagram = assertInstanceOf(DecisionDiagram.class, compiler.compile(key), key.toString());
+            assertEquals(3, diagram.size());
+        }
+    }
+
+    private static void assertSameDecision(
+            ExecutableNode tree,
+            ExecutableNode diagram,
+            Map<String, Object> evidence,
+            String message
+    ) {
+        assertEquals(tree.evaluate(new EvidenceContext(evidence)),
+                diagram.evaluate(new EvidenceContext(evidence)), message);
+        assertEquals(tree.evaluate(new EvidenceContext(evidence), null),
+                diagram.evaluate(new EvidenceContext(evidence), null), message);
+    }
+
+    private static RulesetExpression ref(String ruleId) {
+        return new RuleRefNode(ruleId, 1);
+    }
+
+    private static RulesetExpression and(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.AND, List.of(operands));
+    }
+
+    private static RulesetExpression or(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.OR, List.of(operands));
+    }
+}
@@ -1,12 +1,29 @@
 package com.banyan.platform.ast.builder;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.ast.node.EqualityDispatchNode;
 import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.LogicalExecutableNode;
+import com.banyan.platform.ast.node.SharedNode;
+import com.banyan.platform.ast.node.TriState;
 import com.banyan.platform.runtime.EvidenceContext;
 import com.banyan.platform.runtime.context.DarRuntimeContext;
 import com.banyan.platform.runtime.darLoader.ZipDarLoader;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AstBuilderTest {
@@ -97,4 +114,100 @@ void goodDriver() throws Exception {
         assertTrue(result);
     }
 
-}
\ No newline at end of file
+    @Test
+    void identicalRulesetsShareOneMemoizedNode() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+        AstBuilder builder = new AstBuilder(context);
+
+        ExecutableNode basic = builder.build(new DarRuntimeContext.RulesetKey(1, "basic_ruleset"));
+        ExecutableNode login = builder.build(new DarRuntimeContext.RulesetKey(1, "login_ruleset"));
+
+        assertSame(basic, login);
+        SharedNode shared = (SharedNode) basic;
+        assertTrue(shared.delegate() instanceof LogicalExecutableNode);
+
+        EvidenceContext evidence = new EvidenceContext(Map.of("failedAttempts", 9, "businessHours", true));
+        assertNull(evidence.memo(builder, 1).get(shared.id()));
+
+        boolean first = basic.evaluate(evidence);
+        TriState memoized = evidence.memo(builder, 1).get(shared.id());
+
+        assertEquals(first, login.evaluate(evidence));
+        assertEquals(first, memoized.isTrue());
+    }
+
+    @Test
+    void unsharedNodesAreNotWrapped() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        var key = context.rulesets().iterator().next().getKey();
+
+        ExecutableNode root = new AstBuilder(context).build(key);
+
+        assertFalse(root instanceof SharedNode);
+        for (ExecutableNode child : ((LogicalExecutableNode) root).children()) {
+            assertFalse(child instanceof SharedNode);
+        }
+    }
+
+    @Test
+    void orOfStringEqualitiesIsHashDispatched() {
+
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        List<RulesetExpression> operands = new ArrayList<>();
+        String[][] specs = {
+                {"country", "==", "IN"}, {"speed", ">", "100"}, {"country", "==", "US"},
+                {"country", "!=", "DE"}, {"country", "==", "IN"}, {"country", "!=", "FR"}
+        };
+        for (int i = 0; i < specs.length; i++) {
+            Object value = specs[i][0].equals("speed") ? (Object) 100 : specs[i][2];
+            rules.put(new DarRuntimeContext.RuleKey(1, "rule_" + i),
+                    new CompiledRule(specs[i][0], specs[i][1], value, "EQUALITY"));
+            operands.add(new RuleRefNode("rule_" + i, 1));
+        }
+        var key = new DarRuntimeContext.RulesetKey(1, "country_ruleset");
+        DarRuntimeContext context = new DarRuntimeContext(Map.of(), Map.of(),
+                Map.of(key, new CompiledRuleset(new LogicalNode(LogicalOperator.OR, operands))),
+                rules, Map.of());
+
+        LogicalExecutableNode root = (LogicalExecutableNode) new AstBuilder(context).build(key);
+
+        assertEquals(2, root.children().size());
+        EqualityDispatchNode dispatch = (EqualityDispatchNode) root.children().get(0);
+        assertEquals(5, dispatch.members().size());
+        assertEquals(4, dispatch.matching("IN"));
+        assertEquals(1, dispatch.matching("DE"));
+
+        for (String country : new String[]{"IN", "US", "DE", "FR", "JP"}) {
+            for (Map<String, Object> evidence : List.of(
+                    Map.<String, Object>of("country", country),
+                    Map.<String, Object>of("country", country, "speed", 120))) {
+                assertEquals(expectedOr(context, operands, evidence),
+                        root.evaluate(new EvidenceContext(evidence)), evidence.toString());
+            }
+        }
+        assertTrue(root.evaluate(new EvidenceContext(Map.of("speed", 120))));
+        assertFalse(root.evaluate(new EvidenceContext(Map.of())));
+        assertEquals(TriState.UNKNOWN, root.evaluate(new EvidenceContext(Map.of("speed", 1)), null));
+    }
+
+    // OR of the rules compared one by one, skipping missing evidence
+    private static boolean expectedOr(
+            DarRuntimeContext context,
+            List<RulesetExpression> operands,
+            Map<String, Object> evidence
+    ) {
+        EvidenceContext ctx = new EvidenceContext(evidence);
+        for (RulesetExpression operand : operands) {
+            RuleRefNode ref = (RuleRefNode) operand;
+            var rule = context.rule(new DarRuntimeContext.RuleKey(ref.version(), ref.ruleId()));
+            if (RuleNodeFactory.create(rule).evaluate(ctx, null) == TriState.TRUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.banyan.platform.ast.builder;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.platform.ast.node.*;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleNodeFactoryTest {
+
+    @Test
+    void thresholdIsParsedOnceIntoDoubleNode() {
+        RuleExecutableNode node =
+                RuleNodeFactory.create(new CompiledRule("failedAttempts", "<=", "3", "THRESHOLD"));
+
+        assertTrue(node instanceof DoubleLessOrEqualRuleNode);
+        assertEquals(3.0, ((DoubleLessOrEqualRuleNode) node).threshold());
+        assertTrue(node.evaluate(new EvidenceContext(Map.of("failedAttempts", 3))));
+        assertFalse(node.evaluate(new EvidenceContext(Map.of("failedAttempts", 4L))));
+    }
+
+    @Test
+    void integralEqualityComparesAcrossBoxes() {
+        RuleExecutableNode node =
+                RuleNodeFactory.create(new CompiledRule("userType", "==", "2", "EQUALITY"));
+
+        assertTrue(node instanceof LongEqualityRuleNode);
+        assertTrue(node.evaluate(new EvidenceContext(Map.of("userType", 2))));
+        assertTrue(node.evaluate(new EvidenceContext(Map.of("userType", 2L))));
+        assertTrue(node.evaluate(new EvidenceContext(Map.of("userType", 2.0d))));
+        assertTrue(node.evaluate(new EvidenceContext(Map.of("userType", "2"))));
+        assertFalse(node.evaluate(new EvidenceContext(Map.of("userType", 3))));
+    }
+
+    @Test
+    void stringAndBooleanEqualityAreSpecialized() {
+        RuleExecutableNode country =
+                RuleNodeFactory.create(new CompiledRule("country", "!=", "IN", "EQUALITY"));
+        RuleExecutableNode hours =
+                RuleNodeFactory.create(new CompiledRule("businessHours", "==", true, "EQUALITY"));
+
+        assertTrue(country instanceof StringEqualityRuleNode);
+        assertTrue(hours instanceof BooleanEqualityRuleNode);
+        assertFalse(country.evaluate(new EvidenceContext(Map.of("country", "IN"))));
+        assertTrue(country.evaluate(new EvidenceContext(Map.of("country", "US"))));
+        assertTrue(hours.evaluate(new EvidenceContext(Map.of("businessHours", true))));
+        assertTrue(hours.evaluate(new EvidenceContext(Map.of("businessHours", "true"))));
+    }
+
+    @Test
+    void missingEvidenceStillFailsFast() {
+        RuleExecutableNode node =
+                RuleNodeFactory.create(new CompiledRule("score", ">", 70, "THRESHOLD"));
+
+        MissingEvidenceException e = assertThrows(MissingEvidenceException.class,
+                () -> node.evaluate(new EvidenceContext(Map.of())));
+        assertEquals("score", e.field());
+    }
+
+    @Test
+    void unsupportedOperatorIsRejectedAtBuildTime() {
+        assertThrows(IllegalStateException.class,
+                () -> RuleNodeFactory.create(new CompiledRule("score", "~", 70, "THRESHOLD")));
+        assertThrows(IllegalStateException.class,
+                () -> RuleNodeFactory.create(new CompiledRule("score", ">", "high", "THRESHOLD")));
+    }
+}
@@ -0,0 +1,113 @@
+package com.banyan.platform.ast.bytecode;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.bytecode.ClassFileWriter.Code;
+import com.banyan.platform.ast.bytecode.ClassFileWriter.Label;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BytecodeRulesetCompilerTest {
+
+    @Test
+    void compiledRulesetMatchesTree() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+
+        List<Map<String, Object>> evidences = List.of(
+                Map.of("failedAttempts", 9, "country", "IN"),
+                Map.of("failedAttempts", 2, "businessHours", true),
+                Map.of("failedAttempts", 2, "businessHours", false, "country", "US"),
+                Map.of("country", "US"),
+                Map.of()
+        );
+
+        for (var entry : context.rulesets()) {
+            ExecutableNode tree = new AstBuilder(context).build(entry.getKey());
+            ExecutableNode compiled = new BytecodeRulesetCompiler(context).compile(entry.getKey());
+
+            assertTrue(compiled.getClass().isHidden());
+            for (Map<String, Object> evidence : evidences) {
+                EvidenceContext evidenceContext = new EvidenceContext(evidence);
+                assertEquals(tree.evaluate(evidenceContext), compiled.evaluate(evidenceContext),
+                        entry.getKey() + " " + evidence);
+            }
+        }
+    }
+
+    @Test
+    void drivingRulesetShortCircuits() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        var key = context.rulesets().iterator().next().getKey();
+
+        ExecutableNode compiled = new BytecodeRulesetCompiler(context).compile(key);
+
+        assertTrue(compiled.evaluate(new EvidenceContext(Map.of(
+                "speedOverLimitSeconds", 500000,
+                "laneDepartureCount", 9,
+                "country", "IN"
+        ))));
+        assertFalse(compiled.evaluate(new EvidenceContext(Map.of(
+                "speedOverLimitSeconds", 500000,
+                "laneDepartureCount", 90
+        ))));
+    }
+
+    @Test
+    void oversizedRulesetKeepsTheTreeForm() {
+
+        // an OR of 8000 rules needs more than 64 KiB of bytecode
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        List<RulesetExpression> operands = new ArrayList<>();
+        for (int i = 0; i < 8000; i++) {
+            rules.put(new DarRuntimeContext.RuleKey(1, "r" + i), new CompiledRule("a", "==", i, "EQUALITY"));
+            operands.add(new RuleRefNode("r" + i, 1));
+        }
+        var key = new DarRuntimeContext.RulesetKey(1, "wide");
+        DarRuntimeContext context = new DarRuntimeContext(Map.of(), Map.of(),
+                Map.of(key, new CompiledRuleset(new LogicalNode(LogicalOperator.OR, operands))), rules, Map.of());
+
+        ExecutableNode compiled = new BytecodeRulesetCompiler(context).compile(key);
+
+        assertFalse(compiled.getClass().isHidden());
+        assertTrue(compiled.evaluate(new EvidenceContext(Map.of("a", 7999))));
+        assertFalse(compiled.evaluate(new EvidenceContext(Map.of("a", 8000))));
+    }
+
+    @Test
+    void onlyClassFileLimitsAreRecoverable() {
+
+        Code tooLong = new Code(1, 1);
+        for (int i = 0; i <= 0xFFFF; i++) {
+            tooLong.op(0x00);
+        }
+        assertThrows(ClassFileLimitException.class, tooLong::toByteArray);
+
+        Code unbound = new Code(1, 1);
+        unbound.jump(0xA7, new Label());
+        IllegalStateException bug = assertThrows(IllegalStateException.class, unbound::toByteArray);
+        assertNotSame(ClassFileLimitException.class, bug.getClass());
+    }
+}
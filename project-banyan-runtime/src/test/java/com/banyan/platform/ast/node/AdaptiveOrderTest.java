@@ -0,0 +1,69 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveOrderTest {
+
+    private static final ExecutableNode ALWAYS_TRUE = context -> true;
+    private static final ExecutableNode ALWAYS_FALSE = context -> false;
+
+    @Test
+    void cheapDecisiveChildMovesFirst() {
+
+        ExecutableNode[] children = {ALWAYS_TRUE, ALWAYS_FALSE};
+        AdaptiveOrder adaptive = new AdaptiveOrder(children);
+
+        for (int i = 0; i < AdaptiveOrder.PUBLISH_EVERY; i++) {
+            // an AND: the expensive first child passes, the cheap second one decides
+            adaptive.record(adaptive.ordering(), new long[]{1_000, 10}, 2, true);
+        }
+
+        AdaptiveOrder.Ordering ordering = adaptive.ordering();
+        assertSame(ALWAYS_FALSE, ordering.nodes()[0]);
+        assertEquals(1, ordering.source()[0]);
+    }
+
+    @Test
+    void adaptiveTreeGivesSameResults() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        var key = context.rulesets().iterator().next().getKey();
+
+        ExecutableNode plain = new AstBuilder(context).build(key);
+        ExecutableNode adaptive = new AstBuilder(context, null, true).build(key);
+        assertTrue(((LogicalExecutableNode) adaptive).isAdaptive());
+
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            Map<String, Object> evidence = new HashMap<>();
+            if (random.nextInt(4) != 0) {
+                evidence.put("speedOverLimitSeconds", random.nextInt(1_000_000));
+            }
+            evidence.put("laneDepartureCount", random.nextInt(20));
+            if (random.nextBoolean()) {
+                evidence.put("country", random.nextBoolean() ? "IN" : "US");
+            }
+            EvidenceContext evidenceContext = new EvidenceContext(evidence);
+
+            assertEquals(plain.evaluate(evidenceContext), adaptive.evaluate(evidenceContext));
+            assertEquals(plain.evaluate(evidenceContext, null), adaptive.evaluate(evidenceContext, null));
+        }
+
+        List<ExecutableNode> order = ((LogicalExecutableNode) adaptive).order();
+        assertEquals(((LogicalExecutableNode) adaptive).children().size(), order.size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.ChallengeAstRegistry;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EvaluationTraceTest {
+
+    @Test
+    void recordsEvaluatedRulesOnlyWhileEnabled() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        var key = context.rulesets().iterator().next().getKey();
+        ExecutableNode root = new AstBuilder(context).build(key);
+        EvidenceContext evidence = new EvidenceContext(Map.of(
+                "speedOverLimitSeconds", 500000,
+                "laneDepartureCount", 9,
+                "country", "IN"
+        ));
+
+        long mark = EvaluationTrace.position();
+        root.evaluate(evidence);
+        assertEquals(0, EvaluationTrace.since(mark).size());
+
+        EvaluationTrace.enable();
+        try {
+            mark = EvaluationTrace.position();
+            assertTrue(root.evaluate(evidence));
+            List<EvaluationTrace.Entry> entries = EvaluationTrace.since(mark);
+
+            assertTrue(!entries.isEmpty());
+            for (EvaluationTrace.Entry entry : entries) {
+                assertEquals(1, entry.version());
+                assertEquals(TriState.TRUE, entry.outcome());
+                assertTrue(entry.ruleId().startsWith("driving_"));
+            }
+
+            mark = EvaluationTrace.position();
+            root.evaluate(new EvidenceContext(Map.of("laneDepartureCount", 9)));
+            assertTrue(EvaluationTrace.since(mark).stream()
+                    .anyMatch(entry -> entry.outcome() == TriState.UNKNOWN));
+        } finally {
+            EvaluationTrace.disable();
+        }
+    }
+
+    @Test
+    void ringKeepsTheLatestEntries() {
+
+        int id = EvaluationTrace.register(
+                new com.banyan.compiler.backend.ruleset.RuleRefNode("ring_rule", 3));
+        long mark = EvaluationTrace.position();
+        for (int i = 0; i < EvaluationTrace.CAPACITY + 10; i++) {
+            EvaluationTrace.record(id, i % 2 == 0 ? TriState.TRUE : TriState.FALSE);
+        }
+
+        int[] raw = EvaluationTrace.rawSince(mark);
+        assertEquals(EvaluationTrace.CAPACITY, raw.length);
+        assertEquals(new EvaluationTrace.Entry("ring_rule", 3, TriState.FALSE),
+                EvaluationTrace.decode(raw[raw.length - 1]));
+    }
+
+    @Test
+    void parallelTasksTraceIntoTheCallersRing() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "compilation_package"),
+                ZipDarLoader.load("src/main/resources/compilation_package.dar"));
+        CompiledChallenge challenge =
+                new ChallengeAstRegistry(store).get(darId, "unique_task_challenge", 1);
+        Map<String, Object> evidence = Map.of("failedAttempts", 9, "businessHours", true);
+
+        EvaluationTrace.enable();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long mark = EvaluationTrace.position();
+            challenge.evaluate(new EvidenceContext(evidence));
+            List<EvaluationTrace.Entry> sequential = EvaluationTrace.since(mark);
+
+            mark = EvaluationTrace.position();
+            challenge.evaluate(new EvidenceContext(evidence), executor);
+            List<EvaluationTrace.Entry> parallel = EvaluationTrace.since(mark);
+
+            assertTrue(!sequential.isEmpty());
+            assertEquals(new HashSet<>(sequential), new HashSet<>(parallel));
+        } finally {
+            EvaluationTrace.disable();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.banyan.platform.ast.node;
+
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.ast.bdd.BddRulesetCompiler;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.bytecode.BytecodeRulesetCompiler;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.UnknownFields;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TriStateEvaluationTest {
+
+    @Test
+    void kleeneTables() {
+        assertEquals(TriState.FALSE, TriState.UNKNOWN.and(TriState.FALSE));
+        assertEquals(TriState.UNKNOWN, TriState.UNKNOWN.and(TriState.TRUE));
+        assertEquals(TriState.TRUE, TriState.UNKNOWN.or(TriState.TRUE));
+        assertEquals(TriState.UNKNOWN, TriState.UNKNOWN.or(TriState.FALSE));
+        assertEquals(TriState.UNKNOWN, TriState.UNKNOWN.not());
+    }
+
+    @Test
+    void booleanResultIsTriStateTrue() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+
+        List<Map<String, Object>> evidences = List.of(
+                Map.of("failedAttempts", 9, "country", "IN"),
+                Map.of("failedAttempts", 2, "businessHours", true),
+                Map.of("country", "US"),
+                Map.of()
+        );
+
+        for (var entry : context.rulesets()) {
+            ExecutableNode tree = new AstBuilder(context).build(entry.getKey());
+            for (Map<String, Object> evidence : evidences) {
+                EvidenceContext evidenceContext = new EvidenceContext(evidence);
+                TriState state = tree.evaluate(evidenceContext, new UnknownFields());
+                boolean expected;
+                try {
+                    expected = tree.evaluate(evidenceContext);
+                } catch (MissingEvidenceException e) {
+                    assertEquals(TriState.UNKNOWN, state, entry.getKey() + " " + evidence);
+                    continue;
+                }
+                assertEquals(expected, state.isTrue(), entry.getKey() + " " + evidence);
+            }
+        }
+    }
+
+    @Test
+    void reportsUnknownFields() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        var key = context.rulesets().iterator().next().getKey();
+        ExecutableNode tree = new AstBuilder(context, layout).build(key);
+
+        EvidenceContext evidence = layout.newBuilder()
+                .set("speedOverLimitSeconds", 500000)
+                .set("laneDepartureCount", 9)
+                .build();
+        UnknownFields unknown = new UnknownFields();
+
+        assertEquals(TriState.UNKNOWN, tree.evaluate(evidence, unknown));
+        assertEquals(List.of("country"), unknown.fields());
+
+        RuleExecutableNode rule = firstRule(tree);
+        assertTrue(unknown.clear().isEmpty());
+        assertThrows(MissingEvidenceException.class,
+                () -> rule.evaluate(new EvidenceContext(Map.of())));
+        assertEquals(TriState.UNKNOWN, rule.evaluate(new EvidenceContext(Map.of()), unknown));
+        assertEquals(List.of(rule.input()), unknown.fields());
+    }
+
+    @Test
+    void mistypedOperandIsUnknownInAnyOrder() {
+
+        // AND/OR of a > 50 and c > 10, with both operand orders
+        var a = new DarRuntimeContext.RuleKey(1, "a_high");
+        var c = new DarRuntimeContext.RuleKey(1, "c_high");
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = Map.of(
+                a, new CompiledRule("a", ">", 50, "THRESHOLD"),
+                c, new CompiledRule("c", ">", 10, "THRESHOLD"));
+        Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets = Map.of(
+                new DarRuntimeContext.RulesetKey(1, "and_ac"), ruleset(LogicalOperator.AND, a, c),
+                new DarRuntimeContext.RulesetKey(1, "and_ca"), ruleset(LogicalOperator.AND, c, a),
+                new DarRuntimeContext.RulesetKey(1, "or_ac"), ruleset(LogicalOperator.OR, a, c),
+                new DarRuntimeContext.RulesetKey(1, "or_ca"), ruleset(LogicalOperator.OR, c, a));
+        DarRuntimeContext context = new DarRuntimeContext(Map.of(), Map.of(), rulesets, rules, Map.of());
+
+        // c holds a string: whichever operand runs first, a decides or the result is UNKNOWN
+        EvidenceContext low = new EvidenceContext(Map.of("a", 10, "c", "many"));
+        EvidenceContext high = new EvidenceContext(Map.of("a", 90, "c", "many"));
+
+        for (var key : rulesets.keySet()) {
+            boolean and = key.name().startsWith("and");
+            List<ExecutableNode> nodes = List.of(
+                    new AstBuilder(context).build(key),
+                    new AstBuilder(context, null, true).build(key),
+                    new BddRulesetCompiler(context).compile(key),
+                    new BytecodeRulesetCompiler(context).compile(key));
+
+            for (ExecutableNode node : nodes) {
+                // enough runs for the adaptive node to sample and reorder
+                for (int i = 0; i < 2 * AdaptiveOrder.PUBLISH_EVERY; i++) {
+                    assertEquals(!and, node.evaluate(high), key + " " + node);
+                    assertEquals(false, node.evaluate(low), key + " " + node);
+                }
+                if (node.getClass().isHidden()) {
+                    continue; // the bytecode form only answers the boolean path
+                }
+                UnknownFields unknown = new UnknownFields();
+                assertEquals(and ? TriState.FALSE : TriState.UNKNOWN, node.evaluate(low, unknown), key + " " + node);
+                assertEquals(and ? TriState.UNKNOWN : TriState.TRUE, node.evaluate(high, null), key + " " + node);
+            }
+        }
+    }
+
+    private static CompiledRuleset ruleset(LogicalOperator operator,
+                                           DarRuntimeContext.RuleKey first,
+                                           DarRuntimeContext.RuleKey second) {
+        return new CompiledRuleset(new LogicalNode(operator, List.of(
+                new RuleRefNode(first.name(), first.version()),
+                new RuleRefNode(second.name(), second.version()))));
+    }
+
+    private static RuleExecutableNode firstRule(ExecutableNode node) {
+        if (node instanceof RuleExecutableNode rule) {
+            return rule;
+        }
+        return firstRule(((LogicalExecutableNode) node).children().get(0));
+    }
+}
@@ -0,0 +1,232 @@
+package com.banyan.platform.ast.program;
+
+import com.banyan.compiler.backend.api.CompilationMetadata;
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.emitter.BinaryZipEmitter;
+import com.banyan.compiler.backend.emitter.RulesetProgramWriter;
+import com.banyan.compiler.backend.program.ProgramRule;
+import com.banyan.compiler.backend.program.RulesetProgram;
+import com.banyan.compiler.backend.program.RulesetProgramCompiler;
+import com.banyan.compiler.backend.rule.CompiledRuleArtifact;
+import com.banyan.compiler.backend.ruleset.CompiledRulesetArtifact;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.deserializer.RulesetProgramReader;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProgramLinkerTest {
+
+    private static final List<String> DARS = List.of(
+            "src/main/resources/compilation_package.dar",
+            "src/main/resources/compilation_driving_package.dar");
+
+    private static final List<Map<String, Object>> EVIDENCES = List.of(
+            Map.of("failedAttempts", 9, "country", "IN"),
+            Map.of("failedAttempts", 2, "businessHours", true),
+            Map.of("failedAttempts", 2, "businessHours", false, "country", "US"),
+            Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN"),
+            Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 90),
+            Map.of("speedOverLimitSeconds", 5, "laneDepartureCount", 1, "country", "IN"),
+            Map.of("country", "US"),
+            Map.of()
+    );
+
+    @Test
+    void programMatchesTree() throws Exception {
+
+        for (String source : DARS) {
+            DarRuntimeContext json = ZipDarLoader.load(source);
+            Path dar = Files.createTempFile("program", ".dar");
+            try {
+                try (OutputStream out = Files.newOutputStream(dar)) {
+                    new BinaryZipEmitter(dar).write(hashedArtifacts(json), out);
+                }
+                for (DarRuntimeContext context : List.of(
+                        ZipDarLoader.load(dar.toString()), ZipDarLoader.loadLazy(dar.toString()))) {
+                    ProgramLinker linker = new ProgramLinker(context);
+                    for (var entry : context.rulesets()) {
+                        DarRuntimeContext.RulesetKey key = entry.getKey();
+                        assertNotNull(context.program(key), key.toString());
+
+                        ExecutableNode tree = new AstBuilder(context).build(key);
+                        ExecutableNode program = linker.link(key);
+                        if (!(entry.getValue().root() instanceof RuleRefNode)) {
+                            assertInstanceOf(ProgramNode.class, program);
+                        }
+                        for (Map<String, Object> evidence : EVIDENCES) {
+                            assertSameDecision(tree, program, evidence, key + " " + evidence);
+                        }
+                    }
+                }
+            } finally {
+                Files.delete(dar);
+            }
+        }
+    }
+
+    @Test
+    void programsStayOutOfTheArtifactDirectories() throws Exception {
+
+        DarRuntimeContext json = ZipDarLoader.load(DARS.get(0));
+        Path dar = Files.createTempFile("program", ".dar");
+        try {
+            try (OutputStream out = Files.newOutputStream(dar)) {
+                new BinaryZipEmitter(dar).write(hashedArtifacts(json), out);
+            }
+            int programs = 0;
+            try (ZipFile zip = new ZipFile(dar.toFile())) {
+                for (ZipEntry entry : Collections.list(zip.entries())) {
+                    // loaders that predate programs read every Ruleset/ entry as a ruleset
+                    boolean program = RulesetProgramReader.isProgram(entry.getName());
+                    assertEquals(program, entry.getName().startsWith("Program/"), entry.getName());
+                    programs += program ? 1 : 0;
+                }
+            }
+            assertEquals(2, programs);
+        } finally {
+            Files.delete(dar);
+        }
+    }
+
+    @Test
+    void staleProgramKeepsTheTree() throws Exception {
+
+        DarRuntimeContext json = ZipDarLoader.load(DARS.get(1));
+        Path dar = Files.createTempFile("program", ".dar");
+        Path stale = Files.createTempFile("stale", ".dar");
+        try {
+            try (OutputStream out = Files.newOutputStream(dar)) {
+                new BinaryZipEmitter(dar).write(hashedArtifacts(json), out);
+            }
+            rehashPrograms(dar, stale);
+
+            for (DarRuntimeContext context : List.of(
+                    ZipDarLoader.load(stale.toString()), ZipDarLoader.loadLazy(stale.toString()))) {
+                for (var entry : context.rulesets()) {
+                    assertNull(context.program(entry.getKey()));
+                    assertFalse(new ProgramLinker(context).link(entry.getKey()) instanceof ProgramNode);
+                }
+            }
+        } finally {
+            Files.delete(dar);
+            Files.delete(stale);
+        }
+    }
+
+    @Test
+    void programDisagreeingWithItsRulesKeepsTheTree() throws Exception {
+
+        DarRuntimeContext json = ZipDarLoader.load(DARS.get(1));
+        List<DarRuntimeContext.RulesetKey> keys = new ArrayList<>();
+        json.rulesets().forEach(entry -> keys.add(entry.getKey()));
+        List<CompiledArtifact<?>> artifacts = hashedArtifacts(json);
+
+        for (DarRuntimeContext.RulesetKey key : keys) {
+            RulesetProgram program = programOf(artifacts, key);
+            List<ProgramRule> rules = new ArrayList<>(program.rules());
+            ProgramRule first = rules.getFirst();
+            rules.set(0, new ProgramRule(first.ruleId(), first.version(),
+                    first.input(), first.operator(), "999", first.ruleType()));
+            DarRuntimeContext context = withProgram(json, key,
+                    new RulesetProgram(key.name(), key.version(), program.sourceHash(), rules, program.code()));
+
+            assertFalse(new ProgramLinker(context).link(key) instanceof ProgramNode, key.toString());
+        }
+    }
+
+    // The DAR's artifacts, rulesets carrying a contentHash so programs are emitted
+    private static List<CompiledArtifact<?>> hashedArtifacts(DarRuntimeContext context) {
+        List<CompiledArtifact<?>> artifacts = new ArrayList<>();
+        context.rulesets().forEach(e -> artifacts.add(new CompiledRulesetArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(),
+                new CompilationMetadata("test", 0L, "hash-" + e.getKey().name()), List.of())));
+        context.rules().forEach(e -> artifacts.add(new CompiledRuleArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(), null, List.of())));
+        return artifacts;
+    }
+
+    private static RulesetProgram programOf(List<CompiledArtifact<?>> artifacts, DarRuntimeContext.RulesetKey key) {
+        return RulesetProgramCompiler.compileAll(artifacts).stream()
+                .filter(program -> program.rulesetId().equals(key.name())
+                        && program.rulesetVersion() == key.version())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static DarRuntimeContext withProgram(
+            DarRuntimeContext json,
+            DarRuntimeContext.RulesetKey key,
+            RulesetProgram program
+    ) {
+        return new DarRuntimeContext(toMap(json.challenges()), toMap(json.tasks()), toMap(json.rulesets()),
+                toMap(json.rules()), toMap(json.evidenceTypes()), Map.of(key, program));
+    }
+
+    // Copies the DAR with every program's sourceHash replaced
+    private static void rehashPrograms(Path dar, Path stale) throws Exception {
+        RulesetProgramReader reader = new RulesetProgramReader();
+        RulesetProgramWriter writer = new RulesetProgramWriter();
+        try (ZipFile zip = new ZipFile(dar.toFile());
+             ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(stale))) {
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                byte[] bytes = zip.getInputStream(entry).readAllBytes();
+                if (RulesetProgramReader.isProgram(entry.getName())) {
+                    RulesetProgram program = reader.read(bytes);
+                    bytes = writer.write(new RulesetProgram(program.rulesetId(), program.rulesetVersion(),
+                            "stale", program.rules(), program.code()));
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                out.write(bytes);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void assertSameDecision(
+            ExecutableNode tree,
+            ExecutableNode program,
+            Map<String, Object> evidence,
+            String message
+    ) {
+        assertEquals(tree.evaluate(new EvidenceContext(evidence), null),
+                program.evaluate(new EvidenceContext(evidence), null), message);
+        boolean decision;
+        try {
+            decision = tree.evaluate(new EvidenceContext(evidence));
+        } catch (MissingEvidenceException e) {
+            assertThrows(MissingEvidenceException.class, () -> program.evaluate(new EvidenceContext(evidence)));
+            return;
+        }
+        assertEquals(decision, program.evaluate(new EvidenceContext(evidence)), message);
+    }
+
+    private static <K, V> Map<K, V> toMap(Iterable<Map.Entry<K, V>> entries) {
+        Map<K, V> map = new HashMap<>();
+        entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        return map;
+    }
+}
@@ -0,0 +1,223 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChallengeAstRegistryTest {
+
+    private static final String DAR = "src/main/resources/compilation_driving_package.dar";
+
+    @Test
+    void buildsOnceForConcurrentCallers() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "driving"), ZipDarLoader.load(DAR));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompiledChallenge>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> registry.get(darId, "driving_india_challenge", 1)));
+            }
+            CompiledChallenge first = futures.get(0).get();
+            for (Future<CompiledChallenge> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ExecutableNode ruleset = registry.ruleset(darId, "driving_india_ruleset", 1);
+        assertSame(ruleset, registry.get(darId, "driving_india_challenge", 1).getTasks().get(0).getRuleset());
+        assertTrue(registry.stats().hitCount() > 0);
+    }
+
+    @Test
+    void unloadInvalidatesTheDarEntries() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "driving"), ZipDarLoader.load(DAR));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+
+        CompiledChallenge before = registry.get(darId, "driving_india_challenge", 1);
+        store.unload(darId);
+        assertThrows(IllegalStateException.class,
+                () -> registry.get(darId, "driving_india_challenge", 1));
+
+        store.register(darId, ZipDarLoader.load(DAR));
+        assertNotSame(before, registry.get(darId, "driving_india_challenge", 1));
+    }
+
+    @Test
+    void challengeLookupBindsOnlyWhatItReaches() throws Exception {
+
+        for (boolean thresholdIndex : new boolean[]{false, true}) {
+
+            DarRuntimeContext driving = ZipDarLoader.load(DAR);
+            Tracking<DarRuntimeContext.ChallengeKey, com.banyan.compiler.backend.challenge.CompiledChallenge>
+                    challenges = new Tracking<>(toMap(driving.challenges()));
+            Tracking<DarRuntimeContext.TaskKey, CompiledTask> tasks = new Tracking<>(toMap(driving.tasks()));
+            Tracking<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets =
+                    new Tracking<>(toMap(driving.rulesets()));
+            Tracking<DarRuntimeContext.RuleKey, CompiledRule> rules = new Tracking<>(toMap(driving.rules()));
+
+            // a second, unrelated challenge
+            challenges.map.put(new DarRuntimeContext.ChallengeKey(1, "other_challenge"),
+                    new com.banyan.compiler.backend.challenge.CompiledChallenge(
+                            List.of(new CompiledTaskRef("other_task", 1))));
+            tasks.map.put(new DarRuntimeContext.TaskKey(1, "other_task"),
+                    new CompiledTask("other_ruleset", 1, null, List.of(), "other"));
+            rulesets.map.put(new DarRuntimeContext.RulesetKey(1, "other_ruleset"),
+                    new CompiledRuleset(new LogicalNode(LogicalOperator.AND, List.of(
+                            new RuleRefNode("other_rule", 1),
+                            new RuleRefNode("driving_india_rule", 1)))));
+            rules.map.put(new DarRuntimeContext.RuleKey(1, "other_rule"),
+                    new CompiledRule("speedOverLimitSeconds", ">", 7, "THRESHOLD"));
+
+            DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+            DarId darId = store.register(new DarId(1, "driving"), new DarRuntimeContext(
+                    challenges, tasks, rulesets, rules, toMap(driving.evidenceTypes())));
+            ChallengeAstRegistry registry = new ChallengeAstRegistry(store, thresholdIndex);
+
+            CompiledChallenge challenge = registry.get(darId, "driving_india_challenge", 1);
+            registry.reader(darId, "driving_india_challenge", 1);
+            assertEquals(Map.of("driving_india_task", true), challenge.evaluate(new EvidenceContext(Map.of(
+                    "speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN"))));
+
+            assertEquals(Set.of("driving_india_challenge"), challenges.boundNames());
+            assertEquals(Set.of("driving_india_task"), tasks.boundNames());
+            assertEquals(Set.of("driving_india_ruleset"), rulesets.boundNames());
+            assertEquals(Set.of("driving_india_rule", "driving_lane_departure_count_rule",
+                    "driving_over_speed_limit_rule"), rules.boundNames());
+        }
+    }
+
+    @Test
+    void challengeListingATaskTwiceIsRejected() throws Exception {
+
+        DarRuntimeContext driving = ZipDarLoader.load(DAR);
+        var task = new DarRuntimeContext.TaskKey(1, "driving_india_task");
+        Map<DarRuntimeContext.TaskKey, CompiledTask> tasks = toMap(driving.tasks());
+        tasks.put(new DarRuntimeContext.TaskKey(2, "driving_india_task"), driving.task(task));
+        Map<DarRuntimeContext.ChallengeKey, com.banyan.compiler.backend.challenge.CompiledChallenge> challenges =
+                toMap(driving.challenges());
+        challenges.put(new DarRuntimeContext.ChallengeKey(1, "twice"),
+                new com.banyan.compiler.backend.challenge.CompiledChallenge(List.of(
+                        new CompiledTaskRef("driving_india_task", 1),
+                        new CompiledTaskRef("driving_india_task", 2))));
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "driving"), new DarRuntimeContext(challenges, tasks,
+                toMap(driving.rulesets()), toMap(driving.rules()), toMap(driving.evidenceTypes())));
+
+        // results are keyed by task id, so the versions would overwrite each other
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChallengeAstRegistry(store).get(darId, "twice", 1));
+    }
+
+    @Test
+    void darUnloadedDuringALookupLeavesNothingCached() throws Exception {
+
+        DarRuntimeContext driving = ZipDarLoader.load(DAR);
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = new DarId(1, "driving");
+        Map<DarRuntimeContext.EvidenceTypeKey, CompiledEvidenceType> evidenceTypes =
+                toMap(driving.evidenceTypes());
+
+        // unloads the DAR as the registry binds its layout, after it read the store
+        store.register(darId, new DarRuntimeContext(toMap(driving.challenges()), toMap(driving.tasks()),
+                toMap(driving.rulesets()), toMap(driving.rules()), new AbstractMap<>() {
+                    @Override
+                    public Set<Entry<DarRuntimeContext.EvidenceTypeKey, CompiledEvidenceType>> entrySet() {
+                        store.unload(darId);
+                        return evidenceTypes.entrySet();
+                    }
+                }));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+
+        // the lookup still answers from the context it read
+        assertEquals(1, registry.get(darId, "driving_india_challenge", 1).getTaskCount());
+        assertThrows(IllegalStateException.class, () -> store.get(darId));
+        assertFalse(registry.isCached(darId));
+    }
+
+    // Records the keys whose value was read, as a lazily loaded DAR binds them
+    private static final class Tracking<K, V> extends AbstractMap<K, V> {
+
+        private final Map<K, V> map;
+        private final Set<K> bound = new HashSet<>();
+
+        Tracking(Map<K, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public V get(Object key) {
+            V value = map.get(key);
+            if (value != null) {
+                @SuppressWarnings("unchecked") K k = (K) key;
+                bound.add(k);
+            }
+            return value;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return map.keySet().stream()
+                    .map(key -> (Entry<K, V>) new SimpleEntry<K, V>(key, null) {
+                        @Override
+                        public V getValue() {
+                            return Tracking.this.get(key);
+                        }
+                    })
+                    .collect(Collectors.toSet());
+        }
+
+        Set<String> boundNames() {
+            return bound.stream().map(Object::toString)
+                    .map(key -> key.substring(key.indexOf("name=") + 5, key.length() - 1))
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
+
+    private static <K, V> Map<K, V> toMap(Iterable<Map.Entry<K, V>> entries) {
+        Map<K, V> map = new HashMap<>();
+        entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        return map;
+    }
+}
@@ -0,0 +1,109 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DecisionCacheTest {
+
+    @Test
+    void unreadFieldsShareOneDecision() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "driving"),
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar"));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        DecisionCache cache = new DecisionCache(store, 10_000);
+        RuntimeEvaluator evaluator = new RuntimeEvaluator(registry, Integer.MAX_VALUE, cache);
+
+        Map<String, Boolean> first = evaluator.evaluate(darId, "driving_india_challenge", 1,
+                new EvidenceContext(Map.of(
+                        "speedOverLimitSeconds", 500000,
+                        "laneDepartureCount", 9,
+                        "country", "IN",
+                        "requestId", "a")));
+        Map<String, Boolean> second = evaluator.evaluate(darId, "driving_india_challenge", 1,
+                new EvidenceContext(Map.of(
+                        "speedOverLimitSeconds", 500000,
+                        "laneDepartureCount", 9,
+                        "country", "IN",
+                        "requestId", "b")));
+
+        assertEquals(Map.of("driving_india_task", true), first);
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+
+        Map<String, Boolean> changed = evaluator.evaluate(darId, "driving_india_challenge", 1,
+                new EvidenceContext(Map.of(
+                        "speedOverLimitSeconds", 500000,
+                        "laneDepartureCount", 90,
+                        "country", "IN")));
+        assertEquals(2, cache.stats().missCount());
+        assertEquals(new RuntimeEvaluator(registry).evaluate(darId, "driving_india_challenge", 1,
+                new EvidenceContext(Map.of(
+                        "speedOverLimitSeconds", 500000,
+                        "laneDepartureCount", 90,
+                        "country", "IN"))), changed);
+    }
+
+    @Test
+    void rulesetDecisionsAreCached() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "package"),
+                ZipDarLoader.load("src/main/resources/compilation_package.dar"));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        DecisionCache cache = new DecisionCache(store, 10_000);
+
+        var key = new DarRuntimeContext.RulesetKey(1, "basic_ruleset");
+        ExecutableNode ruleset = registry.ruleset(darId, key.name(), key.version());
+        EvidenceContext evidence = new EvidenceContext(Map.of("failedAttempts", 9, "businessHours", true));
+
+        boolean expected = ruleset.evaluate(evidence);
+        assertEquals(expected, cache.ruleset(darId, key, ruleset, evidence));
+        assertEquals(expected, cache.ruleset(darId, key, ruleset,
+                new EvidenceContext(Map.of("failedAttempts", 9, "businessHours", true, "unused", 1))));
+        assertEquals(1, cache.stats().hitCount());
+
+        store.unload(darId);
+        assertEquals(expected, cache.ruleset(darId, key, ruleset, evidence));
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    @Test
+    void decisionOfAReplacedDarIsNotServedForItsSuccessor() throws Exception {
+
+        String dar = "src/main/resources/compilation_driving_package.dar";
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "driving"), ZipDarLoader.load(dar));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        DecisionCache cache = new DecisionCache(store, 10_000);
+        Map<String, Object> evidence = Map.of(
+                "speedOverLimitSeconds", 500000,
+                "laneDepartureCount", 9,
+                "country", "IN");
+
+        CompiledChallenge old = registry.get(darId, "driving_india_challenge", 1);
+        store.register(darId, ZipDarLoader.load(dar));
+
+        // an evaluation of the old DAR that finishes after the reload
+        cache.challenge(darId, old, new EvidenceContext(evidence), () -> Map.of("stale", true));
+
+        CompiledChallenge current = registry.get(darId, "driving_india_challenge", 1);
+        Map<String, Boolean> decision = cache.challenge(darId, current, new EvidenceContext(evidence),
+                () -> current.evaluate(new EvidenceContext(evidence)));
+        assertEquals(Map.of("driving_india_task", true), decision);
+        assertEquals(2, cache.stats().missCount());
+    }
+}
@@ -0,0 +1,130 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.AndLogicalNode;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.TriState;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EvaluationSessionTest {
+
+    @Test
+    void updatesMatchFullEvaluation() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+        AstBuilder builder = new AstBuilder(context);
+        String[] fields = {"failedAttempts", "businessHours", "country", "incorrectPasswordsHistory"};
+
+        for (var entry : context.rulesets()) {
+            ExecutableNode root = builder.build(entry.getKey());
+            Map<String, Object> evidence = new HashMap<>();
+            EvaluationSession session = new EvaluationSession(root, evidence);
+            Random random = new Random(11);
+
+            for (int i = 0; i < 500; i++) {
+                String field = fields[random.nextInt(fields.length)];
+                Object value = random.nextInt(4) == 0 ? null : switch (field) {
+                    case "businessHours" -> random.nextBoolean();
+                    case "country" -> random.nextBoolean() ? "IN" : "US";
+                    default -> random.nextInt(10);
+                };
+                if (value == null) {
+                    evidence.remove(field);
+                } else {
+                    evidence.put(field, value);
+                }
+
+                assertEquals(root.evaluate(new EvidenceContext(evidence), null),
+                        session.update(field, value), evidence.toString());
+            }
+        }
+    }
+
+    @Test
+    void failedUpdateLeavesTheSessionUnchanged() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+        var key = new DarRuntimeContext.RulesetKey(1, "login_ruleset");
+        ExecutableNode tree = new AstBuilder(context).build(key);
+        // an opaque node that rejects evidence the rule nodes would count as unknown
+        ExecutableNode strict = evidenceContext -> {
+            if (!(evidenceContext.get("failedAttempts") instanceof Integer)) {
+                throw new IllegalArgumentException("failedAttempts");
+            }
+            return true;
+        };
+        ExecutableNode root = new AndLogicalNode(List.of(tree, strict));
+        Map<String, Object> evidence = Map.of("failedAttempts", 2, "country", "IN", "businessHours", true);
+
+        EvaluationSession session = new EvaluationSession(root, evidence);
+        TriState state = session.state();
+
+        assertThrows(IllegalArgumentException.class, () -> session.update("failedAttempts", "many"));
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("country", "US");
+        changes.put("failedAttempts", "many");
+        assertThrows(IllegalArgumentException.class, () -> session.update(changes));
+
+        assertEquals(state, session.state());
+        evidence.forEach((field, value) -> assertEquals(value, session.get(field), field));
+        assertEquals(TriState.of(root.evaluate(new EvidenceContext(Map.of(
+                "failedAttempts", 9, "country", "IN", "businessHours", true)))),
+                session.update("failedAttempts", 9));
+    }
+
+    @Test
+    void mistypedValueIsUnknown() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+        var key = new DarRuntimeContext.RulesetKey(1, "login_ruleset");
+        ExecutableNode root = new AstBuilder(context).build(key);
+        Map<String, Object> evidence = new HashMap<>(Map.of("failedAttempts", 2, "country", "IN", "businessHours", true));
+
+        EvaluationSession session = new EvaluationSession(root, evidence);
+        evidence.put("failedAttempts", "many");
+
+        assertEquals(root.evaluate(new EvidenceContext(evidence), null), session.update("failedAttempts", "many"));
+        assertEquals("many", session.get("failedAttempts"));
+    }
+
+    @Test
+    void updateEvaluatesOnlyDependentRules() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        var key = context.rulesets().iterator().next().getKey();
+        ExecutableNode root = new AstBuilder(context).build(key);
+
+        EvaluationSession session = new EvaluationSession(root, Map.of(
+                "speedOverLimitSeconds", 500000,
+                "laneDepartureCount", 9,
+                "country", "IN"
+        ));
+        long initial = session.ruleEvaluations();
+        assertEquals(TriState.TRUE, session.state());
+
+        assertEquals(TriState.of(root.evaluate(new EvidenceContext(Map.of(
+                "speedOverLimitSeconds", 500000,
+                "laneDepartureCount", 90,
+                "country", "IN"
+        )))), session.update("laneDepartureCount", 90));
+        assertEquals(initial + 1, session.ruleEvaluations());
+
+        session.update("laneDepartureCount", 90);
+        assertEquals(initial + 1, session.ruleEvaluations());
+    }
+}
@@ -0,0 +1,75 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvidenceReaderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void streamedEvidenceMatchesMapEvidence() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        EvidenceReader reader = EvidenceReader.of(context, layout);
+        var key = context.rulesets().iterator().next().getKey();
+        ExecutableNode tree = new AstBuilder(context).build(key);
+        ExecutableNode bound = new AstBuilder(context, layout).build(key);
+
+        assertTrue(reader.isProjected("laneDepartureCount"));
+        assertFalse(reader.isProjected("notDeclared"));
+
+        EvidenceSlots.Builder builder = layout.newBuilder();
+        EvidenceSlots.Builder expected = layout.newBuilder();
+        List<String> documents = List.of(
+                """
+                {"trace": {"id": [1, 2, {"x": null}]}, "speedOverLimitSeconds": 500000,
+                 "notDeclared": "skip", "laneDepartureCount": 9, "country": "IN"}""",
+                """
+                {"speedOverLimitSeconds": 10.5, "laneDepartureCount": 90, "tags": ["a", "b"]}""",
+                """
+                {"laneDepartureCount": 9, "country": null, "laneDepartureCount": 12}""",
+                "{}"
+        );
+
+        for (String json : documents) {
+            Map<String, Object> values = MAPPER.readValue(json, new TypeReference<Map<String, Object>>() {});
+            values.values().removeIf(v -> v == null);
+            EvidenceContext streamed = reader.read(json, builder);
+            expected.reset();
+            values.forEach(expected::set);
+
+            // same slot kinds as the Map path
+            for (String field : List.of("speedOverLimitSeconds", "laneDepartureCount", "country")) {
+                assertEquals(expected.build().get(field), streamed.get(field), json);
+            }
+            assertNull(streamed.get("notDeclared"));
+            assertEquals(tree.evaluate(new EvidenceContext(values)), bound.evaluate(streamed), json);
+        }
+    }
+
+    @Test
+    void rejectsNonObjects() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        EvidenceReader reader = EvidenceReader.of(context, layout);
+
+        assertThrows(IllegalArgumentException.class, () -> reader.read("[1]", layout.newBuilder()));
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.read("{}", EvidenceLayout.of(context).newBuilder()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.LogicalExecutableNode;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvidenceSlotsTest {
+
+    @Test
+    void layoutAssignsSlotsFromEvidenceTypes() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+
+        assertNotEquals(EvidenceLayout.UNBOUND, layout.slot("speedOverLimitSeconds"));
+        assertNotEquals(EvidenceLayout.UNBOUND, layout.slot("laneDepartureCount"));
+        assertEquals(EvidenceLayout.UNBOUND, layout.slot("notDeclared"));
+        assertEquals("country", layout.field(layout.slot("country")));
+    }
+
+    @Test
+    void boundAstMatchesMapEvaluationWithReusedBuilder() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        var key = context.rulesets().iterator().next().getKey();
+
+        ExecutableNode unbound = new AstBuilder(context).build(key);
+        ExecutableNode bound = new AstBuilder(context, layout).build(key);
+        assertTrue(firstRule(bound).slot() >= 0);
+
+        EvidenceSlots.Builder builder = layout.newBuilder();
+        List<Map<String, Object>> evidences = List.of(
+                Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN"),
+                Map.of("speedOverLimitSeconds", 10, "laneDepartureCount", 90),
+                Map.of("laneDepartureCount", 9),
+                Map.of()
+        );
+
+        for (Map<String, Object> evidence : evidences) {
+            builder.reset();
+            evidence.forEach(builder::set);
+            EvidenceContext slotted = builder.build();
+
+            assertSame(slotted, builder.build());
+            assertEquals(unbound.evaluate(new EvidenceContext(evidence)), bound.evaluate(slotted),
+                    evidence.toString());
+        }
+    }
+
+    @Test
+    void slotsKeepPrimitiveValues() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        int lane = layout.slot("laneDepartureCount");
+
+        EvidenceContext evidence = layout.newBuilder().setLong(lane, 12).build();
+
+        assertEquals(EvidenceSlots.LONG, evidence.slots().kind(lane));
+        assertEquals(12L, evidence.slots().longValue(lane));
+        assertEquals(12L, evidence.get("laneDepartureCount"));
+        assertNull(evidence.get("country"));
+    }
+
+    private static RuleExecutableNode firstRule(ExecutableNode node) {
+        if (node instanceof RuleExecutableNode rule) {
+            return rule;
+        }
+        return firstRule(((LogicalExecutableNode) node).children().get(0));
+    }
+}
@@ -0,0 +1,166 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.compiler.backend.challenge.CompiledTaskRef;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.backend.task.CompiledTask;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RuntimeEvaluatorTest {
+
+    @Test
+    void evaluatesEveryTaskOfTheChallenge() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_package.dar");
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "compilation_package"), context);
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        RuntimeEvaluator evaluator = new RuntimeEvaluator(registry);
+
+        Map<String, Boolean> results = evaluator.evaluate(darId, "unique_task_challenge", 1,
+                new EvidenceContext(Map.of("failedAttempts", 9, "businessHours", true)));
+
+        assertEquals(List.of("task_with_actions", "basic_task"), List.copyOf(results.keySet()));
+        assertEquals(results.get("task_with_actions"), results.get("basic_task"));
+
+        // both tasks point at identical rulesets, which share one AST
+        CompiledChallenge challenge = registry.get(darId, "unique_task_challenge", 1);
+        assertSame(challenge.getTasks().get(0).getRuleset(), challenge.getTasks().get(1).getRuleset());
+    }
+
+    @Test
+    void slotBackedEvidenceUsesRegistryLayout() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(2, "compilation_driving_package"), context);
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        RuntimeEvaluator evaluator = new RuntimeEvaluator(registry);
+
+        EvidenceContext evidence = registry.layout(darId).newBuilder()
+                .set("speedOverLimitSeconds", 500000)
+                .set("laneDepartureCount", 9)
+                .set("country", "IN")
+                .build();
+
+        assertEquals(Map.of("driving_india_task", true),
+                evaluator.evaluate(darId, "driving_india_challenge", 1, evidence));
+        assertThrows(IllegalStateException.class,
+                () -> evaluator.evaluate(darId, "driving_india_challenge", 2, evidence));
+    }
+
+    @Test
+    void parallelTasksGiveSequentialResults() throws Exception {
+
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(1, "compilation_package"),
+                ZipDarLoader.load("src/main/resources/compilation_package.dar"));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+
+        List<Map<String, Object>> evidences = List.of(
+                Map.of("failedAttempts", 9, "businessHours", true),
+                Map.of("failedAttempts", 2, "country", "US"),
+                Map.of()
+        );
+
+        try (RuntimeEvaluator parallel = new RuntimeEvaluator(registry, 2)) {
+            RuntimeEvaluator sequential = new RuntimeEvaluator(registry);
+            for (Map<String, Object> evidence : evidences) {
+                // a context per run, so neither path reads the other's memo
+                Map<String, Boolean> results =
+                        parallel.evaluate(darId, "unique_task_challenge", 1, new EvidenceContext(evidence));
+
+                assertEquals(sequential.evaluate(darId, "unique_task_challenge", 1, new EvidenceContext(evidence)),
+                        results);
+                assertEquals(List.of("task_with_actions", "basic_task"), List.copyOf(results.keySet()));
+            }
+        }
+    }
+
+    @Test
+    void parallelTasksShareNodesOfAnIncrementalRegistry() throws Exception {
+
+        // 32 tasks whose rulesets all repeat OR(r0, r1) and pairs of r2..r5
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            rules.put(new DarRuntimeContext.RuleKey(1, "r" + i), new CompiledRule("f" + i, ">", 5, "THRESHOLD"));
+        }
+        Map<DarRuntimeContext.RulesetKey, CompiledRuleset> rulesets = new HashMap<>();
+        Map<DarRuntimeContext.TaskKey, CompiledTask> tasks = new HashMap<>();
+        List<CompiledTaskRef> refs = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            rulesets.put(new DarRuntimeContext.RulesetKey(1, "ruleset_" + i), new CompiledRuleset(and(
+                    or(ref("r0"), ref("r1")),
+                    or(ref("r" + (2 + i % 4)), ref("r" + (2 + (i / 4 + 1) % 4))))));
+            tasks.put(new DarRuntimeContext.TaskKey(1, "task_" + i),
+                    new CompiledTask("ruleset_" + i, 1, null, List.of(), "task " + i));
+            refs.add(new CompiledTaskRef("task_" + i, 1));
+        }
+        var challenge = new DarRuntimeContext.ChallengeKey(1, "shared");
+
+        for (boolean thresholdIndex : new boolean[]{false, true}) {
+            DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+            DarId darId = store.register(new DarId(1, "shared"), new DarRuntimeContext(
+                    Map.of(challenge, new com.banyan.compiler.backend.challenge.CompiledChallenge(refs)),
+                    tasks, rulesets, rules, Map.of()));
+            ChallengeAstRegistry registry = new ChallengeAstRegistry(store, thresholdIndex);
+            // each earlier lookup leaves shared nodes with a smaller memo size than the next
+            for (int i = 0; i < 32; i += 3) {
+                registry.ruleset(darId, "ruleset_" + i, 1);
+            }
+
+            Random random = new Random(7);
+            try (RuntimeEvaluator parallel = new RuntimeEvaluator(registry, 2)) {
+                RuntimeEvaluator sequential = new RuntimeEvaluator(registry);
+                for (int i = 0; i < 2000; i++) {
+                    Map<String, Object> evidence = new HashMap<>();
+                    for (int field = 0; field < 6; field++) {
+                        if (random.nextInt(4) != 0) {
+                            evidence.put("f" + field, random.nextInt(10));
+                        }
+                    }
+                    EvidenceContext context = new EvidenceContext(evidence);
+                    assertEquals(sequential.evaluate(darId, "shared", 1, new EvidenceContext(evidence)),
+                            parallel.evaluate(darId, "shared", 1, context), evidence.toString());
+                    // the tasks derived nothing on the context they were given; each had a fork
+                    assertNull(context.thresholds);
+                }
+            }
+        }
+    }
+
+    private static RulesetExpression ref(String ruleId) {
+        return new RuleRefNode(ruleId, 1);
+    }
+
+    private static RulesetExpression and(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.AND, List.of(operands));
+    }
+
+    private static RulesetExpression or(RulesetExpression... operands) {
+        return new LogicalNode(LogicalOperator.OR, List.of(operands));
+    }
+}
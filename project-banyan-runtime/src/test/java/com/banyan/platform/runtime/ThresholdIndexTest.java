@@ -0,0 +1,268 @@
+package com.banyan.platform.runtime;
+
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.evidence.EvidenceField;
+import com.banyan.compiler.backend.rule.CompiledRule;
+import com.banyan.compiler.backend.ruleset.CompiledRuleset;
+import com.banyan.compiler.backend.ruleset.LogicalNode;
+import com.banyan.compiler.backend.ruleset.RuleRefNode;
+import com.banyan.compiler.backend.ruleset.RulesetExpression;
+import com.banyan.compiler.enums.EvidenceValueType;
+import com.banyan.compiler.enums.LogicalOperator;
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.builder.RuleNodeFactory;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.ast.node.IndexedThresholdRuleNode;
+import com.banyan.platform.ast.node.LogicalExecutableNode;
+import com.banyan.platform.ast.node.OrLogicalNode;
+import com.banyan.platform.ast.node.RuleExecutableNode;
+import com.banyan.platform.ast.node.TriState;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import com.banyan.platform.runtime.exception.MissingEvidenceException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThresholdIndexTest {
+
+    private static final String[] OPERATORS = {">", ">=", "<", "<=", "=="};
+
+    @Test
+    void indexedOutcomesMatchDirectComparison() {
+
+        DarRuntimeContext context = cutOffs(130);
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        ThresholdIndex index = ThresholdIndex.of(context, layout);
+
+        // equality rules are not indexed
+        assertEquals(104, index.size());
+
+        EvidenceSlots.Builder builder = layout.newBuilder();
+        for (double value : new double[]{-1, 0, 4, 5, 5.5, 60, 125, 200}) {
+
+            Map<String, Object> evidence = Map.of("speed", value);
+            ThresholdIndex.Outcomes byMap = index.outcomes(new EvidenceContext(evidence));
+            ThresholdIndex.Outcomes bySlots = index.outcomes(builder.reset().set("speed", value).build());
+
+            for (var entry : context.rules()) {
+                int bit = index.bit(entry.getKey());
+                if (bit < 0) {
+                    assertEquals("==", entry.getValue().operator());
+                    continue;
+                }
+                boolean expected = RuleNodeFactory.create(entry.getValue()).matches(value);
+                assertEquals(entry.getKey(), index.rule(bit));
+                assertEquals(expected, byMap.isTrue(bit), entry.getValue() + " at " + value);
+                assertEquals(expected, bySlots.isTrue(bit), entry.getValue() + " at " + value);
+            }
+        }
+
+        ThresholdIndex.Outcomes missing = index.outcomes(new EvidenceContext(Map.of()));
+        assertFalse(missing.isPresent(0));
+        assertSame(TriState.UNKNOWN, missing.state(0));
+    }
+
+    @Test
+    void outcomesAreComputedOncePerContext() {
+
+        DarRuntimeContext context = cutOffs(10);
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        ThresholdIndex index = ThresholdIndex.of(context, layout);
+
+        EvidenceContext evidence = new EvidenceContext(Map.of("speed", 3));
+        assertSame(index.outcomes(evidence), index.outcomes(evidence));
+
+        // a reused builder drops the outcomes of its previous evidence
+        EvidenceSlots.Builder builder = layout.newBuilder();
+        ThresholdIndex.Outcomes first = index.outcomes(builder.reset().set("speed", 3).build());
+        ThresholdIndex.Outcomes second = index.outcomes(builder.reset().set("speed", 7).build());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void overwrittenFieldIsReevaluatedAfterBuild() {
+
+        DarRuntimeContext context = cutOffs(10);
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        ThresholdIndex index = ThresholdIndex.of(context, layout);
+
+        // no reset between the two evidences
+        EvidenceSlots.Builder builder = layout.newBuilder();
+        for (int speed : new int[]{1, 8}) {
+            EvidenceContext evidence = builder.set("speed", speed).build();
+            for (var entry : context.rules()) {
+                int bit = index.bit(entry.getKey());
+                if (bit < 0) {
+                    continue;
+                }
+                RuleExecutableNode direct = RuleNodeFactory.create(entry.getValue());
+                assertEquals(direct.matches(speed),
+                        new IndexedThresholdRuleNode(direct, index, bit).evaluate(evidence),
+                        entry.getValue() + " at " + speed);
+            }
+        }
+    }
+
+    @Test
+    void indexedAstMatchesDirectAst() throws Exception {
+
+        DarRuntimeContext context = cutOffs(64);
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        var key = new DarRuntimeContext.RulesetKey(1, "speed_ruleset");
+
+        ExecutableNode direct = new AstBuilder(context, layout).build(key);
+        ExecutableNode indexed = new AstBuilder(context, layout, false, ThresholdIndex.of(context, layout)).build(key);
+        assertInstanceOf(IndexedThresholdRuleNode.class,
+                ((LogicalExecutableNode) indexed).children().get(0));
+
+        for (int speed = -2; speed < 70; speed++) {
+            EvidenceContext evidence = new EvidenceContext(Map.of("speed", speed));
+            assertEquals(direct.evaluate(evidence), indexed.evaluate(evidence), "speed " + speed);
+        }
+
+        DarRuntimeContext driving =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout drivingLayout = EvidenceLayout.of(driving);
+        var drivingKey = driving.rulesets().iterator().next().getKey();
+        ExecutableNode plain = new AstBuilder(driving, drivingLayout).build(drivingKey);
+        ExecutableNode root = new AstBuilder(driving, drivingLayout, false,
+                ThresholdIndex.of(driving, drivingLayout)).build(drivingKey);
+
+        for (Map<String, Object> evidence : List.of(
+                Map.<String, Object>of("speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN"),
+                Map.<String, Object>of("speedOverLimitSeconds", 10, "laneDepartureCount", 90, "country", "IN"),
+                Map.<String, Object>of("speedOverLimitSeconds", 10, "laneDepartureCount", 0, "country", "US"))) {
+            assertEquals(plain.evaluate(new EvidenceContext(evidence)),
+                    root.evaluate(new EvidenceContext(evidence)), evidence.toString());
+        }
+    }
+
+    @Test
+    void logicalRootsReadTheIndex() {
+
+        DarRuntimeContext context = cutOffs(10);
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        ThresholdIndex index = ThresholdIndex.of(context, layout);
+        var key = new DarRuntimeContext.RulesetKey(1, "speed_ruleset");
+        ExecutableNode direct = new AstBuilder(context, layout).build(key);
+        ExecutableNode indexed = new AstBuilder(context, layout, false, index).build(key);
+        assertInstanceOf(OrLogicalNode.class, indexed);
+
+        for (Map<String, Object> values : List.<Map<String, Object>>of(
+                Map.of("speed", -5), Map.of("speed", 4), Map.of())) {
+            EvidenceContext evidence = new EvidenceContext(values);
+            assertEquals(direct.evaluate(new EvidenceContext(values)), indexed.evaluate(evidence));
+            assertSame(index.outcomes(evidence), evidence.thresholds, values.toString());
+
+            UnknownFields unknown = new UnknownFields();
+            EvidenceContext triState = new EvidenceContext(values);
+            assertEquals(direct.evaluate(new EvidenceContext(values), new UnknownFields()),
+                    indexed.evaluate(triState, unknown));
+            assertNotNull(triState.thresholds, values.toString());
+            assertEquals(values.isEmpty(), unknown.contains("speed"));
+        }
+    }
+
+    @Test
+    void bareIndexedRuleThrowsOnMissingEvidence() {
+
+        DarRuntimeContext context = cutOffs(5);
+        ThresholdIndex index = ThresholdIndex.of(context);
+        var rule = context.rules().iterator().next();
+        IndexedThresholdRuleNode node = new IndexedThresholdRuleNode(
+                RuleNodeFactory.create(rule.getValue()), index, index.bit(rule.getKey()));
+
+        assertThrows(MissingEvidenceException.class,
+                () -> node.evaluate(new EvidenceContext(Map.of())));
+    }
+
+    @Test
+    void nonNumericValueOnlyFailsRulesThatReadIt() {
+
+        DarRuntimeContext speed = cutOffs(10);
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        speed.rules().forEach(entry -> rules.put(entry.getKey(), entry.getValue()));
+        var gearKey = new DarRuntimeContext.RuleKey(1, "gear_rule");
+        rules.put(gearKey, new CompiledRule("gear", ">", 2, "THRESHOLD"));
+        DarRuntimeContext context = new DarRuntimeContext(Map.of(), Map.of(),
+                Map.of(new DarRuntimeContext.RulesetKey(1, "speed_ruleset"),
+                        speed.ruleset(new DarRuntimeContext.RulesetKey(1, "speed_ruleset"))),
+                rules, Map.of());
+        ThresholdIndex index = ThresholdIndex.of(context);
+        var key = new DarRuntimeContext.RulesetKey(1, "speed_ruleset");
+
+        ExecutableNode direct = new AstBuilder(context).build(key);
+        ExecutableNode indexed = new AstBuilder(context, null, false, index).build(key);
+        Map<String, Object> evidence = Map.of("speed", 4, "gear", "fifth");
+        assertEquals(direct.evaluate(new EvidenceContext(evidence)),
+                indexed.evaluate(new EvidenceContext(evidence)));
+
+        ThresholdIndex.Outcomes outcomes = index.outcomes(new EvidenceContext(evidence));
+        assertFalse(outcomes.isPresent(index.bit(gearKey)));
+        assertTrue(outcomes.isDeferred(index.bit(gearKey)));
+
+        IndexedThresholdRuleNode gear = new IndexedThresholdRuleNode(
+                RuleNodeFactory.create(rules.get(gearKey)), index, index.bit(gearKey));
+        assertThrows(ClassCastException.class, () -> gear.evaluate(new EvidenceContext(evidence)));
+        assertTrue(gear.evaluate(new EvidenceContext(Map.of("gear", 3))));
+    }
+
+    @Test
+    void nanSatisfiesNoThreshold() {
+
+        DarRuntimeContext context = cutOffs(20);
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        ThresholdIndex index = ThresholdIndex.of(context, layout);
+
+        ThresholdIndex.Outcomes byMap = index.outcomes(new EvidenceContext(Map.of("speed", Double.NaN)));
+        ThresholdIndex.Outcomes bySlots =
+                index.outcomes(layout.newBuilder().reset().set("speed", Double.NaN).build());
+        for (var entry : context.rules()) {
+            int bit = index.bit(entry.getKey());
+            if (bit < 0) {
+                continue;
+            }
+            assertFalse(RuleNodeFactory.create(entry.getValue()).matches(Double.NaN));
+            assertTrue(byMap.isPresent(bit));
+            assertFalse(byMap.isTrue(bit), entry.getValue().toString());
+            assertFalse(bySlots.isTrue(bit), entry.getValue().toString());
+        }
+
+        var key = new DarRuntimeContext.RulesetKey(1, "speed_ruleset");
+        EvidenceContext evidence = new EvidenceContext(Map.of("speed", Double.NaN));
+        assertEquals(new AstBuilder(context, layout).build(key).evaluate(evidence),
+                new AstBuilder(context, layout, false, index).build(key)
+                        .evaluate(new EvidenceContext(Map.of("speed", Double.NaN))));
+    }
+
+    // count rules on "speed" with cut-offs 0..count-1, one ruleset ORing all of them
+    private static DarRuntimeContext cutOffs(int count) {
+
+        Map<DarRuntimeContext.RuleKey, CompiledRule> rules = new HashMap<>();
+        List<RulesetExpression> operands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = "speed_rule_" + i;
+            String operator = OPERATORS[i % OPERATORS.length];
+            rules.put(new DarRuntimeContext.RuleKey(1, id), new CompiledRule(
+                    "speed", operator, i % 3 == 0 ? i : i / 2, operator.equals("==") ? "EQUALITY" : "THRESHOLD"));
+            operands.add(new RuleRefNode(id, 1));
+        }
+
+        return new DarRuntimeContext(
+                Map.of(),
+                Map.of(),
+                Map.of(new DarRuntimeContext.RulesetKey(1, "speed_ruleset"),
+                        new CompiledRuleset(new LogicalNode(LogicalOperator.OR, operands))),
+                rules,
+                Map.of(new DarRuntimeContext.EvidenceTypeKey(1, "TELEMETRY"),
+                        new CompiledEvidenceType("TELEMETRY", 1,
+                                Map.of("speed", new EvidenceField("speed", EvidenceValueType.DECIMAL, true))))
+        );
+    }
+}
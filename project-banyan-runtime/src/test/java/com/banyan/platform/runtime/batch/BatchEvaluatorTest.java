@@ -0,0 +1,74 @@
+package com.banyan.platform.runtime.batch;
+
+import com.banyan.platform.ast.builder.AstBuilder;
+import com.banyan.platform.ast.bytecode.BytecodeRulesetCompiler;
+import com.banyan.platform.ast.node.ExecutableNode;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceLayout;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchEvaluatorTest {
+
+    private static final int ROWS = 300;
+
+    @Test
+    void batchMatchesRowByRowEvaluation() throws Exception {
+
+        DarRuntimeContext context =
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar");
+        EvidenceLayout layout = EvidenceLayout.of(context);
+        var key = context.rulesets().iterator().next().getKey();
+
+        Random random = new Random(42);
+        long[] speed = new long[ROWS];
+        double[] lanes = new double[ROWS];
+        Object[] country = new Object[ROWS];
+        long[] speedPresent = new long[(ROWS + 63) >>> 6];
+
+        for (int i = 0; i < ROWS; i++) {
+            speed[i] = random.nextInt(1_000_000);
+            lanes[i] = random.nextInt(20);
+            country[i] = random.nextInt(3) == 0 ? null : random.nextBoolean() ? "IN" : "US";
+            if (random.nextInt(4) != 0) {
+                speedPresent[i >>> 6] |= 1L << i;
+            }
+        }
+
+        EvidenceBatch batch = new EvidenceBatch(layout, ROWS)
+                .longs("speedOverLimitSeconds", speed, speedPresent)
+                .doubles("laneDepartureCount", lanes)
+                .references("country", country);
+
+        ExecutableNode tree = new AstBuilder(context, layout).build(key);
+        ExecutableNode compiled = new BytecodeRulesetCompiler(context).compile(key);
+        long[] treeMask = BatchEvaluator.evaluate(tree, batch);
+        long[] compiledMask = BatchEvaluator.evaluate(compiled, batch);
+
+        for (int i = 0; i < ROWS; i++) {
+            Map<String, Object> evidence = new HashMap<>();
+            if ((speedPresent[i >>> 6] & (1L << i)) != 0L) {
+                evidence.put("speedOverLimitSeconds", speed[i]);
+            }
+            evidence.put("laneDepartureCount", lanes[i]);
+            if (country[i] != null) {
+                evidence.put("country", country[i]);
+            }
+            boolean expected = tree.evaluate(new EvidenceContext(evidence));
+
+            assertEquals(expected, (treeMask[i >>> 6] & (1L << i)) != 0L, "row " + i);
+            assertEquals(expected, (compiledMask[i >>> 6] & (1L << i)) != 0L, "row " + i);
+        }
+        assertTrue(Arrays.stream(treeMask).map(Long::bitCount).sum() > 0);
+        assertEquals(0L, treeMask[treeMask.length - 1] >>> (ROWS & 63));
+    }
+}
@@ -0,0 +1,100 @@
+package com.banyan.platform.runtime.bulk;
+
+import com.banyan.platform.challenge.CompiledChallenge;
+import com.banyan.platform.runtime.ChallengeAstRegistry;
+import com.banyan.platform.runtime.EvidenceContext;
+import com.banyan.platform.runtime.EvidenceReader;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import com.banyan.platform.runtime.darLoader.ZipDarLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkEvaluatorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CompiledChallenge challenge;
+    private EvidenceReader reader;
+
+    @BeforeEach
+    void loadDar() throws Exception {
+        DarRuntimeStore store = new DarRuntimeStore(10, Duration.ofMinutes(5));
+        DarId darId = store.register(new DarId(2, "compilation_driving_package"),
+                ZipDarLoader.load("src/main/resources/compilation_driving_package.dar"));
+        ChallengeAstRegistry registry = new ChallengeAstRegistry(store);
+        challenge = registry.get(darId, "driving_india_challenge", 1);
+        reader = registry.reader(darId);
+    }
+
+    @Test
+    void ndjsonDecisionsKeepInputOrder() throws Exception {
+
+        List<Map<String, Object>> evidences = List.of(
+                Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN"),
+                Map.of("speedOverLimitSeconds", 500000, "laneDepartureCount", 90),
+                Map.of("laneDepartureCount", 9, "country", "IN")
+        );
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        int line = 0;
+        for (int i = 0; i < 200; i++) {
+            Map<String, Object> evidence = evidences.get(i % evidences.size());
+            input.append(MAPPER.writeValueAsString(evidence)).append('\n');
+            line++;
+            expected.append("{\"line\":").append(line).append(",\"decisions\":{\"driving_india_task\":")
+                    .append(challenge.evaluate(new EvidenceContext(evidence)).get("driving_india_task"))
+                    .append("}}\n");
+        }
+        input.append("\n{\"country\": \n");
+        expected.append("{\"line\":").append(line + 2).append(",\"error\":");
+
+        StringWriter out = new StringWriter();
+        BulkEvaluator.Summary summary = new BulkEvaluator(challenge, reader, RecordFormat.NDJSON, 4, 7)
+                .run(new BufferedReader(new StringReader(input.toString())), out);
+
+        assertEquals(new BulkEvaluator.Summary(201, 1), summary);
+        assertTrue(out.toString().startsWith(expected.toString()), out.toString());
+    }
+
+    @Test
+    void csvCellsAreTypedByTheLayout() throws Exception {
+
+        String input = """
+                country,laneDepartureCount,unused,speedOverLimitSeconds
+                IN,9,"a, b",500000
+                ,90,,500000
+                IN,nine,,1
+                """;
+
+        StringWriter out = new StringWriter();
+        BulkEvaluator.Summary summary = new BulkEvaluator(challenge, reader, RecordFormat.CSV, 2, 1)
+                .run(new BufferedReader(new StringReader(input)), out);
+
+        boolean first = challenge.evaluate(new EvidenceContext(Map.of(
+                "speedOverLimitSeconds", 500000, "laneDepartureCount", 9, "country", "IN")))
+                .get("driving_india_task");
+        boolean second = challenge.evaluate(new EvidenceContext(Map.of(
+                "speedOverLimitSeconds", 500000, "laneDepartureCount", 90)))
+                .get("driving_india_task");
+
+        assertEquals(new BulkEvaluator.Summary(3, 1), summary);
+        assertEquals("""
+                line,driving_india_task,error
+                2,%b,
+                3,%b,
+                4,,Not INTEGER for laneDepartureCount: nine
+                """.formatted(first, second), out.toString());
+    }
+}
@@ -0,0 +1,188 @@
+package com.banyan.platform.runtime.darLoader;
+
+import com.banyan.compiler.backend.api.ArtifactReference;
+import com.banyan.compiler.backend.api.CompiledArtifact;
+import com.banyan.compiler.backend.challenge.CompiledChallengeArtifact;
+import com.banyan.compiler.backend.emitter.BinaryZipEmitter;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceType;
+import com.banyan.compiler.backend.evidence.CompiledEvidenceTypeArtifact;
+import com.banyan.compiler.backend.rule.CompiledRuleArtifact;
+import com.banyan.compiler.backend.ruleset.CompiledRulesetArtifact;
+import com.banyan.compiler.backend.task.CompiledTaskArtifact;
+import com.banyan.compiler.enums.ArtifactType;
+import com.banyan.platform.runtime.context.DarId;
+import com.banyan.platform.runtime.context.DarRuntimeContext;
+import com.banyan.platform.runtime.context.DarRuntimeStore;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZipDarLoaderTest {
+
+    private static final String DAR = "src/main/resources/compilation_package.dar";
+
+    @Test
+    void parallelLoadMatchesSequentialLoad() throws Exception {
+
+        DarRuntimeContext sequential = ZipDarLoader.loadWithMetrics(DAR, 1).context();
+        DarRuntimeContext parallel = ZipDarLoader.loadWithMetrics(DAR, 4).context();
+
+        assertEquals(toMap(sequential.challenges()), toMap(parallel.challenges()));
+        assertEquals(toMap(sequential.tasks()), toMap(parallel.tasks()));
+        assertEquals(toMap(sequential.rules()), toMap(parallel.rules()));
+        for (var ruleset : sequential.rulesets()) {
+            assertEquals(ruleset.getValue().root(), parallel.ruleset(ruleset.getKey()).root());
+        }
+        for (var evidenceType : sequential.evidenceTypes()) {
+            CompiledEvidenceType loaded = parallel.evidenceType(evidenceType.getKey());
+            assertEquals(evidenceType.getValue().fields().keySet(), loaded.fields().keySet());
+            for (String field : loaded.fields().keySet()) {
+                assertEquals(evidenceType.getValue().fieldType(field), loaded.fieldType(field));
+            }
+        }
+    }
+
+    @Test
+    void metricsCountArtifactsPerType() throws Exception {
+
+        DarLoadMetrics metrics = ZipDarLoader.loadWithMetrics(DAR, 3).metrics();
+
+        assertEquals(3, metrics.threads());
+        assertEquals(10, metrics.artifacts());
+        assertEquals(1, metrics.types().get(ArtifactType.EvidenceType).artifacts());
+        assertEquals(2, metrics.types().get(ArtifactType.Ruleset).artifacts());
+        assertEquals(4, metrics.types().get(ArtifactType.Rule).artifacts());
+        assertEquals(2, metrics.types().get(ArtifactType.Task).artifacts());
+        assertEquals(1, metrics.types().get(ArtifactType.Challenge).artifacts());
+        assertEquals(2922, metrics.types().get(ArtifactType.Ruleset).bytes());
+        assertThrows(IllegalArgumentException.class, () -> ZipDarLoader.loadWithMetrics(DAR, 0));
+    }
+
+    @Test
+    void lazyContextMatchesEagerContext() throws Exception {
+
+        DarRuntimeContext eager = ZipDarLoader.load(DAR);
+        DarRuntimeContext lazy = ZipDarLoader.loadLazy(DAR);
+
+        assertEquals(toMap(eager.rules()), toMap(lazy.rules()));
+        assertEquals(toMap(eager.tasks()), toMap(lazy.tasks()));
+        assertEquals(toMap(eager.challenges()), toMap(lazy.challenges()));
+        for (var ruleset : eager.rulesets()) {
+            assertEquals(ruleset.getValue().root(), lazy.ruleset(ruleset.getKey()).root());
+        }
+        for (var evidenceType : eager.evidenceTypes()) {
+            assertEquals(evidenceType.getValue().fields().keySet(),
+                    lazy.evidenceType(evidenceType.getKey()).fields().keySet());
+        }
+        assertThrows(IllegalStateException.class,
+                () -> lazy.rule(new DarRuntimeContext.RuleKey(9, "max_failed_attempts")));
+    }
+
+    @Test
+    void unloadClosesTheLazyArchive() throws Exception {
+
+        DarRuntimeContext lazy = ZipDarLoader.loadLazy(DAR);
+        var rule = new DarRuntimeContext.RuleKey(1, "max_failed_attempts");
+        var ruleset = new DarRuntimeContext.RulesetKey(1, "login_ruleset");
+        var challenge = lazy.challenges().iterator().next().getKey();
+        assertNotNull(lazy.rule(rule));
+
+        DarRuntimeStore store = new DarRuntimeStore(4, Duration.ofHours(1));
+        DarId id = store.register(new DarId(1, "lazy"), lazy);
+        store.register(id, lazy);
+        assertNotNull(lazy.ruleset(ruleset));
+
+        List<DarId> unloaded = new ArrayList<>();
+        store.onUnload(unloaded::add);
+        store.unload(id);
+
+        assertEquals(List.of(id), unloaded);
+        assertNotNull(lazy.rule(rule));
+        assertThrows(IllegalStateException.class, () -> lazy.challenge(challenge));
+    }
+
+    @Test
+    void lazyMapBindsEachArtifactOnceOnFirstRead() {
+
+        Map<String, ZipEntry> index = new LinkedHashMap<>();
+        index.put("a", new ZipEntry("Rule/1/a.json"));
+        index.put("b", new ZipEntry("Rule/1/b.json"));
+        List<String> bound = new ArrayList<>();
+        LazyArtifactMap<String, String> map = new LazyArtifactMap<>(index, (key, entry) -> {
+            bound.add(key);
+            return entry.getName();
+        });
+
+        assertEquals(List.of("a", "b"), new ArrayList<>(map.keySet()));
+        assertTrue(bound.isEmpty());
+        assertEquals("Rule/1/b.json", map.get("b"));
+        assertEquals("Rule/1/b.json", map.get("b"));
+        assertNull(map.get("c"));
+        assertEquals(List.of("b"), bound);
+        assertEquals("Rule/1/a.json", map.entrySet().iterator().next().getValue());
+        assertEquals(List.of("b", "a"), bound);
+    }
+
+    @Test
+    void binaryDarMatchesJsonDar() throws Exception {
+
+        DarRuntimeContext json = ZipDarLoader.load(DAR);
+        List<CompiledArtifact<?>> artifacts = new ArrayList<>();
+        json.challenges().forEach(e -> artifacts.add(new CompiledChallengeArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(), null, List.of())));
+        json.tasks().forEach(e -> artifacts.add(new CompiledTaskArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(), null, List.of())));
+        json.rulesets().forEach(e -> artifacts.add(new CompiledRulesetArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(), null, List.of())));
+        json.rules().forEach(e -> artifacts.add(new CompiledRuleArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(), null, List.of())));
+        json.evidenceTypes().forEach(e -> artifacts.add(new CompiledEvidenceTypeArtifact(
+                e.getKey().name(), e.getKey().version(), e.getValue(), null,
+                List.of(new ArtifactReference(ArtifactType.EvidenceType, e.getKey().name(), 1)))));
+
+        Path dar = Files.createTempFile("binary", ".dar");
+        try {
+            try (OutputStream out = Files.newOutputStream(dar)) {
+                new BinaryZipEmitter(dar).write(artifacts, out);
+            }
+            assertBinaryMatches(json, dar);
+        } finally {
+            Files.delete(dar);
+        }
+    }
+
+    private static void assertBinaryMatches(DarRuntimeContext json, Path dar) throws Exception {
+        for (DarRuntimeContext binary : List.of(
+                ZipDarLoader.load(dar.toString()), ZipDarLoader.loadLazy(dar.toString()))) {
+            assertEquals(toMap(json.rules()), toMap(binary.rules()));
+            assertEquals(toMap(json.tasks()), toMap(binary.tasks()));
+            assertEquals(toMap(json.challenges()), toMap(binary.challenges()));
+            for (var ruleset : json.rulesets()) {
+                assertEquals(ruleset.getValue().root(), binary.ruleset(ruleset.getKey()).root());
+            }
+            for (var evidenceType : json.evidenceTypes()) {
+                assertEquals(evidenceType.getValue().fields(),
+                        binary.evidenceType(evidenceType.getKey()).fields());
+            }
+        }
+        assertTrue(ZipDarLoader.loadWithMetrics(dar.toString(), 1).metrics().types()
+                .get(ArtifactType.Ruleset).bytes() < 2922 / 4);
+    }
+
+    private static <K, V> Map<K, V> toMap(Iterable<Map.Entry<K, V>> entries) {
+        Map<K, V> map = new HashMap<>();
+        entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        return map;
+    }
+}